@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.benchmarks;
+
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.swagger.langserver.DocumentManagerImpl;
+import org.swagger.langserver.completion.ContentParserUtil;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link ContentParserUtil#getCompletions(CompletionParams)} on an unchanged document, and while typing
+ * at the cursor, where each completion follows a change of the document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    @Param({"SHALLOW", "DEEP"})
+    public SpecGenerator.Cursor cursor;
+
+    private DocumentManagerImpl documentManager;
+
+    private Path filePath;
+
+    private CompletionParams completionParams;
+
+    private CompletionParams typedCompletionParams;
+
+    private TextDocumentContentChangeEvent insertChange;
+
+    private TextDocumentContentChangeEvent deleteChange;
+
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, URISyntaxException {
+        SpecGenerator spec = SpecGenerator.generate(lines);
+        Position position = spec.getCursor(cursor);
+        Position typedPosition = new Position(position.getLine(), position.getCharacter() + 1);
+
+        documentManager = DocumentManagerImpl.getInstance();
+        filePath = Paths.get(System.getProperty("java.io.tmpdir"), "completion-" + lines + "-" + cursor + ".yaml")
+                .toAbsolutePath();
+        documentManager.openFile(filePath, version, spec.getContent());
+        TextDocumentIdentifier identifier = new TextDocumentIdentifier(filePath.toUri().toString());
+        completionParams = new CompletionParams(identifier, position);
+        typedCompletionParams = new CompletionParams(identifier, typedPosition);
+        insertChange = new TextDocumentContentChangeEvent(new Range(position, position), 0, "d");
+        deleteChange = new TextDocumentContentChangeEvent(new Range(position, typedPosition), 1, "");
+
+        ContentParserUtil.loadModelTypes();
+        ContentParserUtil.getCompletions(completionParams);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        documentManager.closeFile(filePath);
+    }
+
+    @Benchmark
+    public CompletionList getCompletions() throws IOException, URISyntaxException {
+        return ContentParserUtil.getCompletions(completionParams);
+    }
+
+    /**
+     * Type a character at the cursor and request the completions. Every other invocation removes the character, hence
+     * the document does not grow.
+     */
+    @Benchmark
+    public CompletionList changeAndGetCompletions() throws IOException, URISyntaxException {
+        boolean insert = version % 2 == 0;
+        version++;
+        documentManager.updateFile(filePath, version, Collections.singletonList(insert ? insertChange : deleteChange));
+        return ContentParserUtil.getCompletions(insert ? typedCompletionParams : completionParams);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.benchmarks;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.swagger.langserver.DocumentManagerImpl;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.TextDocument;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link DocumentManagerImpl} lookups and the document changes, as done on didChange.
+ *
+ * The changes are applied to the document manager directly, since the text document service also schedules the
+ * background validation, which would compete with the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentManagerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    private DocumentManagerImpl documentManager;
+
+    private Path filePath;
+
+    private Path aliasPath;
+
+    private int middleLine;
+
+    private TextDocumentContentChangeEvent insertChange;
+
+    private TextDocumentContentChangeEvent deleteChange;
+
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SpecGenerator spec = SpecGenerator.generate(lines);
+        documentManager = DocumentManagerImpl.getInstance();
+        filePath = Paths.get(System.getProperty("java.io.tmpdir"), "document-" + lines + ".yaml").toAbsolutePath();
+        // Same file referred through a path which is not normalized
+        aliasPath = filePath.getParent().resolve(".").resolve(filePath.getFileName());
+        documentManager.openFile(filePath, version, spec.getContent());
+
+        Position position = spec.getCursor(SpecGenerator.Cursor.DEEP);
+        middleLine = position.getLine();
+        Position typedPosition = new Position(position.getLine(), position.getCharacter() + 1);
+        insertChange = new TextDocumentContentChangeEvent(new Range(position, position), 0, "d");
+        deleteChange = new TextDocumentContentChangeEvent(new Range(position, typedPosition), 1, "");
+        documentManager.getParsedDocument(filePath);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        documentManager.closeFile(filePath);
+    }
+
+    @Benchmark
+    public boolean isFileOpen() {
+        return documentManager.isFileOpen(aliasPath);
+    }
+
+    @Benchmark
+    public TextDocument getDocument() {
+        return documentManager.getDocument(aliasPath);
+    }
+
+    @Benchmark
+    public String getLine() {
+        return documentManager.getLine(filePath, middleLine);
+    }
+
+    @Benchmark
+    public TextDocument didChange() {
+        applyChange();
+        return documentManager.getDocument(filePath);
+    }
+
+    /**
+     * Apply a change and bring the parsed document up to date, which reparses the changed block only.
+     */
+    @Benchmark
+    public ParsedDocument didChangeAndReparse() {
+        applyChange();
+        return documentManager.getParsedDocument(filePath);
+    }
+
+    // Private methods
+
+    private void applyChange() {
+        boolean insert = version % 2 == 0;
+        version++;
+        documentManager.updateFile(filePath, version, Collections.singletonList(insert ? insertChange : deleteChange));
+    }
+}
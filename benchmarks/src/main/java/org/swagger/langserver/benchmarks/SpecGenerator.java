@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.benchmarks;
+
+import org.eclipse.lsp4j.Position;
+
+/**
+ * Generates Swagger specifications of a given size for the benchmarks.
+ *
+ * The generated specification contains a blank line at a shallow cursor position (among the info fields) and a blank
+ * line at a deep cursor position (among the response fields of the operation in the middle of the paths), where the
+ * completions are requested.
+ */
+public class SpecGenerator {
+
+    /**
+     * Cursor positions of the benchmarks.
+     */
+    public enum Cursor {
+        SHALLOW,
+        DEEP
+    }
+
+    private final StringBuilder content = new StringBuilder();
+
+    private int lineCount;
+
+    private Position shallowCursor;
+
+    private Position deepCursor;
+
+    private SpecGenerator(int targetLines) {
+        append(targetLines);
+    }
+
+    /**
+     * Generate a specification.
+     *
+     * @param targetLines               Approximate number of lines of the specification
+     * @return {@link SpecGenerator}    Generated specification
+     */
+    public static SpecGenerator generate(int targetLines) {
+        return new SpecGenerator(targetLines);
+    }
+
+    public String getContent() {
+        return content.toString();
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Get the position of the given cursor, which is at the end of a blank line with the indentation of the fields.
+     *
+     * @param cursor                Cursor kind
+     * @return {@link Position}     Cursor position
+     */
+    public Position getCursor(Cursor cursor) {
+        return cursor == Cursor.SHALLOW ? shallowCursor : deepCursor;
+    }
+
+    // Private methods
+
+    private void append(int targetLines) {
+        // Each operation is 12 lines and each definition is 7 lines
+        int entries = Math.max(1, (targetLines - 12) / 19);
+        line("swagger: '2.0'");
+        line("info:");
+        line("  title: Benchmark");
+        shallowCursor = new Position(lineCount, 2);
+        line("  ");
+        line("  version: '1.0'");
+        line("host: example.com");
+        line("basePath: /v1");
+        line("paths:");
+        for (int i = 0; i < entries; i++) {
+            line("  /items" + i + ":");
+            line("    get:");
+            line("      operationId: getItems" + i);
+            line("      parameters:");
+            line("        - name: id");
+            line("          in: query");
+            line("          type: string");
+            line("      responses:");
+            line("        '200':");
+            line("          description: OK");
+            if (i == entries / 2) {
+                deepCursor = new Position(lineCount, 10);
+                line("          ");
+            }
+            line("          schema:");
+            line("            $ref: '#/definitions/Item" + i + "'");
+        }
+        line("definitions:");
+        for (int i = 0; i < entries; i++) {
+            line("  Item" + i + ":");
+            line("    type: object");
+            line("    properties:");
+            line("      name:");
+            line("        type: string");
+            line("      count:");
+            line("        type: integer");
+        }
+    }
+
+    private void line(String line) {
+        content.append(line).append('\n');
+        lineCount++;
+    }
+}
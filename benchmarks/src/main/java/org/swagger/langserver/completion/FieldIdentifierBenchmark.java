@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.eclipse.lsp4j.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.swagger.langserver.benchmarks.SpecGenerator;
+import org.swagger.langserver.document.DocumentBlock;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.TextDocument;
+import org.swagger.langserver.document.TextDocumentReader;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link FieldIdentifier#calculateFieldPath(java.io.Reader)}, over the whole document and over the
+ * document block at the cursor as done for the completions.
+ *
+ * Placed in the completion package, since the field identifier is package private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldIdentifierBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    @Param({"SHALLOW", "DEEP"})
+    public SpecGenerator.Cursor cursor;
+
+    private String content;
+
+    private Position position;
+
+    private TextDocument document;
+
+    private DocumentBlock block;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SpecGenerator spec = SpecGenerator.generate(lines);
+        content = spec.getContent();
+        position = spec.getCursor(cursor);
+        document = new TextDocument(content, 0);
+        block = ParsedDocument.parse(document).getBlock(position.getLine());
+    }
+
+    @Benchmark
+    public List<String> calculateFieldPathInDocument() {
+        return new FieldIdentifier(position.getLine(), position.getCharacter())
+                .calculateFieldPath(new StringReader(content));
+    }
+
+    @Benchmark
+    public List<String> calculateFieldPathInBlock() {
+        TextDocumentReader reader = new TextDocumentReader(document, document.getLineStart(block.getStartLine()),
+                document.getLineStart(block.getEndLine()));
+        return new FieldIdentifier(block.toBlockLine(position.getLine()), position.getCharacter())
+                .calculateFieldPath(reader);
+    }
+}
@@ -4,6 +4,7 @@
  * ------------------------------------------------------------------------------------------ */
 'use strict';
 
+import * as fs from 'fs';
 import * as path from 'path';
 
 import { workspace, Disposable, ExtensionContext } from 'vscode';
@@ -29,6 +30,12 @@ export function activate(context: ExtensionContext) {
 	const args: string[] = ['-cp', classPath];
 	console.log(`Custom Class Path: ${customClassPath}`);
 
+	// Class-data sharing archive built with the startup profile. CDS warnings go to stderr, away from the LSP stream
+	let archivePath = path.join(__dirname, '..', 'launcher', 'ls-launcher.jsa');
+	if (fs.existsSync(archivePath)) {
+		args.push(`-XX:SharedArchiveFile=${archivePath}`, '-Xlog:disable', '-Xlog:all=warning:stderr');
+	}
+
 	if (process.env.LSDEBUG === "true") {
         console.log('LSDEBUG is set to "true". Services will run on debug mode');
         args.push('-agentlib:jdwp=transport=dt_socket,server=y,suspend=y,address=5005,quiet=y');
@@ -42,8 +49,12 @@ export function activate(context: ExtensionContext) {
 	
 	// Options to control the language client
 	let clientOptions: LanguageClientOptions = {
-		// Register the server for plain text documents
-		documentSelector: [{scheme: 'file', language: 'yaml'}]
+		// Register the server for the YAML and JSON spec documents
+		documentSelector: [{scheme: 'file', language: 'yaml'}, {scheme: 'file', language: 'json'}],
+		// Notify the server about the changes of the spec files, which are indexed for the workspace features
+		synchronize: {
+			fileEvents: workspace.createFileSystemWatcher('**/*.{yaml,yml,json}')
+		}
 	};
 	
 	// Create the language client and start the client.
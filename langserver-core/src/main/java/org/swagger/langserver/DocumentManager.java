@@ -15,7 +15,14 @@
  */
 package org.swagger.langserver;
 
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.TextDocument;
+
+import java.io.IOException;
+import java.io.Reader;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Document Manager is responsible for maintaining the content of the documents.
@@ -33,9 +40,10 @@ public interface DocumentManager {
      * Opens the given file in document manager.
      *
      * @param filePath Path of the file
+     * @param version  Version of the document
      * @param content  Content of the file
      */
-    void openFile(Path filePath, String content);
+    void openFile(Path filePath, int version, String content);
 
     /**
      * Updates given file in document manager with new content.
@@ -45,6 +53,15 @@ public interface DocumentManager {
      */
     void updateFile(Path filePath, String updatedContent);
 
+    /**
+     * Updates given file in document manager by applying the given content changes in order.
+     *
+     * @param filePath Path of the file
+     * @param version  Version of the document after applying the changes
+     * @param changes  Content changes, either ranged or full content changes
+     */
+    void updateFile(Path filePath, int version, List<TextDocumentContentChangeEvent> changes);
+
     /**
      * Close the given file in document manager.
      *
@@ -59,4 +76,51 @@ public interface DocumentManager {
      * @return Content of the file
      */
     String getFileContent(Path filePath);
+
+    /**
+     * Gets the current snapshot of the file.
+     *
+     * @param filePath Path of the file
+     * @return Document snapshot or null if the file is not open
+     */
+    TextDocument getDocument(Path filePath);
+
+    /**
+     * Gets the parsed model of the current version of the file.
+     * A file which is not open is parsed from the disk content, with the version -1.
+     *
+     * @param filePath Path of the file
+     * @return Parsed document or null if the file can not be read
+     */
+    ParsedDocument getParsedDocument(Path filePath);
+
+    /**
+     * Gets the content of the given line of the file, without the line terminator.
+     * Lines of a file which is not open are read from the disk.
+     *
+     * @param filePath Path of the file
+     * @param line     Zero based line number
+     * @return Line content or null if the file can not be read
+     */
+    String getLine(Path filePath, int line);
+
+    /**
+     * Gets the number of lines of the file.
+     * Lines of a file which is not open are counted on the disk.
+     *
+     * @param filePath Path of the file
+     * @return Line count or -1 if the file can not be read
+     */
+    int getLineCount(Path filePath);
+
+    /**
+     * Gets a reader of the up to date content of the file. Content of a file which is not open is streamed from the
+     * disk without loading it to the heap, and without keeping the file mapped since the reader is used for one time
+     * scans.
+     *
+     * @param filePath Path of the file
+     * @return Content reader
+     * @throws IOException Error reading the file
+     */
+    Reader getReader(Path filePath) throws IOException;
 }
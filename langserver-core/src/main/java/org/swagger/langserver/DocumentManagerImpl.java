@@ -15,36 +15,90 @@
  */
 package org.swagger.langserver;
 
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.swagger.langserver.document.MappedDocument;
+import org.swagger.langserver.document.MappedDocumentCache;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.ParsedDocumentCache;
+import org.swagger.langserver.document.TextDocument;
+import org.swagger.langserver.document.TextDocumentReader;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementation of DocumentManager Interface.
+ *
+ * The open documents belong to a single session, while the caches of the disk content are shared by the sessions of
+ * the process. Parsed models of the open documents are kept in the shared cache as well, keyed by the session and
+ * the path, hence a document open in several sessions is never served with the content of another session.
  */
 public class DocumentManagerImpl implements DocumentManager {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(DocumentManagerImpl.class);
 
-    private ConcurrentHashMap<Path, String> documents;
+    /**
+     * Open documents keyed by the canonical path, which is the real path of the file resolved at the time of opening.
+     */
+    private ConcurrentHashMap<Path, OpenDocument> documents;
 
-    private DocumentManagerImpl() {
+    /**
+     * Alias table from the normalized paths a document is known by (path used to open and the real path) to the
+     * canonical path of the document.
+     */
+    private ConcurrentHashMap<Path, Path> aliases;
+
+    private SharedCaches caches;
+
+    /**
+     * Read-only tier of the files which are not open, mapped from the disk on demand.
+     */
+    private MappedDocumentCache mappedDocuments;
+
+    /**
+     * Parsed models of the open documents, which are pinned, and of the closed files, which are evicted under the
+     * memory budget.
+     */
+    private ParsedDocumentCache parsedDocuments;
+
+    /**
+     * Create the document manager of a session.
+     *
+     * @param caches Caches shared with the other sessions of the process
+     */
+    public DocumentManagerImpl(SharedCaches caches) {
         this.documents = new ConcurrentHashMap<>();
+        this.aliases = new ConcurrentHashMap<>();
+        this.caches = caches;
+        this.mappedDocuments = caches.getMappedDocuments();
+        this.parsedDocuments = caches.getParsedDocuments();
     }
     
     private static class InnerSingleton {
-        private static final DocumentManagerImpl INSTANCE = new DocumentManagerImpl();
+        private static final DocumentManagerImpl INSTANCE = new DocumentManagerImpl(new SharedCaches());
     }
     
+    /**
+     * Get the document manager of a process serving a single session.
+     *
+     * @return {@link DocumentManagerImpl} Document manager
+     */
     public static DocumentManagerImpl getInstance() {
         return InnerSingleton.INSTANCE;
     }
 
+    public SharedCaches getCaches() {
+        return caches;
+    }
+
     /**
      * Checks whether the given file is open in workspace.
      *
@@ -60,15 +114,25 @@ public class DocumentManagerImpl implements DocumentManager {
      * Opens the given file in document manager.
      *
      * @param filePath Path of the file
+     * @param version  Version of the document
      * @param content  Content of the file
      */
     @Override
-    public void openFile(Path filePath, String content) {
+    public void openFile(Path filePath, int version, String content) {
         if (isFileOpen(filePath)) {
             LOGGER.warn("File is Already opened");
             return;
         }
-        this.documents.put(filePath, content);
+        Path normalizedPath = normalize(filePath);
+        Path canonicalPath = getCanonicalPath(normalizedPath);
+        // Editor content takes over from the disk content
+        this.mappedDocuments.invalidate(canonicalPath);
+        OpenDocument document = new OpenDocument(new TextDocument(content, version), null);
+        if (this.documents.putIfAbsent(canonicalPath, document) != null) {
+            LOGGER.warn("File is Already opened through another path: " + canonicalPath.toString());
+        }
+        this.aliases.put(canonicalPath, canonicalPath);
+        this.aliases.put(normalizedPath, canonicalPath);
     }
 
     /**
@@ -85,7 +149,40 @@ public class DocumentManagerImpl implements DocumentManager {
             return;
         }
 
-        this.documents.put(opened, updatedContent);
+        this.documents.computeIfPresent(opened, (path, document) -> new OpenDocument(
+                new TextDocument(updatedContent, document.text.getVersion() + 1), null));
+    }
+
+    /**
+     * Updates given file in document manager by applying the given content changes in order.
+     *
+     * @param filePath Path of the file
+     * @param version  Version of the document after applying the changes
+     * @param changes  Content changes, either ranged or full content changes
+     */
+    @Override
+    public void updateFile(Path filePath, int version, List<TextDocumentContentChangeEvent> changes) {
+        Path opened = getPathEntry(filePath);
+        if (opened == null) {
+            LOGGER.error("Cannot find the file to update: " + filePath.toString());
+            return;
+        }
+
+        this.documents.computeIfPresent(opened, (path, document) -> {
+            TextDocument text = document.text;
+            ParsedDocument parsed = document.parsed;
+            for (TextDocumentContentChangeEvent change : changes) {
+                if (change.getRange() == null) {
+                    parsed = null;
+                } else if (parsed != null) {
+                    int startLine = change.getRange().getStart().getLine();
+                    int newLines = (int) change.getText().chars().filter(c -> c == '\n').count();
+                    parsed = parsed.applyEdit(startLine, change.getRange().getEnd().getLine(), startLine + newLines);
+                }
+                text = text.applyChange(change, version);
+            }
+            return new OpenDocument(text, parsed);
+        });
     }
 
     /**
@@ -102,6 +199,18 @@ public class DocumentManagerImpl implements DocumentManager {
         }
 
         this.documents.remove(opened);
+        this.aliases.values().removeIf(opened::equals);
+        // Editor content may not have been saved, hence the parsed model is not valid for the disk content
+        this.parsedDocuments.invalidate(this, opened);
+    }
+
+    /**
+     * Close all the open documents, releasing their parsed models from the shared cache when the session ends.
+     */
+    public void closeAllFiles() {
+        for (Path opened : this.documents.keySet()) {
+            closeFile(opened);
+        }
     }
 
     /**
@@ -112,14 +221,169 @@ public class DocumentManagerImpl implements DocumentManager {
      */
     @Override
     public String getFileContent(Path filePath) {
-        if (!isFileOpen(filePath)) {
+        TextDocument document = getDocument(filePath);
+        return document == null ? null : document.toString();
+    }
+
+    /**
+     * Gets the current snapshot of the file.
+     *
+     * @param filePath Path of the file
+     * @return Document snapshot or null if the file is not open
+     */
+    @Override
+    public TextDocument getDocument(Path filePath) {
+        Path opened = getPathEntry(filePath);
+        OpenDocument document = opened == null ? null : documents.get(opened);
+        return document == null ? null : document.text;
+    }
+
+    /**
+     * Gets the parsed model of the current version of the file.
+     * Only the parts of an open document edited since the last parsed version are reparsed. A file which is not open
+     * is parsed from the disk content and cached until it is evicted or changed on the disk.
+     *
+     * @param filePath Path of the file
+     * @return Parsed document or null if the file can not be read
+     */
+    @Override
+    public ParsedDocument getParsedDocument(Path filePath) {
+        Path opened = getPathEntry(filePath);
+        if (opened == null) {
+            return getClosedParsedDocument(getDiskPath(filePath));
+        }
+        OpenDocument document = documents.get(opened);
+        if (document == null) {
             return null;
         }
-        return documents.get(filePath);
+        ParsedDocument cached = parsedDocuments.get(this, opened, document.text);
+        if (cached != null) {
+            return cached;
+        }
+        ParsedDocument parsed = document.parsed == null
+                ? ParsedDocument.parse(document.text)
+                : document.parsed.reparse(document.text);
+        // Skip caching if the document has been changed in the meantime
+        if (this.documents.replace(opened, document, new OpenDocument(document.text, parsed))) {
+            parsedDocuments.put(this, opened, document.text, parsed, true);
+        }
+        return parsed;
+    }
+
+    /**
+     * Gets the content of the given line of the file, without the line terminator.
+     *
+     * @param filePath Path of the file
+     * @param line     Zero based line number
+     * @return Line content or null if the file can not be read
+     */
+    @Override
+    public String getLine(Path filePath, int line) {
+        TextDocument document = getDocument(filePath);
+        if (document != null) {
+            return document.getLine(line);
+        }
+        MappedDocument mapped = getMappedDocument(filePath);
+        try {
+            return mapped == null ? null : mapped.getLine(line);
+        } catch (InternalError e) {
+            onTruncated(mapped, e);
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of lines of the file.
+     *
+     * @param filePath Path of the file
+     * @return Line count or -1 if the file can not be read
+     */
+    @Override
+    public int getLineCount(Path filePath) {
+        TextDocument document = getDocument(filePath);
+        if (document != null) {
+            return document.getLineCount();
+        }
+        MappedDocument mapped = getMappedDocument(filePath);
+        try {
+            return mapped == null ? -1 : mapped.getLineCount();
+        } catch (InternalError e) {
+            onTruncated(mapped, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Gets a reader of the up to date content of the file.
+     *
+     * @param filePath Path of the file
+     * @return Content reader
+     * @throws IOException Error reading the file
+     */
+    @Override
+    public Reader getReader(Path filePath) throws IOException {
+        TextDocument document = getDocument(filePath);
+        if (document != null) {
+            return new TextDocumentReader(document, 0, document.length());
+        }
+        return new InputStreamReader(Files.newInputStream(getDiskPath(filePath)), StandardCharsets.UTF_8);
     }
     
     // Private methods
 
+    /**
+     * Get the parsed model of the disk content of the given file which is not open.
+     *
+     * @param diskPath                  Canonical path of the file
+     * @return {@link ParsedDocument}   Parsed document or null if the file can not be read
+     */
+    private ParsedDocument getClosedParsedDocument(Path diskPath) {
+        MappedDocument mapped = getMappedDocument(diskPath);
+        if (mapped == null) {
+            return null;
+        }
+        ParsedDocument cached = parsedDocuments.get(null, diskPath, mapped);
+        if (cached != null) {
+            return cached;
+        }
+        ParsedDocument parsed;
+        try {
+            parsed = ParsedDocument.parse(mapped);
+        } catch (IOException e) {
+            LOGGER.error("Cannot read the file: " + diskPath.toString(), e);
+            mappedDocuments.invalidate(diskPath);
+            return null;
+        } catch (InternalError e) {
+            onTruncated(mapped, e);
+            return null;
+        }
+        parsedDocuments.put(null, diskPath, mapped, parsed, false);
+        return parsed;
+    }
+
+    /**
+     * Get the mapped content of the given file which is not open.
+     *
+     * @param filePath                  Path of the file
+     * @return {@link MappedDocument}   Mapped document or null if the file can not be read
+     */
+    private MappedDocument getMappedDocument(Path filePath) {
+        try {
+            return mappedDocuments.get(getDiskPath(filePath));
+        } catch (IOException e) {
+            LOGGER.error("Cannot read the file: " + filePath.toString(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Drop the mapping of a file which was truncated on the disk while its mapped content was read.
+     */
+    private void onTruncated(MappedDocument mapped, InternalError e) {
+        LOGGER.error("Cannot read the file, which was changed while reading: " + mapped.getPath().toString(), e);
+        mappedDocuments.invalidate(mapped.getPath());
+    }
+
     /**
      * Get the path entry for the given file path.
      * 
@@ -127,13 +391,56 @@ public class DocumentManagerImpl implements DocumentManager {
      * @return {@link Path}     Path Entry
      */
     private Path getPathEntry(Path filePath) {
-        return this.documents.entrySet().stream().filter(entry -> {
-            try {
-                return Files.isSameFile(entry.getKey(), filePath);
-            } catch (IOException e) {
-                LOGGER.error("Error locating File: " + e.getMessage());
-                return false;
-            }
-        }).map(Map.Entry::getKey).findFirst().orElse(null);
+        return this.aliases.get(normalize(filePath));
+    }
+
+    /**
+     * Normalize the given path without accessing the file system.
+     *
+     * @param filePath          File path to normalize
+     * @return {@link Path}     Absolute and normalized path
+     */
+    private static Path normalize(Path filePath) {
+        return filePath.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Get the path of the given file which keys its disk content in the shared caches. The canonical path is used, as
+     * for the open documents, hence a file known by several paths is cached once.
+     *
+     * @param filePath          File path
+     * @return {@link Path}     Canonical path
+     */
+    private static Path getDiskPath(Path filePath) {
+        return getCanonicalPath(normalize(filePath));
+    }
+
+    /**
+     * Get the canonical path of the given file, resolving the symbolic links.
+     * Falls back to the normalized path if the file does not exist on the disk yet.
+     *
+     * @param normalizedPath    Normalized file path
+     * @return {@link Path}     Canonical path
+     */
+    private static Path getCanonicalPath(Path normalizedPath) {
+        try {
+            return normalizedPath.toRealPath();
+        } catch (IOException e) {
+            return normalizedPath;
+        }
+    }
+
+    /**
+     * Content of an open document along with the parsed model.
+     * Parsed model can be outdated, in which case it carries the edits to be reparsed.
+     */
+    private static class OpenDocument {
+        private final TextDocument text;
+        private final ParsedDocument parsed;
+
+        private OpenDocument(TextDocument text, ParsedDocument parsed) {
+            this.text = text;
+            this.parsed = parsed;
+        }
     }
 }
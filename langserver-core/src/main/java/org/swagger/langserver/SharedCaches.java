@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver;
+
+import org.swagger.langserver.document.MappedDocumentCache;
+import org.swagger.langserver.document.ParsedDocumentCache;
+import org.swagger.langserver.index.SummaryCache;
+import org.swagger.langserver.metrics.Metrics;
+
+/**
+ * Caches of the content which does not belong to a single language server session: the mapped and the parsed
+ * content of the files on the disk, and the scanned summaries of the workspace index.
+ *
+ * The cached models are immutable and each cache is thread safe, hence the sessions served by a process share a
+ * single instance, while the open documents are kept per session.
+ */
+public class SharedCaches {
+
+    private final MappedDocumentCache mappedDocuments;
+
+    private final ParsedDocumentCache parsedDocuments;
+
+    private final SummaryCache summaries;
+
+    public SharedCaches() {
+        this.mappedDocuments = new MappedDocumentCache();
+        this.parsedDocuments = new ParsedDocumentCache();
+        this.summaries = new SummaryCache();
+        Metrics.registerGauge("parsedDocuments", parsedDocuments::getStatistics);
+        Metrics.registerGauge("mappedDocuments", mappedDocuments::getStatistics);
+        Metrics.registerGauge("summaries", summaries::getStatistics);
+    }
+
+    public MappedDocumentCache getMappedDocuments() {
+        return mappedDocuments;
+    }
+
+    /**
+     * Get the parsed documents, of the files on the disk and of the documents open in any of the sessions.
+     *
+     * @return {@link ParsedDocumentCache} Parsed document cache
+     */
+    public ParsedDocumentCache getParsedDocuments() {
+        return parsedDocuments;
+    }
+
+    public SummaryCache getSummaries() {
+        return summaries;
+    }
+}
@@ -15,60 +15,158 @@
  */
 package org.swagger.langserver;
 
+import org.eclipse.lsp4j.ClientCapabilities;
 import org.eclipse.lsp4j.CompletionOptions;
+import org.eclipse.lsp4j.DocumentOnTypeFormattingOptions;
+import org.eclipse.lsp4j.ExecuteCommandOptions;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.WorkspaceFolder;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.LanguageClientAware;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.eclipse.lsp4j.services.TextDocumentService;
 import org.eclipse.lsp4j.services.WorkspaceService;
+import org.swagger.langserver.completion.ContentParserUtil;
+import org.swagger.langserver.diagnostic.DiagnosticsPublisher;
+import org.swagger.langserver.formatting.FormattingProvider;
+import org.swagger.langserver.index.WorkspaceIndexer;
+import org.swagger.langserver.metrics.Metrics;
+import org.swagger.langserver.metrics.MetricsReporter;
+import org.swagger.langserver.scheduler.RequestScheduler;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Language Server Implementation for Swagger.
+ *
+ * An instance serves a single client connection, holding the state of the session: the open documents, the request
+ * threads and the workspace index. A process serving several connections creates an instance per connection, sharing
+ * the caches of the disk content between them.
  */
 public class SwaggerLanguageServer implements LanguageServer, LanguageClientAware {
 
-    private TextDocumentService textDocumentService;
+    private SwaggerTextDocumentService textDocumentService;
 
     private WorkspaceService workspaceService;
+
+    private RequestScheduler scheduler;
+
+    private DiagnosticsPublisher diagnosticsPublisher;
+
+    private MetricsReporter metricsReporter;
+
+    private WorkspaceIndexer workspaceIndexer;
+
+    private DocumentManagerImpl documentManager;
+
+    /**
+     * Invoked on exit instead of terminating the process, when the process serves several sessions.
+     */
+    private Runnable exitHandler;
+
+    private AtomicBoolean disposed = new AtomicBoolean();
     
     private LanguageClient client;
     
     private int shutDownStatus = 1;
 
     public SwaggerLanguageServer() {
-        this.textDocumentService = new SwaggerTextDocumentService();
-        this.workspaceService = new SwaggerWorkspaceService();
+        this(DocumentManagerImpl.getInstance(), null);
+    }
+
+    /**
+     * Create the server of a session sharing the given caches with the other sessions of the process.
+     *
+     * @param caches        Caches shared by the sessions
+     * @param exitHandler   Invoked when the client requests to exit, ending the session instead of the process
+     */
+    public SwaggerLanguageServer(SharedCaches caches, Runnable exitHandler) {
+        this(new DocumentManagerImpl(caches), exitHandler);
+    }
+
+    private SwaggerLanguageServer(DocumentManagerImpl documentManager, Runnable exitHandler) {
+        Metrics.recordMilestone("serverCreated");
+        this.documentManager = documentManager;
+        this.exitHandler = exitHandler;
+        this.scheduler = new RequestScheduler();
+        this.diagnosticsPublisher = new DiagnosticsPublisher(documentManager, this.scheduler);
+        this.workspaceIndexer = new WorkspaceIndexer(this.scheduler, documentManager,
+                documentManager.getCaches().getSummaries());
+        this.textDocumentService = new SwaggerTextDocumentService(documentManager, this.scheduler,
+                this.diagnosticsPublisher, this.workspaceIndexer);
+        this.workspaceService = new SwaggerWorkspaceService(this.scheduler, this.workspaceIndexer);
     }
 
     @Override
     public void connect(LanguageClient languageClient) {
         this.client = languageClient;
+        this.diagnosticsPublisher.setClient(languageClient);
     }
 
     @Override
     public CompletableFuture<InitializeResult> initialize(InitializeParams initializeParams) {
         final InitializeResult initializeResult = new InitializeResult(new ServerCapabilities());
-        initializeResult.getCapabilities().setTextDocumentSync(TextDocumentSyncKind.Full);
+        initializeResult.getCapabilities().setTextDocumentSync(TextDocumentSyncKind.Incremental);
         CompletionOptions completionOptions = new CompletionOptions();
-        initializeResult.getCapabilities().setCompletionProvider(new CompletionOptions());
-        return CompletableFuture.supplyAsync(() -> initializeResult);
+        // Documentation of the completion items is sent when an item is resolved
+        completionOptions.setResolveProvider(true);
+        initializeResult.getCapabilities().setCompletionProvider(completionOptions);
+        this.textDocumentService.setSnippetSupport(isSnippetSupported(initializeParams));
+        initializeResult.getCapabilities().setExecuteCommandProvider(new ExecuteCommandOptions(Arrays.asList(
+                SwaggerWorkspaceService.METRICS_COMMAND, SwaggerWorkspaceService.RESET_METRICS_COMMAND)));
+        initializeResult.getCapabilities().setHoverProvider(true);
+        initializeResult.getCapabilities().setDocumentSymbolProvider(true);
+        initializeResult.getCapabilities().setDocumentFormattingProvider(true);
+        initializeResult.getCapabilities().setDocumentRangeFormattingProvider(true);
+        initializeResult.getCapabilities().setDocumentOnTypeFormattingProvider(
+                new DocumentOnTypeFormattingOptions(FormattingProvider.NEW_LINE));
+        initializeResult.getCapabilities().setWorkspaceSymbolProvider(true);
+        initializeResult.getCapabilities().setDefinitionProvider(true);
+        initializeResult.getCapabilities().setReferencesProvider(true);
+        // Type graphs and the workspace index are built off the initialize request, which only declares the services
+        this.scheduler.computeBackground(cancelChecker -> {
+            ContentParserUtil.loadModelTypes();
+            return null;
+        });
+        this.metricsReporter = MetricsReporter.startIfConfigured();
+        this.workspaceIndexer.crawlLater(getWorkspaceRoots(initializeParams));
+        Metrics.recordMilestone("initialized");
+        return CompletableFuture.completedFuture(initializeResult);
     }
 
     @Override
     public CompletableFuture<Object> shutdown() {
         this.shutDownStatus = 1;
-        return null;
+        stop();
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
     public void exit() {
-        System.exit(shutDownStatus);
+        if (this.exitHandler == null) {
+            System.exit(shutDownStatus);
+        }
+        this.exitHandler.run();
+    }
+
+    /**
+     * Release the state of the session once the connection to the client is closed, whether or not the client has
+     * requested to shut down. Open documents are closed so that their parsed models are not pinned in the shared
+     * cache.
+     */
+    public void disconnect() {
+        stop();
+        this.documentManager.closeAllFiles();
     }
 
     @Override
@@ -80,4 +178,55 @@ public class SwaggerLanguageServer implements LanguageServer, LanguageClientAwar
     public WorkspaceService getWorkspaceService() {
         return this.workspaceService;
     }
+
+    // Private methods
+
+    private void stop() {
+        if (!this.disposed.compareAndSet(false, true)) {
+            return;
+        }
+        if (this.metricsReporter != null) {
+            this.metricsReporter.flush();
+        }
+        // Files changed since the crawl are in the snapshots of the next start
+        this.workspaceIndexer.saveSnapshots();
+        this.scheduler.shutdown();
+    }
+
+    /**
+     * Check whether the client supports snippets in the insert text of the completion items.
+     *
+     * @param initializeParams      Initialize parameters
+     * @return {@link Boolean}      Whether the snippets are supported
+     */
+    private static boolean isSnippetSupported(InitializeParams initializeParams) {
+        ClientCapabilities capabilities = initializeParams.getCapabilities();
+        if (capabilities == null || capabilities.getTextDocument() == null
+                || capabilities.getTextDocument().getCompletion() == null
+                || capabilities.getTextDocument().getCompletion().getCompletionItem() == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(capabilities.getTextDocument().getCompletion().getCompletionItem()
+                .getSnippetSupport());
+    }
+
+    /**
+     * Get the workspace folders of the client, falling back to the root of the workspace for older clients.
+     *
+     * @param initializeParams  Initialize parameters
+     * @return {@link List}     Paths of the workspace folders
+     */
+    private static List<Path> getWorkspaceRoots(InitializeParams initializeParams) {
+        List<Path> roots = new ArrayList<>();
+        if (initializeParams.getWorkspaceFolders() != null) {
+            for (WorkspaceFolder folder : initializeParams.getWorkspaceFolders()) {
+                roots.add(Paths.get(URI.create(folder.getUri())));
+            }
+        } else if (initializeParams.getRootUri() != null) {
+            roots.add(Paths.get(URI.create(initializeParams.getRootUri())));
+        } else if (initializeParams.getRootPath() != null) {
+            roots.add(Paths.get(initializeParams.getRootPath()));
+        }
+        return roots;
+    }
 }
@@ -37,52 +37,147 @@ import org.eclipse.lsp4j.ReferenceParams;
 import org.eclipse.lsp4j.RenameParams;
 import org.eclipse.lsp4j.SignatureHelp;
 import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
 import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.TextDocumentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.swagger.langserver.completion.ContentParserUtil;
+import org.swagger.langserver.diagnostic.DiagnosticsPublisher;
+import org.swagger.langserver.document.TextDocument;
+import org.swagger.langserver.formatting.FormattingProvider;
+import org.swagger.langserver.hover.HoverProvider;
+import org.swagger.langserver.index.WorkspaceIndexer;
+import org.swagger.langserver.metrics.Metrics;
+import org.swagger.langserver.outline.OutlineProvider;
+import org.swagger.langserver.scheduler.RequestScheduler;
 
 import java.net.URI;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Swagger Text Document Service.
  */
 public class SwaggerTextDocumentService implements TextDocumentService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SwaggerTextDocumentService.class);
+
+    /**
+     * Result of a completion request which is outdated by a change of the document. Marked as incomplete, so that the
+     * client requests the completions again for the current content.
+     */
+    private static final Either<List<CompletionItem>, CompletionList> SUPERSEDED_COMPLETION =
+            Either.forRight(new CompletionList(true, Collections.emptyList()));
     
     private DocumentManager documentManager;
+
+    private DiagnosticsPublisher diagnosticsPublisher;
+
+    private RequestScheduler scheduler;
+
+    private WorkspaceIndexer workspaceIndexer;
+
+    private HoverProvider hoverProvider;
+
+    private OutlineProvider outlineProvider;
+
+    private FormattingProvider formattingProvider;
+
+    /**
+     * Pending completion request of each document, keyed by the document uri.
+     */
+    private ConcurrentHashMap<String, CompletableFuture<?>> pendingCompletions;
+
+    /**
+     * Whether the client supports snippets in the insert text of the completion items.
+     */
+    private volatile boolean snippetSupport;
     
-    public SwaggerTextDocumentService() {
-        this.documentManager = DocumentManagerImpl.getInstance();
+    public SwaggerTextDocumentService(DocumentManager documentManager, RequestScheduler scheduler,
+                                      DiagnosticsPublisher diagnosticsPublisher, WorkspaceIndexer workspaceIndexer) {
+        this.documentManager = documentManager;
+        this.scheduler = scheduler;
+        this.workspaceIndexer = workspaceIndexer;
+        this.hoverProvider = new HoverProvider(this.documentManager, workspaceIndexer);
+        this.outlineProvider = new OutlineProvider(this.documentManager);
+        this.formattingProvider = new FormattingProvider(this.documentManager);
+        this.diagnosticsPublisher = diagnosticsPublisher;
+        this.pendingCompletions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Set whether the client supports snippets in the insert text of the completion items.
+     *
+     * @param snippetSupport Snippet support of the client
+     */
+    public void setSnippetSupport(boolean snippetSupport) {
+        this.snippetSupport = snippetSupport;
     }
 
     @Override
     public CompletableFuture<Either<List<CompletionItem>, CompletionList>>completion(
             CompletionParams completionParams) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<CompletionItem> completionItems;
-            try {
-                completionItems = ContentParserUtil.getCompletions(completionParams);
-            } catch (Exception e) {
-                completionItems = new ArrayList<>();
-            }
-            return Either.forLeft(completionItems);
-        });
+        String uri = completionParams.getTextDocument().getUri();
+        Path filePath = Paths.get(URI.create(uri));
+        int version = getVersion(filePath);
+        CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion =
+                this.scheduler.computeInteractive(cancelChecker -> {
+                    cancelChecker.checkCanceled();
+                    if (getVersion(filePath) != version) {
+                        return SUPERSEDED_COMPLETION;
+                    }
+                    CompletionList completionList;
+                    try (Metrics.Sample ignored = Metrics.start("textDocument/completion")) {
+                        completionList = ContentParserUtil.getCompletions(this.documentManager, completionParams,
+                                this.snippetSupport, this.workspaceIndexer);
+                    } catch (Exception e) {
+                        LOGGER.error("Error while computing the completions of: " + uri, e);
+                        completionList = new CompletionList(false, new ArrayList<>());
+                    }
+                    cancelChecker.checkCanceled();
+                    if (getVersion(filePath) != version) {
+                        return SUPERSEDED_COMPLETION;
+                    }
+                    long sinceStart = Metrics.recordMilestone("firstCompletion");
+                    if (sinceStart >= 0) {
+                        LOGGER.info("First completion computed " + sinceStart + " ms after the JVM start");
+                    }
+                    return Either.forRight(completionList);
+                });
+
+        // A new completion request of the same document supersedes the pending one
+        CompletableFuture<?> previous = this.pendingCompletions.put(uri, completion);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        completion.whenComplete((result, error) -> this.pendingCompletions.remove(uri, completion));
+        return completion;
     }
 
     @Override
     public CompletableFuture<CompletionItem> resolveCompletionItem(CompletionItem completionItem) {
-        return null;
+        try (Metrics.Sample ignored = Metrics.start("completionItem/resolve")) {
+            return CompletableFuture.completedFuture(ContentParserUtil.resolveCompletionItem(completionItem));
+        }
     }
 
     @Override
     public CompletableFuture<Hover> hover(TextDocumentPositionParams textDocumentPositionParams) {
-        return null;
+        Path filePath = getNormalizedPath(textDocumentPositionParams.getTextDocument().getUri());
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("textDocument/hover")) {
+                return this.hoverProvider.getHover(filePath, textDocumentPositionParams.getPosition());
+            }
+        });
     }
 
     @Override
@@ -93,12 +188,31 @@ public class SwaggerTextDocumentService implements TextDocumentService {
     @Override
     public CompletableFuture<List<? extends Location>> definition(TextDocumentPositionParams
                                                                               textDocumentPositionParams) {
-        return null;
+        Path filePath = getNormalizedPath(textDocumentPositionParams.getTextDocument().getUri());
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("textDocument/definition")) {
+                this.workspaceIndexer.ensureCurrent(filePath);
+                Location location = this.workspaceIndexer.getReferenceGraph().getDefinition(filePath,
+                        textDocumentPositionParams.getPosition());
+                return location == null
+                        ? Collections.<Location>emptyList()
+                        : Collections.singletonList(location);
+            }
+        });
     }
 
     @Override
     public CompletableFuture<List<? extends Location>> references(ReferenceParams referenceParams) {
-        return null;
+        Path filePath = getNormalizedPath(referenceParams.getTextDocument().getUri());
+        boolean includeDeclaration = referenceParams.getContext() != null
+                && referenceParams.getContext().isIncludeDeclaration();
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("textDocument/references")) {
+                this.workspaceIndexer.ensureCurrent(filePath);
+                return this.workspaceIndexer.getReferenceGraph().getReferences(filePath,
+                        referenceParams.getPosition(), includeDeclaration);
+            }
+        });
     }
 
     @Override
@@ -110,7 +224,13 @@ public class SwaggerTextDocumentService implements TextDocumentService {
     @Override
     public CompletableFuture<List<? extends SymbolInformation>> documentSymbol(DocumentSymbolParams
                                                                                            documentSymbolParams) {
-        return null;
+        String uri = documentSymbolParams.getTextDocument().getUri();
+        Path filePath = getNormalizedPath(uri);
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("textDocument/documentSymbol")) {
+                return this.outlineProvider.getSymbols(filePath, uri);
+            }
+        });
     }
 
     @Override
@@ -130,19 +250,36 @@ public class SwaggerTextDocumentService implements TextDocumentService {
 
     @Override
     public CompletableFuture<List<? extends TextEdit>> formatting(DocumentFormattingParams documentFormattingParams) {
-        return null;
+        Path filePath = getNormalizedPath(documentFormattingParams.getTextDocument().getUri());
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("textDocument/formatting")) {
+                return this.formattingProvider.format(filePath, documentFormattingParams.getOptions());
+            }
+        });
     }
 
     @Override
     public CompletableFuture<List<? extends TextEdit>> rangeFormatting(DocumentRangeFormattingParams
                                                                                    documentRangeFormattingParams) {
-        return null;
+        Path filePath = getNormalizedPath(documentRangeFormattingParams.getTextDocument().getUri());
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("textDocument/rangeFormatting")) {
+                return this.formattingProvider.formatRange(filePath, documentRangeFormattingParams.getRange(),
+                        documentRangeFormattingParams.getOptions());
+            }
+        });
     }
 
     @Override
     public CompletableFuture<List<? extends TextEdit>> onTypeFormatting(DocumentOnTypeFormattingParams
                                                                                     documentOnTypeFormattingParams) {
-        return null;
+        Path filePath = getNormalizedPath(documentOnTypeFormattingParams.getTextDocument().getUri());
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("textDocument/onTypeFormatting")) {
+                return this.formattingProvider.formatOnType(filePath, documentOnTypeFormattingParams.getPosition(),
+                        documentOnTypeFormattingParams.getCh(), documentOnTypeFormattingParams.getOptions());
+            }
+        });
     }
 
     @Override
@@ -152,25 +289,68 @@ public class SwaggerTextDocumentService implements TextDocumentService {
 
     @Override
     public void didOpen(DidOpenTextDocumentParams didOpenTextDocumentParams) {
-        String uri = didOpenTextDocumentParams.getTextDocument().getUri();
-        String content = didOpenTextDocumentParams.getTextDocument().getText();
-        this.documentManager.openFile(Paths.get(URI.create(uri)), content);
+        try (Metrics.Sample ignored = Metrics.start("textDocument/didOpen")) {
+            String uri = didOpenTextDocumentParams.getTextDocument().getUri();
+            String content = didOpenTextDocumentParams.getTextDocument().getText();
+            int version = didOpenTextDocumentParams.getTextDocument().getVersion();
+            Path filePath = Paths.get(URI.create(uri));
+            this.documentManager.openFile(filePath, version, content);
+            this.diagnosticsPublisher.schedule(uri, filePath, version);
+            this.workspaceIndexer.documentChanged(filePath);
+        }
     }
 
     @Override
     public void didChange(DidChangeTextDocumentParams didChangeTextDocumentParams) {
-        String uri = didChangeTextDocumentParams.getTextDocument().getUri();
-        String content = didChangeTextDocumentParams.getContentChanges().get(0).getText();
-        this.documentManager.updateFile(Paths.get(URI.create(uri)), content);
+        try (Metrics.Sample ignored = Metrics.start("textDocument/didChange")) {
+            String uri = didChangeTextDocumentParams.getTextDocument().getUri();
+            Integer version = didChangeTextDocumentParams.getTextDocument().getVersion();
+            List<TextDocumentContentChangeEvent> changes = didChangeTextDocumentParams.getContentChanges();
+            Path filePath = Paths.get(URI.create(uri));
+            this.documentManager.updateFile(filePath, version == null ? -1 : version, changes);
+            TextDocument document = this.documentManager.getDocument(filePath);
+            if (document != null) {
+                this.diagnosticsPublisher.schedule(uri, filePath, document.getVersion());
+                this.workspaceIndexer.documentChanged(filePath);
+            }
+        }
     }
 
     @Override
     public void didClose(DidCloseTextDocumentParams didCloseTextDocumentParams) {
-        String uri = didCloseTextDocumentParams.getTextDocument().getUri();
-        this.documentManager.closeFile(Paths.get(URI.create(uri)));
+        try (Metrics.Sample ignored = Metrics.start("textDocument/didClose")) {
+            String uri = didCloseTextDocumentParams.getTextDocument().getUri();
+            Path filePath = Paths.get(URI.create(uri));
+            this.documentManager.closeFile(filePath);
+            this.diagnosticsPublisher.clear(uri);
+            this.workspaceIndexer.documentClosed(filePath);
+        }
     }
 
     @Override
     public void didSave(DidSaveTextDocumentParams didSaveTextDocumentParams) {
     }
+
+    // Private methods
+
+    /**
+     * Get the current version of the given document.
+     *
+     * @param filePath          Path of the document
+     * @return {@link Integer}  Document version or -1 if the document is not open
+     */
+    private int getVersion(Path filePath) {
+        TextDocument document = this.documentManager.getDocument(filePath);
+        return document == null ? -1 : document.getVersion();
+    }
+
+    /**
+     * Get the normalized path of the given document uri, as used by the workspace index.
+     *
+     * @param uri               Document uri
+     * @return {@link Path}     Absolute and normalized path
+     */
+    private static Path getNormalizedPath(String uri) {
+        return Paths.get(URI.create(uri)).toAbsolutePath().normalize();
+    }
 }
@@ -19,10 +19,18 @@ import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
 import org.eclipse.lsp4j.DidChangeWorkspaceFoldersParams;
 import org.eclipse.lsp4j.ExecuteCommandParams;
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
 import org.eclipse.lsp4j.services.WorkspaceService;
+import org.swagger.langserver.index.WorkspaceIndexer;
+import org.swagger.langserver.metrics.Metrics;
+import org.swagger.langserver.scheduler.RequestScheduler;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -30,15 +38,53 @@ import java.util.concurrent.CompletableFuture;
  * Implementation of Swagger Workspace Service.
  */
 public class SwaggerWorkspaceService implements WorkspaceService {
+
+    /**
+     * Command returning the snapshot of the server metrics.
+     */
+    public static final String METRICS_COMMAND = "swagger.metrics";
+
+    /**
+     * Command clearing the server metrics. Metrics are collected for the whole process, hence the command clears the
+     * metrics of all the sessions served by the process.
+     */
+    public static final String RESET_METRICS_COMMAND = "swagger.metrics.reset";
+
+    private static final int MAX_WORKSPACE_SYMBOLS = 256;
+
+    private RequestScheduler scheduler;
+
+    private WorkspaceIndexer workspaceIndexer;
+
+    public SwaggerWorkspaceService(RequestScheduler scheduler, WorkspaceIndexer workspaceIndexer) {
+        this.scheduler = scheduler;
+        this.workspaceIndexer = workspaceIndexer;
+    }
+
     @Override
     public CompletableFuture<Object> executeCommand(ExecuteCommandParams params) {
-        return null;
+        try (Metrics.Sample ignored = Metrics.start("workspace/executeCommand")) {
+            switch (params.getCommand()) {
+                case METRICS_COMMAND:
+                    return CompletableFuture.completedFuture(Metrics.snapshot());
+                case RESET_METRICS_COMMAND:
+                    Metrics.reset();
+                    return CompletableFuture.completedFuture(null);
+                default:
+                    return null;
+            }
+        }
     }
 
     @Override
     public CompletableFuture<List<? extends SymbolInformation>> symbol(WorkspaceSymbolParams
                                                                                    workspaceSymbolParams) {
-        return null;
+        return this.scheduler.computeInteractive(cancelChecker -> {
+            try (Metrics.Sample ignored = Metrics.start("workspace/symbol")) {
+                return this.workspaceIndexer.getSymbolIndex().search(workspaceSymbolParams.getQuery(),
+                        MAX_WORKSPACE_SYMBOLS);
+            }
+        });
     }
 
     @Override
@@ -48,7 +94,16 @@ public class SwaggerWorkspaceService implements WorkspaceService {
 
     @Override
     public void didChangeWatchedFiles(DidChangeWatchedFilesParams didChangeWatchedFilesParams) {
-
+        try (Metrics.Sample ignored = Metrics.start("workspace/didChangeWatchedFiles")) {
+            for (FileEvent fileEvent : didChangeWatchedFilesParams.getChanges()) {
+                Path filePath = Paths.get(URI.create(fileEvent.getUri()));
+                if (fileEvent.getType() == FileChangeType.Deleted) {
+                    this.workspaceIndexer.fileDeleted(filePath);
+                } else {
+                    this.workspaceIndexer.fileChanged(filePath);
+                }
+            }
+        }
     }
 
     @Override
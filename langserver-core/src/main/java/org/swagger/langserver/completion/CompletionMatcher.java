@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.swagger.langserver.index.NameMatcher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Filters and ranks the completion candidates by the prefix typed at the cursor.
+ *
+ * Candidates starting with the prefix rank first, followed by the candidates having a word starting with the prefix
+ * (ex: "Id" matches getPetById) and the candidates containing the prefix characters in order. Candidates of the same
+ * rank keep their original order.
+ */
+final class CompletionMatcher {
+
+    /**
+     * Score of a candidate which does not match the prefix.
+     */
+    static final int NO_MATCH = -1;
+
+    private static final int EXACT_MATCH = 0;
+
+    private static final int PREFIX_MATCH = 1;
+
+    private static final int CASE_INSENSITIVE_PREFIX_MATCH = 2;
+
+    private static final int WORD_MATCH = 3;
+
+    private static final int FUZZY_MATCH = 4;
+
+    private CompletionMatcher() {
+    }
+
+    /**
+     * Filter the candidates matching the prefix and sort them by the score.
+     *
+     * @param prefix            Prefix typed at the cursor
+     * @param candidates        Candidates in the preferred order
+     * @param label             Text of a candidate matched against the prefix
+     * @param <T>               Candidate type
+     * @return {@link List}     Matching candidates, best matches first
+     */
+    static <T> List<T> rank(String prefix, List<T> candidates, Function<T, String> label) {
+        if (prefix.isEmpty()) {
+            return candidates;
+        }
+        List<Scored<T>> matches = new ArrayList<>();
+        for (T candidate : candidates) {
+            int score = score(prefix, label.apply(candidate));
+            if (score != NO_MATCH) {
+                matches.add(new Scored<>(candidate, score));
+            }
+        }
+        // The sort is stable, hence the candidates of the same score keep their order
+        matches.sort(Comparator.comparingInt(scored -> scored.score));
+        List<T> result = new ArrayList<>(matches.size());
+        for (Scored<T> match : matches) {
+            result.add(match.candidate);
+        }
+        return result;
+    }
+
+    /**
+     * Score a candidate against the prefix, lower is better.
+     *
+     * @param prefix            Prefix typed at the cursor
+     * @param candidate         Candidate text
+     * @return {@link Integer}  Score or {@link #NO_MATCH}
+     */
+    static int score(String prefix, String candidate) {
+        if (candidate.startsWith(prefix)) {
+            return candidate.length() == prefix.length() ? EXACT_MATCH : PREFIX_MATCH;
+        }
+        if (candidate.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return CASE_INSENSITIVE_PREFIX_MATCH;
+        }
+        for (int i = 1; i + prefix.length() <= candidate.length(); i++) {
+            if (NameMatcher.isWordStart(candidate, i) && candidate.regionMatches(true, i, prefix, 0, prefix.length())) {
+                return WORD_MATCH;
+            }
+        }
+        int gaps = NameMatcher.getFuzzyGaps(prefix.toLowerCase(Locale.ENGLISH),
+                candidate.toLowerCase(Locale.ENGLISH));
+        return gaps < 0 ? NO_MATCH : FUZZY_MATCH + gaps;
+    }
+
+    // Private methods
+
+    private static class Scored<T> {
+        private final T candidate;
+        private final int score;
+
+        private Scored(T candidate, int score) {
+            this.candidate = candidate;
+            this.score = score;
+        }
+    }
+}
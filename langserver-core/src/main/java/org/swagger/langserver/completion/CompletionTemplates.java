@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.InsertTextFormat;
+import org.swagger.langserver.completion.ModelType.FieldType;
+
+/**
+ * Builds the completion items of the model fields, once per model type while the type graph is built.
+ *
+ * The items carry the field key of the documentation as the data, hence the documentation is only sent when the
+ * client resolves an item.
+ */
+final class CompletionTemplates {
+
+    /**
+     * Indentation of the value of a field inserted by a snippet. The client prefixes the following lines of a snippet
+     * with the indentation of the cursor line.
+     */
+    private static final String INDENT = "  ";
+
+    private CompletionTemplates() {
+    }
+
+    /**
+     * Create the completion item of a field.
+     *
+     * @param modelType                 Model type declaring the field
+     * @param fieldName                 Specification field name
+     * @param fieldType                 Type of the field
+     * @param index                     Declaration index of the field, used to keep the declaration order
+     * @param snippet                   Whether to insert a snippet with the value skeleton of the field
+     * @param json                      Whether to insert a JSON member, along with the quotes of the key
+     * @return {@link CompletionItem}   Completion item
+     */
+    static CompletionItem createFieldItem(ModelType modelType, String fieldName, FieldType fieldType, int index,
+                                          boolean snippet, boolean json) {
+        CompletionItem completionItem = new CompletionItem(fieldName);
+        completionItem.setKind(fieldType.getKind() == FieldType.Kind.SCALAR
+                ? CompletionItemKind.Field
+                : CompletionItemKind.Module);
+        completionItem.setDetail(fieldType.getDescription());
+        completionItem.setSortText(String.format("%03d", index));
+        completionItem.setData(FieldDocumentation.getKey(modelType.getName(), fieldName));
+        if (json) {
+            // The typed opening quote is replaced as well, hence the filter text starts with the quote
+            completionItem.setFilterText(toJsonString(fieldName));
+            completionItem.setInsertText(snippet ? getJsonSnippet(fieldName, fieldType)
+                    : toJsonString(fieldName) + ": ");
+            completionItem.setInsertTextFormat(snippet ? InsertTextFormat.Snippet : InsertTextFormat.PlainText);
+        } else if (snippet) {
+            completionItem.setInsertText(getSnippet(fieldName, fieldType));
+            completionItem.setInsertTextFormat(InsertTextFormat.Snippet);
+        } else {
+            completionItem.setInsertText(fieldName + (fieldType.getKind() == FieldType.Kind.SCALAR ? ": " : ":"));
+            completionItem.setInsertTextFormat(InsertTextFormat.PlainText);
+        }
+        return completionItem;
+    }
+
+    /**
+     * Copy a shared completion item, so that the copy can be modified for a single request.
+     *
+     * @param completionItem            Completion item
+     * @return {@link CompletionItem}   Shallow copy of the item
+     */
+    static CompletionItem copy(CompletionItem completionItem) {
+        CompletionItem copy = new CompletionItem(completionItem.getLabel());
+        copy.setKind(completionItem.getKind());
+        copy.setDetail(completionItem.getDetail());
+        copy.setDocumentation(completionItem.getDocumentation());
+        copy.setSortText(completionItem.getSortText());
+        copy.setFilterText(completionItem.getFilterText());
+        copy.setInsertText(completionItem.getInsertText());
+        copy.setInsertTextFormat(completionItem.getInsertTextFormat());
+        copy.setTextEdit(completionItem.getTextEdit());
+        copy.setData(completionItem.getData());
+        return copy;
+    }
+
+    /**
+     * Get the JSON string of the given text.
+     *
+     * @param text              Text
+     * @return {@link String}   Quoted and escaped text
+     */
+    static String toJsonString(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    // Private methods
+
+    /**
+     * Get the snippet of a field, which places the cursor where the value starts.
+     * ex:
+     * info:
+     *   <cursor>
+     */
+    private static String getSnippet(String fieldName, FieldType fieldType) {
+        String key = escapeSnippet(fieldName) + ":";
+        switch (fieldType.getKind()) {
+            case MODEL:
+            case MAP:
+                return key + "\n" + INDENT + "$0";
+            case LIST:
+                return key + "\n" + INDENT + "- $0";
+            default:
+                return key + " $0";
+        }
+    }
+
+    /**
+     * Get the snippet of a JSON member, which places the cursor within the braces or the brackets of the value.
+     * ex:
+     * "info": {
+     *   <cursor>
+     * }
+     */
+    private static String getJsonSnippet(String fieldName, FieldType fieldType) {
+        String key = escapeSnippet(toJsonString(fieldName)) + ": ";
+        switch (fieldType.getKind()) {
+            case MODEL:
+            case MAP:
+                return key + "{\n" + INDENT + "$0\n\\}";
+            case LIST:
+                return key + "[\n" + INDENT + "$0\n]";
+            default:
+                return key + "$0";
+        }
+    }
+
+    private static String escapeSnippet(String text) {
+        return text.replace("\\", "\\\\").replace("$", "\\$").replace("}", "\\}");
+    }
+}
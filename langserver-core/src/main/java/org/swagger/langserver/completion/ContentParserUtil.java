@@ -15,169 +15,466 @@
  */
 package org.swagger.langserver.completion;
 
-import io.swagger.models.Swagger;
-import io.swagger.parser.SwaggerParser;
-import io.swagger.parser.util.SwaggerDeserializationResult;
-import joptsimple.internal.Strings;
+import com.google.gson.JsonPrimitive;
 import org.eclipse.lsp4j.CompletionItem;
 import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.InsertTextFormat;
+import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
 import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.swagger.langserver.DocumentManager;
 import org.swagger.langserver.DocumentManagerImpl;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
-import org.yaml.snakeyaml.nodes.MappingNode;
-import org.yaml.snakeyaml.nodes.Node;
+import org.swagger.langserver.completion.ModelType.FieldType;
+import org.swagger.langserver.document.DocumentBlock;
+import org.swagger.langserver.document.JsonEventParser;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.TextDocument;
+import org.swagger.langserver.document.TextDocumentReader;
+import org.swagger.langserver.index.WorkspaceIndexer;
+import org.swagger.langserver.metrics.Metrics;
+import org.swagger.langserver.spec.SpecVersion;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Utilities to parse content.
  */
 public class ContentParserUtil {
 
+    /**
+     * Maximum number of items of a completion list. Lists with more matches are marked as incomplete.
+     */
+    private static final int MAX_COMPLETION_ITEMS = 100;
+
+    private static final String REF_KEY = "$ref";
+
+    private static final String RESPONSES_KEY = "responses";
+
     private ContentParserUtil() {
     }
 
-    private static final String LINE_SEPARATOR = System.lineSeparator();
-    
-    private static final String SWAGGER_MODEL_PACKAGE = "io.swagger.models";
+    /**
+     * Build the static model type graphs of every specification version, so that the first completion does not pay
+     * for them.
+     */
+    public static void loadModelTypes() {
+        for (SpecVersion version : SpecVersion.values()) {
+            ModelTypeGraph.getInstance(version);
+        }
+    }
 
     /**
-     * Get the modified document content.
+     * Get the modified content of the document block at the cursor.
      * 
-     * Note: Here replace the line content at the cursor with spaces to avoid parser issues
+     * Note: Here the line content at the cursor is masked with spaces to avoid parser issues. The content is read
+     * directly from the document, without copying it
      * 
-     * @param completionParams          Original file content to modify
-     * @return {@link ModifiedContent}  Modified content
-     * @throws IOException              IOException if the file read fails
-     * @throws URISyntaxException       URI Syntax Exception
+     * @param document                  Document snapshot
+     * @param block                     Document block containing the cursor
+     * @param position                  Cursor position
+     * @param maskedColumn              Cursor column within the masked line
+     * @return {@link ModifiedContent}  Modified content, where the position is relative to the block
      */
-    private static ModifiedContent getModifiedContent(CompletionParams completionParams) throws IOException,
-            URISyntaxException {
-        Position position = completionParams.getPosition();
+    private static ModifiedContent getModifiedContent(TextDocument document, DocumentBlock block, Position position,
+                                                      int maskedColumn) {
         int cursorLine = position.getLine();
-        Path path = Paths.get(new URI(completionParams.getTextDocument().getUri()));
-        String originalContent = DocumentManagerImpl.getInstance().getFileContent(path);
-        
-        String[] lines = originalContent.split("\\r?\\n");
-        lines[cursorLine] = lines[cursorLine].replaceAll("\\S", "");
-        Position modifiedPosition = new Position(position.getLine(), lines[cursorLine].length());
-        return new ModifiedContent(Strings.join(lines, LINE_SEPARATOR), modifiedPosition);
+        Position modifiedPosition = new Position(block.toBlockLine(cursorLine), maskedColumn);
+        Reader reader = new TextDocumentReader(document, document.getLineStart(block.getStartLine()),
+                document.getLineStart(block.getEndLine()), document.getLineStart(cursorLine),
+                document.getLineEnd(cursorLine));
+        return new ModifiedContent(reader, modifiedPosition);
     }
 
-    
+    /**
+     * Get the completion items for the given parameters, inserting plain text.
+     *
+     * @param completionParams              Completion parameters triggered from the client
+     * @return {@link CompletionList}       Completion list
+     * @throws URISyntaxException           Invalid URI
+     * @throws IOException                  Error reading file URI
+     */
+    public static CompletionList getCompletions(CompletionParams completionParams) throws URISyntaxException,
+            IOException {
+        return getCompletions(DocumentManagerImpl.getInstance(), completionParams, false, null);
+    }
 
     /**
-     * Get the completion items for the given parameters.
+     * Get the completion items for the given parameters, filtered and ranked by the prefix typed at the cursor.
+     * The list is marked as incomplete when it is truncated or depends on the prefix beyond the client filtering,
+     * so that the client requests the completions again while typing.
      *
+     * @param documentManager               Document manager of the session
      * @param completionParams              Completion parameters triggered from the client
-     * @return {@link List}                 List of completion Items
-     * @throws NoSuchMethodException        Exception while extracting the method from reflection
-     * @throws InvocationTargetException    Exception while accessing the method
-     * @throws IllegalAccessException       Exception while accessing the method
+     * @param snippets                      Whether the client supports snippets in the insert text
+     * @param workspaceIndexer              Workspace index providing the $ref targets, can be null
+     * @return {@link CompletionList}       Completion list
      * @throws URISyntaxException           Invalid URI
      * @throws IOException                  Error reading file URI
      */
-    public static List<CompletionItem> getCompletions(CompletionParams completionParams) throws NoSuchMethodException,
-            InvocationTargetException, IllegalAccessException, URISyntaxException, IOException {
+    public static CompletionList getCompletions(DocumentManager documentManager, CompletionParams completionParams,
+                                                boolean snippets, WorkspaceIndexer workspaceIndexer)
+            throws URISyntaxException, IOException {
+        Path path = Paths.get(new URI(completionParams.getTextDocument().getUri()));
+        ParsedDocument parsedDocument;
+        try (Metrics.Sample ignored = Metrics.start("completion/parse")) {
+            parsedDocument = documentManager.getParsedDocument(path);
+        }
+        if (parsedDocument == null) {
+            throw new IOException("Cannot find the document: " + path.toString());
+        }
+        Position position = completionParams.getPosition();
+        DocumentBlock block = parsedDocument.getBlock(position.getLine());
+        if (block == null) {
+            return new CompletionList(false, new ArrayList<>());
+        }
+
+        TextDocument document = parsedDocument.getDocument();
+        ModelTypeGraph graph = ModelTypeGraph.getInstance(parsedDocument.getSpecVersion());
+        boolean json = parsedDocument.isJson();
+        String lineBeforeCursor = document.subSequence(document.getLineStart(position.getLine()),
+                document.getOffset(position)).toString();
+        CursorContext context = json
+                ? CursorContext.ofJson(lineBeforeCursor, lineBeforeCursor.length())
+                : CursorContext.of(lineBeforeCursor);
+        List<String> fields;
+        try (Metrics.Sample ignored = Metrics.start("completion/locate")) {
+            fields = getFieldPath(graph, document, block, position, context, json);
+        }
+
+        try (Metrics.Sample ignored = Metrics.start("completion/rank")) {
+            Range prefixRange = json
+                    ? getJsonTokenRange(document, position, context)
+                    : new Range(new Position(position.getLine(), context.getPrefixColumn()), position);
+            boolean incomplete = false;
+            List<CompletionItem> candidates;
+            if (!context.isValue()) {
+                candidates = getKeyCompletions(graph, fields, snippets, json, prefixRange);
+            } else if (REF_KEY.equals(context.getKey())) {
+                candidates = getReferenceCompletions(path, context.getPrefix(), workspaceIndexer, json,
+                        prefixRange);
+                // Declarations of the other files are searched by the prefix
+                incomplete = true;
+            } else {
+                candidates = getValueCompletions(graph, fields, context.getKey(), json, prefixRange);
+            }
+            List<CompletionItem> ranked = CompletionMatcher.rank(context.getPrefix(), candidates,
+                    CompletionItem::getLabel);
+            if (ranked.size() > MAX_COMPLETION_ITEMS) {
+                ranked = ranked.subList(0, MAX_COMPLETION_ITEMS);
+                incomplete = true;
+            }
+            List<CompletionItem> completionItems = new ArrayList<>(ranked.size());
+            for (int i = 0; i < ranked.size(); i++) {
+                CompletionItem completionItem = ranked.get(i);
+                boolean rankedByPrefix = !context.getPrefix().isEmpty();
+                // The opening quote of a JSON key is replaced along with the prefix
+                boolean jsonKey = json && completionItem.getTextEdit() == null;
+                if (rankedByPrefix || jsonKey) {
+                    // Shared items are copied to carry the rank and the range of the request
+                    completionItem = CompletionTemplates.copy(completionItem);
+                }
+                if (rankedByPrefix) {
+                    completionItem.setSortText(String.format("%04d", i));
+                }
+                if (jsonKey) {
+                    completionItem.setTextEdit(new TextEdit(prefixRange, completionItem.getInsertText()));
+                }
+                completionItems.add(completionItem);
+            }
+            return new CompletionList(incomplete, completionItems);
+        }
+    }
+
+    /**
+     * Add the documentation to a completion item selected in the client.
+     *
+     * @param completionItem            Completion item received from the client
+     * @return {@link CompletionItem}   The same item along with the documentation of the field
+     */
+    public static CompletionItem resolveCompletionItem(CompletionItem completionItem) {
+        Object data = completionItem.getData();
+        // Data is received as a JSON element, unless the item is resolved within the server
+        String key = data instanceof JsonPrimitive ? ((JsonPrimitive) data).getAsString()
+                : data instanceof String ? (String) data : null;
+        String documentation = key == null ? null : FieldDocumentation.getInstance().get(key);
+        if (documentation != null) {
+            MarkupContent content = new MarkupContent();
+            content.setKind(MarkupKind.MARKDOWN);
+            content.setValue(documentation);
+            completionItem.setDocumentation(content);
+        }
+        return completionItem;
+    }
+
+    /**
+     * Get the hover of the key at the given position, showing the type and the documentation of the field.
+     *
+     * @param parsedDocument    Parsed document
+     * @param position          Cursor position
+     * @return {@link Hover}    Hover or null if the cursor is not on a key of a specification field
+     */
+    public static Hover getFieldHover(ParsedDocument parsedDocument, Position position) {
+        TextDocument document = parsedDocument.getDocument();
+        DocumentBlock block = parsedDocument.getBlock(position.getLine());
+        if (block == null) {
+            return null;
+        }
+        String line = document.getLine(position.getLine());
+        CursorContext context = parsedDocument.isJson()
+                ? CursorContext.ofJson(line, position.getCharacter())
+                : CursorContext.of(line);
+        if (!context.isValue() || position.getCharacter() < context.getKeyColumn()
+                || position.getCharacter() > context.getSeparatorColumn()) {
+            return null;
+        }
+        ModelTypeGraph graph = ModelTypeGraph.getInstance(parsedDocument.getSpecVersion());
+        List<String> fields = getFieldPath(graph, document, block, position, context, parsedDocument.isJson());
+        FieldType parent = graph.resolveType(fields);
+        if (parent == null || parent.getKind() != FieldType.Kind.MODEL) {
+            return null;
+        }
+        FieldType type = parent.getModelType().getField(context.getKey());
+        if (type == null) {
+            return null;
+        }
+        String key = FieldDocumentation.getKey(parent.getModelType().getName(), context.getKey());
+        String documentation = FieldDocumentation.getInstance().get(key);
+        MarkupContent content = new MarkupContent();
+        content.setKind(MarkupKind.MARKDOWN);
+        content.setValue("**" + context.getKey() + "** `" + type.getDescription() + "`"
+                + (documentation == null ? "" : "\n\n" + documentation));
+        Range range = new Range(new Position(position.getLine(), context.getKeyColumn()),
+                new Position(position.getLine(), context.getSeparatorColumn()));
+        return new Hover(content, range);
+    }
+
+    /**
+     * Get the name of the specification object at the given field path.
+     * ex: Operation for paths, /pets, get and Parameter for paths, /pets, get, parameters, -
+     *
+     * @param version           Specification version of the document
+     * @param fieldPath         Keys from the document root, where an item of a sequence is denoted by "-"
+     * @return {@link String}   Model type name or null if the path does not resolve to a specification object
+     */
+    public static String getModelTypeName(SpecVersion version, List<String> fieldPath) {
+        FieldType type = ModelTypeGraph.getInstance(version).resolveType(fieldPath);
+        return type == null || type.getKind() != FieldType.Kind.MODEL ? null : type.getModelType().getName();
+    }
 
-        Deque<String> fieldStack = new ArrayDeque<>();
-        Yaml yaml = new Yaml(new Constructor());
+    // Private methods
 
-        ModifiedContent modifiedContent = getModifiedContent(completionParams);
-        String sourceContent = modifiedContent.getContent();
+    /**
+     * Get the field path of the key at the cursor line, which is the path of the mapping containing the key.
+     *
+     * @param graph             Type graph of the specification version
+     * @param document          Document snapshot
+     * @param block             Document block containing the cursor
+     * @param position          Cursor position
+     * @param context           Cursor context
+     * @param json              Whether the document is in the JSON format
+     * @return {@link List}     Keys from the document root to the mapping
+     */
+    private static List<String> getFieldPath(ModelTypeGraph graph, TextDocument document, DocumentBlock block,
+                                             Position position, CursorContext context, boolean json) {
+        if (json) {
+            return getJsonFieldPath(graph, document, block, position, context);
+        }
+        List<String> fields = new ArrayList<>();
+        // Only the block at the cursor is parsed again, since the cursor line has to be masked
+        ModifiedContent modifiedContent = getModifiedContent(document, block, position,
+                context.getWhitespacesBeforeKey());
         Position modifiedPosition = modifiedContent.getPosition();
-        
 
-        SwaggerDeserializationResult swaggerDeserializationResult = new SwaggerParser().readWithInfo(sourceContent);
-        Iterable<Node> iterable = yaml.composeAll(new InputStreamReader(
-                new ByteArrayInputStream(sourceContent.getBytes())));
-
-        iterable.forEach(o -> {
-            FieldIdentifier fieldIdentifier = new FieldIdentifier(modifiedPosition.getLine(),
-                    modifiedPosition.getCharacter());
-            fieldIdentifier
-                    .calculateFieldStack(((MappingNode) o).getValue());
-            if (!fieldIdentifier.getFieldStack().isEmpty()) {
-                fieldStack.addAll(fieldIdentifier.getFieldStack());
-            }
-        });
-
-        Swagger swagger = swaggerDeserializationResult.getSwagger();
-        List<String> fields = new ArrayList<>(fieldStack);
-        Collections.reverse(fields);
-        List<String> completions = getCompletionFields(swagger, fields);
-        return completions.stream().map(field -> {
-            CompletionItem completionItem = new CompletionItem();
-            completionItem.setInsertText(field);
-            completionItem.setLabel(field);
-            completionItem.setKind(CompletionItemKind.Field);
-            completionItem.setDetail(field);
-            return completionItem;
-        }).collect(Collectors.toList());
-    }
-
-    private static List<String> getCompletionFields(Swagger swagger, List<String> fieldStack)
-            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Class cls = swagger.getClass();
-        Object invokeAgainst = swagger;
-
-        for (int i = 0; i < fieldStack.size(); i++) {
-            String field = fieldStack.get(i);
-            Method m = cls.getMethod("get" + field.substring(0, 1).toUpperCase() + field.substring(1));
-            cls = m.getReturnType();
-            
-            if (cls.equals(Map.class)) {
-                LinkedHashMap invokeResult = (LinkedHashMap) m.invoke(invokeAgainst);
-                if (fieldStack.size() == i + 1) {
-                    break;
+        if (modifiedPosition.getCharacter() > 0) {
+            // Parent keys of a block are at the top level
+            fields.addAll(block.getParentPath());
+        }
+        FieldIdentifier fieldIdentifier = new FieldIdentifier(modifiedPosition.getLine(),
+                modifiedPosition.getCharacter());
+        fields.addAll(fieldIdentifier.calculateFieldPath(modifiedContent.getReader()));
+        // Sequence item indicator of the cursor line is masked, hence the item is not visited by the parser
+        FieldType type = graph.resolveType(fields);
+        if (context.isSequenceItem() && type != null && type.getKind() == FieldType.Kind.LIST) {
+            fields.add(FieldIdentifier.SEQUENCE_ITEM);
+        }
+        return fields;
+    }
+
+    /**
+     * Get the field path of the key at the cursor line of a JSON document. The block is read up to the key, where the
+     * JSON parser closes the collections which are still open, hence the cursor line does not have to be masked.
+     */
+    private static List<String> getJsonFieldPath(ModelTypeGraph graph, TextDocument document, DocumentBlock block,
+                                                 Position position, CursorContext context) {
+        // Members of a block are the members of the object of the parent keys
+        List<String> fields = new ArrayList<>(block.getParentPath());
+        Reader reader = new TextDocumentReader(document, document.getLineStart(block.getStartLine()),
+                document.getLineStart(position.getLine()) + context.getKeyColumn());
+        FieldIdentifier fieldIdentifier = new FieldIdentifier(block.toBlockLine(position.getLine()),
+                context.getKeyColumn());
+        fields.addAll(fieldIdentifier.calculateFieldPath(new JsonEventParser(reader, true)));
+        // An item of an array of scalars is typed at the position of a key
+        FieldType type = graph.resolveType(fields);
+        if (!context.isValue() && type != null && type.getKind() == FieldType.Kind.LIST) {
+            fields.add(FieldIdentifier.SEQUENCE_ITEM);
+        }
+        return fields;
+    }
+
+    /**
+     * Get the range of the JSON token typed at the cursor, including the quotes of a string.
+     */
+    private static Range getJsonTokenRange(TextDocument document, Position position, CursorContext context) {
+        int lineStart = document.getLineStart(position.getLine());
+        int start = context.getPrefixColumn();
+        if (start > 0 && document.charAt(lineStart + start - 1) == '"') {
+            start--;
+        }
+        int end = position.getCharacter();
+        if (lineStart + end < document.getLineEnd(position.getLine()) && document.charAt(lineStart + end) == '"') {
+            // Closing quote inserted by the client along with the opening quote
+            end++;
+        }
+        return new Range(new Position(position.getLine(), start), new Position(position.getLine(), end));
+    }
+
+    /**
+     * Get the completions of a key at the given field path: the fields of a model type, the status codes of the
+     * operation responses or the known values of an item of a scalar list.
+     */
+    private static List<CompletionItem> getKeyCompletions(ModelTypeGraph graph, List<String> fields,
+                                                          boolean snippets, boolean json, Range prefixRange) {
+        FieldType type = graph.resolveType(fields);
+        if (type == null) {
+            return new ArrayList<>();
+        }
+        int size = fields.size();
+        if (type.getKind() == FieldType.Kind.MODEL) {
+            return type.getModelType().getCompletionItems(snippets, json);
+        } else if (type.getKind() == FieldType.Kind.MAP && size > 1 && RESPONSES_KEY.equals(fields.get(size - 1))) {
+            List<CompletionItem> items = new ArrayList<>();
+            for (ValueCompletions.Value code : ValueCompletions.STATUS_CODES) {
+                CompletionItem item = createValueItem(code, CompletionItemKind.Value, json, prefixRange);
+                String key = json ? CompletionTemplates.toJsonString(code.getText()) : code.getText();
+                item.setFilterText(key);
+                if (snippets && json) {
+                    item.getTextEdit().setNewText(key + ": {\n  \"description\": \"$0\"\n\\}");
+                    item.setInsertTextFormat(InsertTextFormat.Snippet);
+                } else if (json) {
+                    item.getTextEdit().setNewText(key + ": ");
+                } else if (snippets) {
+                    item.getTextEdit().setNewText(code.getText() + ":\n  description: $0");
+                    item.setInsertTextFormat(InsertTextFormat.Snippet);
+                } else {
+                    item.getTextEdit().setNewText(code.getText() + ":");
                 }
-                invokeAgainst = invokeResult.get(fieldStack.get(++i));
-                cls = invokeAgainst.getClass();
-            } else {
-                invokeAgainst = m.invoke(invokeAgainst);
+                items.add(item);
             }
+            return items;
+        } else if (type.getKind() == FieldType.Kind.SCALAR && size > 1
+                && FieldIdentifier.SEQUENCE_ITEM.equals(fields.get(size - 1))) {
+            FieldType parent = graph.resolveType(fields.subList(0, size - 2));
+            return getValueItems(graph, parent, fields.get(size - 2), type, json, prefixRange);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Get the completions of the value of the given key.
+     */
+    private static List<CompletionItem> getValueCompletions(ModelTypeGraph graph, List<String> fields, String key,
+                                                            boolean json, Range prefixRange) {
+        FieldType parent = graph.resolveType(fields);
+        if (parent == null || parent.getKind() != FieldType.Kind.MODEL) {
+            return new ArrayList<>();
+        }
+        FieldType type = parent.getModelType().getField(key);
+        return type == null ? new ArrayList<>() : getValueItems(graph, parent, key, type, json, prefixRange);
+    }
+
+    private static List<CompletionItem> getValueItems(ModelTypeGraph graph, FieldType parent, String field,
+                                                      FieldType valueType, boolean json, Range prefixRange) {
+        if (parent == null || parent.getKind() != FieldType.Kind.MODEL || valueType == null) {
+            return new ArrayList<>();
+        }
+        String scalarName = valueType.getKind() == FieldType.Kind.SCALAR ? valueType.getDescription() : null;
+        List<CompletionItem> items = new ArrayList<>();
+        for (ValueCompletions.Value value : ValueCompletions.getValues(graph.getVersion(),
+                parent.getModelType().getName(), field, scalarName)) {
+            items.add(createValueItem(value, CompletionItemKind.Value, json, prefixRange));
+        }
+        return items;
+    }
+
+    /**
+     * Get the completions of a $ref value, matching the declaration name typed after the last slash.
+     */
+    private static List<CompletionItem> getReferenceCompletions(Path path, String prefix,
+                                                                WorkspaceIndexer workspaceIndexer, boolean json,
+                                                                Range prefixRange) {
+        if (workspaceIndexer == null) {
+            return new ArrayList<>();
         }
+        String query = prefix.substring(Math.max(prefix.lastIndexOf('/'), prefix.lastIndexOf('#')) + 1);
+        List<CompletionItem> items = new ArrayList<>();
+        for (String target : workspaceIndexer.getReferenceTargets(path, query, MAX_COMPLETION_ITEMS)) {
+            items.add(createValueItem(new ValueCompletions.Value(target, null), CompletionItemKind.Reference, json,
+                    prefixRange));
+        }
+        return items;
+    }
 
-        Field[] fields = cls.getPackage().getName().startsWith(SWAGGER_MODEL_PACKAGE)
-                ? cls.getDeclaredFields()
-                : new Field[0];  
+    /**
+     * Create the item of a value, replacing the typed prefix. Values can contain characters which are not a part of a
+     * word (ex: application/json), hence the prefix range is replaced explicitly. In a JSON document, the range
+     * includes the quotes of the typed string.
+     */
+    private static CompletionItem createValueItem(ValueCompletions.Value value, CompletionItemKind kind, boolean json,
+                                                  Range prefixRange) {
+        String text = json ? toJsonValue(value.getText()) : value.getText();
+        CompletionItem completionItem = new CompletionItem(value.getText());
+        completionItem.setKind(kind);
+        completionItem.setDetail(value.getDescription());
+        completionItem.setFilterText(text);
+        completionItem.setTextEdit(new TextEdit(prefixRange, text));
+        return completionItem;
+    }
 
-        return Arrays.stream(fields)
-                .filter(field -> !field.getName().equalsIgnoreCase("vendorExtensions"))
-                .map(Field::getName).collect(Collectors.toList());
+    /**
+     * Get the JSON value of a known YAML value, where the values other than the booleans are strings.
+     * ex: '2.0' is "2.0"
+     */
+    private static String toJsonValue(String text) {
+        if ("true".equals(text) || "false".equals(text)) {
+            return text;
+        }
+        boolean quoted = text.length() >= 2 && text.charAt(0) == '\'' && text.charAt(text.length() - 1) == '\'';
+        return CompletionTemplates.toJsonString(quoted ? text.substring(1, text.length() - 1) : text);
     }
-    
+
     private static class ModifiedContent {
-        private String content;
+        private Reader reader;
         private Position position;
         
-        private ModifiedContent(String content, Position position) {
-            this.content = content;
+        private ModifiedContent(Reader reader, Position position) {
+            this.reader = reader;
             this.position = position;
         }
 
-        String getContent() {
-            return content;
+        Reader getReader() {
+            return reader;
         }
 
         Position getPosition() {
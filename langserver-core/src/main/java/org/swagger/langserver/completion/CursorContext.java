@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Syntactic context of the cursor within its line: whether a key or a value is being typed, and the typed prefix.
+ * Given the whole line, the context describes the key and the value of the line.
+ * ex:
+ *   - na<cursor>           key context with the prefix "na" within a sequence item
+ *   in: qu<cursor>         value context of the key "in" with the prefix "qu"
+ *   $ref: '#/defi<cursor>  value context of the key "$ref" with the prefix "#/defi"
+ *   "in": "qu<cursor>      value context of the key "in" with the prefix "qu", within a JSON document
+ */
+final class CursorContext {
+
+    private final boolean sequenceItem;
+
+    private final int keyColumn;
+
+    private final int separatorColumn;
+
+    private final int whitespacesBeforeKey;
+
+    private final String key;
+
+    private final String prefix;
+
+    private final int prefixColumn;
+
+    private CursorContext(boolean sequenceItem, int keyColumn, int separatorColumn, int whitespacesBeforeKey,
+                          String key, String prefix, int prefixColumn) {
+        this.sequenceItem = sequenceItem;
+        this.keyColumn = keyColumn;
+        this.separatorColumn = separatorColumn;
+        this.whitespacesBeforeKey = whitespacesBeforeKey;
+        this.key = key;
+        this.prefix = prefix;
+        this.prefixColumn = prefixColumn;
+    }
+
+    /**
+     * Get the context of the cursor.
+     *
+     * @param lineBeforeCursor          Content of the cursor line before the cursor
+     * @return {@link CursorContext}    Cursor context
+     */
+    static CursorContext of(String lineBeforeCursor) {
+        int length = lineBeforeCursor.length();
+        int keyColumn = skipSpaces(lineBeforeCursor, 0);
+        int indent = keyColumn;
+        // Sequence item indicators preceding the key
+        while (keyColumn < length && lineBeforeCursor.charAt(keyColumn) == '-'
+                && (keyColumn + 1 == length || lineBeforeCursor.charAt(keyColumn + 1) == ' ')) {
+            keyColumn = skipSpaces(lineBeforeCursor, keyColumn + 1);
+        }
+        boolean sequenceItem = keyColumn > indent;
+        int whitespaces = 0;
+        for (int i = 0; i < keyColumn; i++) {
+            if (Character.isWhitespace(lineBeforeCursor.charAt(i))) {
+                whitespaces++;
+            }
+        }
+
+        int separator = findSeparator(lineBeforeCursor, keyColumn);
+        if (separator < 0) {
+            int prefixColumn = skipQuote(lineBeforeCursor, keyColumn);
+            return new CursorContext(sequenceItem, keyColumn, -1, whitespaces, null,
+                    lineBeforeCursor.substring(prefixColumn), prefixColumn);
+        }
+        String key = unquote(lineBeforeCursor.substring(keyColumn, separator).trim());
+        int prefixColumn = skipQuote(lineBeforeCursor, skipSpaces(lineBeforeCursor, separator + 1));
+        return new CursorContext(sequenceItem, keyColumn, separator, whitespaces, key,
+                lineBeforeCursor.substring(prefixColumn), prefixColumn);
+    }
+
+    /**
+     * Get the context of the cursor within a line of a JSON document. Given the whole line, the context describes the
+     * key of the token at the cursor as well.
+     *
+     * @param line                      Content of the cursor line, at least up to the cursor
+     * @param column                    Cursor column
+     * @return {@link CursorContext}    Cursor context, where the key column is the column of the opening quote
+     */
+    static CursorContext ofJson(String line, int column) {
+        List<JsonToken> tokens = JsonToken.tokenize(line);
+        // Token being typed at the cursor, along with the tokens before and after it
+        int current = -1;
+        int previous = -1;
+        for (int i = 0; i < tokens.size(); i++) {
+            JsonToken token = tokens.get(i);
+            if (token.start >= column) {
+                break;
+            }
+            if (token.contains(column)) {
+                current = i;
+                break;
+            }
+            previous = i;
+        }
+        int tokenStart = current < 0 ? column : tokens.get(current).start;
+        int prefixColumn = current < 0 ? column : tokens.get(current).getContentStart();
+        String prefix = line.substring(prefixColumn, Math.max(prefixColumn, column));
+        if (previous >= 1 && tokens.get(previous).isSeparator() && tokens.get(previous - 1).isString()) {
+            JsonToken key = tokens.get(previous - 1);
+            return new CursorContext(false, key.start, tokens.get(previous).start, key.start, key.getValue(line),
+                    prefix, prefixColumn);
+        }
+        if (current >= 0 && current + 1 < tokens.size() && tokens.get(current).isString()
+                && tokens.get(current + 1).isSeparator()) {
+            JsonToken key = tokens.get(current);
+            return new CursorContext(false, key.start, tokens.get(current + 1).start, key.start, key.getValue(line),
+                    prefix, prefixColumn);
+        }
+        return new CursorContext(false, tokenStart, -1, tokenStart, null, prefix, prefixColumn);
+    }
+
+    /**
+     * Check whether the line starts a sequence item.
+     *
+     * @return {@link Boolean} Whether the key or the value follows a sequence item indicator
+     */
+    boolean isSequenceItem() {
+        return sequenceItem;
+    }
+
+    /**
+     * Get the column where the key starts, after the indentation and the sequence item indicators.
+     *
+     * @return {@link Integer} Key column
+     */
+    int getKeyColumn() {
+        return keyColumn;
+    }
+
+    /**
+     * Get the column of the colon separating the key from the value.
+     *
+     * @return {@link Integer} Separator column or -1 if a key is being typed
+     */
+    int getSeparatorColumn() {
+        return separatorColumn;
+    }
+
+    /**
+     * Get the number of whitespaces before the key, which is the cursor column within the masked line.
+     *
+     * @return {@link Integer} Whitespace count
+     */
+    int getWhitespacesBeforeKey() {
+        return whitespacesBeforeKey;
+    }
+
+    /**
+     * Get the key of the value at the cursor.
+     *
+     * @return {@link String} Key or null if a key is being typed
+     */
+    String getKey() {
+        return key;
+    }
+
+    boolean isValue() {
+        return key != null;
+    }
+
+    /**
+     * Get the prefix typed before the cursor, without the opening quote.
+     *
+     * @return {@link String} Typed prefix
+     */
+    String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Get the column where the typed prefix starts.
+     *
+     * @return {@link Integer} Prefix column
+     */
+    int getPrefixColumn() {
+        return prefixColumn;
+    }
+
+    // Private methods
+
+    private static int skipSpaces(String text, int index) {
+        while (index < text.length() && (text.charAt(index) == ' ' || text.charAt(index) == '\t')) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipQuote(String text, int index) {
+        return index < text.length() && (text.charAt(index) == '\'' || text.charAt(index) == '"') ? index + 1 : index;
+    }
+
+    /**
+     * Find the colon separating the key from the value, skipping a quoted key. A colon is a separator only when it is
+     * followed by a space or ends the line (ex: the colon of http://host is a part of the scalar).
+     */
+    private static int findSeparator(String text, int keyColumn) {
+        int index = keyColumn;
+        if (index < text.length() && (text.charAt(index) == '\'' || text.charAt(index) == '"')) {
+            int closing = text.indexOf(text.charAt(index), index + 1);
+            if (closing < 0) {
+                return -1;
+            }
+            index = closing + 1;
+        }
+        for (; index < text.length(); index++) {
+            char c = text.charAt(index);
+            if (c == '#' && index > keyColumn && text.charAt(index - 1) == ' ') {
+                return -1;
+            }
+            if (c == ':' && (index + 1 == text.length() || text.charAt(index + 1) == ' ')) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Token of a line of a JSON document: a string, a punctuation character or a word such as a number or a literal.
+     */
+    private static final class JsonToken {
+        private final int start;
+        private final int end;
+        private final char first;
+        private final boolean closed;
+
+        private JsonToken(int start, int end, char first, boolean closed) {
+            this.start = start;
+            this.end = end;
+            this.first = first;
+            this.closed = closed;
+        }
+
+        private static List<JsonToken> tokenize(String line) {
+            List<JsonToken> tokens = new ArrayList<>();
+            int index = 0;
+            while (index < line.length()) {
+                char c = line.charAt(index);
+                int start = index;
+                if (c == '"') {
+                    index++;
+                    while (index < line.length() && line.charAt(index) != '"') {
+                        index += line.charAt(index) == '\\' ? 2 : 1;
+                    }
+                    boolean closed = index < line.length();
+                    index = Math.min(index + 1, line.length());
+                    tokens.add(new JsonToken(start, index, c, closed));
+                } else if (Character.isWhitespace(c)) {
+                    index++;
+                } else if (isWordPart(c)) {
+                    while (index < line.length() && isWordPart(line.charAt(index))) {
+                        index++;
+                    }
+                    tokens.add(new JsonToken(start, index, c, true));
+                } else {
+                    index++;
+                    tokens.add(new JsonToken(start, index, c, true));
+                }
+            }
+            return tokens;
+        }
+
+        private static boolean isWordPart(char c) {
+            return Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.' || c == '_' || c == '$';
+        }
+
+        private boolean isString() {
+            return first == '"';
+        }
+
+        private boolean isSeparator() {
+            return first == ':';
+        }
+
+        private int getContentStart() {
+            return isString() ? start + 1 : start;
+        }
+
+        /**
+         * Check whether the given column is within the token, up to the closing quote of a string.
+         */
+        private boolean contains(int column) {
+            if (isString()) {
+                return column > start && (!closed || column < end);
+            }
+            return isWordPart(first) && column > start && column <= end;
+        }
+
+        private String getValue(String line) {
+            String content = line.substring(start + 1, closed ? end - 1 : end);
+            return content.indexOf('\\') < 0 ? content : content.replace("\\\"", "\"").replace("\\\\", "\\")
+                    .replace("\\/", "/");
+        }
+    }
+
+    private static String unquote(String key) {
+        if (key.length() >= 2 && (key.charAt(0) == '\'' || key.charAt(0) == '"')
+                && key.charAt(key.length() - 1) == key.charAt(0)) {
+            return key.substring(1, key.length() - 1);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Documentation of the specification fields, loaded once from the bundled field-docs.properties.
+ *
+ * A field is documented by the key of its model type (ex: Info.title). Fields shared by the schema like types (ex:
+ * maximum) are documented once by the field name.
+ */
+final class FieldDocumentation {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FieldDocumentation.class);
+
+    private static final String RESOURCE = "field-docs.properties";
+
+    private final Properties documentation = new Properties();
+
+    private FieldDocumentation() {
+        try (InputStream stream = FieldDocumentation.class.getResourceAsStream(RESOURCE)) {
+            if (stream == null) {
+                LOGGER.warn("Cannot find the field documentation: " + RESOURCE);
+                return;
+            }
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                documentation.load(reader);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Cannot load the field documentation", e);
+        }
+    }
+
+    private static class InnerSingleton {
+        private static final FieldDocumentation INSTANCE = new FieldDocumentation();
+    }
+
+    static FieldDocumentation getInstance() {
+        return InnerSingleton.INSTANCE;
+    }
+
+    /**
+     * Get the documentation key of a field.
+     *
+     * @param modelType         Name of the model type declaring the field
+     * @param fieldName         Specification field name
+     * @return {@link String}   Documentation key
+     */
+    static String getKey(String modelType, String fieldName) {
+        return modelType + "." + fieldName;
+    }
+
+    /**
+     * Get the documentation of the field of the given key.
+     *
+     * @param key               Documentation key of the field
+     * @return {@link String}   Markdown documentation or null if the field is not documented
+     */
+    String get(String key) {
+        String text = documentation.getProperty(key);
+        int separator = key.indexOf('.');
+        if (text == null && separator >= 0) {
+            text = documentation.getProperty(key.substring(separator + 1));
+        }
+        return text;
+    }
+}
@@ -15,124 +15,158 @@
  */
 package org.swagger.langserver.completion;
 
-import org.yaml.snakeyaml.nodes.MappingNode;
-import org.yaml.snakeyaml.nodes.NodeTuple;
-import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Go through the yml config to identify the field stack where the cursor belongs.
+ * Go through the yml config to identify the field path where the cursor belongs.
+ *
+ * The content is visited as a stream of parser events, which stops at the first event after the cursor. The
+ * collections which are still open at that point enclose the cursor, hence the field path is calculated from them
+ * without building the node tree.
  */
 class FieldIdentifier {
 
-    private Deque<String> fieldStack = new ArrayDeque<>();
-    
-    private boolean terminateVisit = false;
-    
-    private int cursorLine = -1;
-    
-    private int cursorCol = -1;
+    /**
+     * Field path entry of an item within a sequence.
+     */
+    static final String SEQUENCE_ITEM = "-";
+
+    private final List<Frame> frames = new ArrayList<>();
+
+    private final int cursorLine;
+
+    private final int cursorCol;
 
     FieldIdentifier(int cursorLine, int cursorCol) {
         this.cursorLine = cursorLine;
         this.cursorCol = cursorCol;
     }
 
-    void calculateFieldStack(List<NodeTuple> tuples) {
-        for (NodeTuple tuple : tuples) {
-            if (terminateVisit) {
-                // During the recursive visit, terminateVisitor is set to true when the desired scope identified
-                break;
-            }
-            String key = ((ScalarNode) tuple.getKeyNode()).getValue();
-            int line = tuple.getKeyNode().getStartMark().getLine();
+    /**
+     * Calculate the field path of the cursor.
+     *
+     * @param reader        Reader of the yml content
+     * @return {@link List} Keys from the root of the content to the cursor
+     */
+    List<String> calculateFieldPath(Reader reader) {
+        return calculateFieldPath(new ParserImpl(new StreamReader(reader)));
+    }
 
-            if (cursorLine < line) {
-                // If the cursor is before the evaluating token then break the iteration
-                this.terminateVisit = true;
-                break;
-            } else if (this.withinObjectNode(tuples, tuple)) {
-                /*
-                    If the given tuple is a mapping node and the cursor is within the mapping node then add the
-                    mapping node key to field stack.
-                    After traversing all the members of the mapping node remove the added entry to the field stack if 
-                    necessary (During the last item evaluation).
-                 */
-                this.fieldStack.push(key);
-                /*
-                    If at least one field is not within the current field, it is a scalar node and during the check
-                    for mapping node, will set the visitor termination
-                 */
-                if (terminateVisit) {
+    /**
+     * Calculate the field path of the cursor from the events of the given parser, such as the parser of a JSON
+     * document.
+     *
+     * @param parser        Parser of the content
+     * @return {@link List} Keys from the root of the content to the cursor
+     */
+    List<String> calculateFieldPath(Parser parser) {
+        try {
+            while (!parser.checkEvent(Event.ID.StreamEnd)) {
+                Event event = parser.peekEvent();
+                if (isAfterCursor(event.getStartMark())) {
                     break;
                 }
-                this.calculateFieldStack(((MappingNode) tuple.getValueNode()).getValue());
+                visit(parser.getEvent());
             }
+        } catch (YAMLException e) {
+            // Content after the cursor may not be complete. Continue with the collections visited so far
+        }
+        return getFieldPath();
+    }
 
-            if (!terminateVisit && tuples.indexOf(tuple) == tuples.size() - 1) {
-                this.terminateVisit = true;
+    private void visit(Event event) {
+        if (event instanceof CollectionStartEvent) {
+            frames.add(new Frame(event.is(Event.ID.MappingStart), ((CollectionStartEvent) event).isFlow(),
+                    event.getStartMark().getColumn()));
+        } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+            frames.remove(frames.size() - 1);
+            if (!frames.isEmpty()) {
+                frames.get(frames.size() - 1).valueVisited();
+            }
+        } else if ((event.is(Event.ID.Scalar) || event.is(Event.ID.Alias)) && !frames.isEmpty()) {
+            Frame current = frames.get(frames.size() - 1);
+            if (current.mapping && current.expectingKey) {
+                String key = event.is(Event.ID.Scalar) ? ((ScalarEvent) event).getValue() : null;
+                current.keyVisited(key, event.getStartMark().getColumn());
+            } else {
+                current.valueVisited();
             }
         }
     }
-    
-    private boolean withinObjectNode(List<NodeTuple> tuples, NodeTuple tuple) {
-        /*
-            If the cursor within the mapping node, need to check whether cursor col is inside the tuple and also
-            nee to check the cursor line within the tuple. Since the tupl
-         */
-        int tupleNodeEndLine = tuple.getValueNode().getEndMark().getLine();
-        int tupleNodeStartCol = tuple.getKeyNode().getStartMark().getColumn();
-        /*
-            If the value node is a scalar node then, you are writing the first field within the object node (YAML parser
-            cannot identify) and handle the visitor termination.
-            ex: 
-            swagger: "2.0"
-            info:
-              title: Simple API overview
-              version: v2
-              contact:
-                name: API Support
-              license:
-                <cursor>
-            servers:
-         */
-        if (tuple.getValueNode() instanceof ScalarNode && this.withinScalarNodeAsObject(tuples, tuple)) {
-            this.terminateVisit = true;
-            return true;
+
+    private List<String> getFieldPath() {
+        List<String> fieldPath = new ArrayList<>();
+        for (int i = 0; i < frames.size(); i++) {
+            Frame frame = frames.get(i);
+            boolean hasValueFrame = i + 1 < frames.size();
+            if (frame.mapping) {
+                /*
+                    In a block mapping, the cursor belongs to the value of the last key if the cursor is indented
+                    further than the key. In a flow mapping, the cursor belongs to the value until the value is
+                    visited.
+                    ex:
+                    info:
+                      license:
+                        <cursor>
+                 */
+                if (frame.key == null || (frame.flow ? frame.expectingKey : cursorCol <= frame.keyCol)) {
+                    break;
+                }
+                fieldPath.add(frame.key);
+            } else {
+                // In a block sequence, the cursor belongs to the last item if it is indented further than the item
+                if (!hasValueFrame || (!frame.flow && cursorCol <= frame.column)) {
+                    break;
+                }
+                fieldPath.add(SEQUENCE_ITEM);
+            }
+            if (!hasValueFrame) {
+                break;
+            }
         }
-        return tuple.getValueNode() instanceof MappingNode
-                && this.cursorCol > tupleNodeStartCol
-                && this.cursorLine <= tupleNodeEndLine;
+        return fieldPath;
     }
-    
-    private boolean withinScalarNodeAsObject(List<NodeTuple> tuples, NodeTuple tuple) {
-        /*
-            check the cases of
-            info:
-                license
-                    <cursor>
-                    
-            AND
-            
-            info:
-                license
-                    <cursor>
-                contact
-            
-            respectively
-         */
-        int nodeStartCol = tuple.getKeyNode().getStartMark().getColumn();
-        return tuples.indexOf(tuple) == tuples.size() - 1 && this.cursorCol > nodeStartCol
-                || (tuples.indexOf(tuple) < tuples.size() - 1
-                && this.cursorLine < tuples.get(tuples.indexOf(tuple) + 1).getKeyNode().getStartMark().getLine()
-                && this.cursorCol > nodeStartCol);
 
+    private boolean isAfterCursor(Mark mark) {
+        return mark.getLine() > cursorLine || (mark.getLine() == cursorLine && mark.getColumn() >= cursorCol);
     }
 
-    Deque<String> getFieldStack() {
-        return fieldStack;
+    /**
+     * Collection which is open at the current event.
+     */
+    private static class Frame {
+        private final boolean mapping;
+        private final boolean flow;
+        private final int column;
+        private boolean expectingKey = true;
+        private String key;
+        private int keyCol = -1;
+
+        private Frame(boolean mapping, boolean flow, int column) {
+            this.mapping = mapping;
+            this.flow = flow;
+            this.column = column;
+        }
+
+        private void keyVisited(String key, int keyCol) {
+            this.key = key;
+            this.keyCol = keyCol;
+            this.expectingKey = false;
+        }
+
+        private void valueVisited() {
+            this.expectingKey = true;
+        }
     }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.eclipse.lsp4j.CompletionItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed metadata of a Swagger model type: the specification field names, the type of each field and the
+ * completion items of the fields.
+ */
+final class ModelType {
+
+    private final String name;
+
+    private List<String> fieldNames = Collections.emptyList();
+
+    private Map<String, FieldType> fields = Collections.emptyMap();
+
+    private List<CompletionItem> completionItems = Collections.emptyList();
+
+    private List<CompletionItem> snippetCompletionItems = Collections.emptyList();
+
+    private List<CompletionItem> jsonCompletionItems = Collections.emptyList();
+
+    private List<CompletionItem> jsonSnippetCompletionItems = Collections.emptyList();
+
+    ModelType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the model type.
+     *
+     * @return {@link String} Simple name of the model class
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Get the specification field names of the type, in declaration order.
+     *
+     * @return {@link List} Unmodifiable list of field names
+     */
+    List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * Get the type of the given field.
+     *
+     * @param fieldName             Specification field name
+     * @return {@link FieldType}    Field type or null if the field is not defined for the type
+     */
+    FieldType getField(String fieldName) {
+        return fields.get(fieldName);
+    }
+
+    /**
+     * Get the completion items of the fields, in declaration order. The items are shared between the requests, hence
+     * they must not be modified.
+     *
+     * @param snippets          Whether the items insert a snippet with the value skeleton of the field
+     * @param json              Whether the items insert JSON members instead of YAML keys
+     * @return {@link List}     Unmodifiable list of completion items
+     */
+    List<CompletionItem> getCompletionItems(boolean snippets, boolean json) {
+        if (json) {
+            return snippets ? jsonSnippetCompletionItems : jsonCompletionItems;
+        }
+        return snippets ? snippetCompletionItems : completionItems;
+    }
+
+    /**
+     * Set the fields of the type. Called once while building the type graph, since the types can be recursive.
+     */
+    void setFields(List<String> fieldNames, Map<String, FieldType> fields) {
+        this.fieldNames = Collections.unmodifiableList(fieldNames);
+        this.fields = Collections.unmodifiableMap(fields);
+        List<CompletionItem> items = new ArrayList<>(fieldNames.size());
+        List<CompletionItem> snippetItems = new ArrayList<>(fieldNames.size());
+        List<CompletionItem> jsonItems = new ArrayList<>(fieldNames.size());
+        List<CompletionItem> jsonSnippetItems = new ArrayList<>(fieldNames.size());
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String fieldName = fieldNames.get(i);
+            FieldType fieldType = fields.get(fieldName);
+            items.add(CompletionTemplates.createFieldItem(this, fieldName, fieldType, i, false, false));
+            snippetItems.add(CompletionTemplates.createFieldItem(this, fieldName, fieldType, i, true, false));
+            jsonItems.add(CompletionTemplates.createFieldItem(this, fieldName, fieldType, i, false, true));
+            jsonSnippetItems.add(CompletionTemplates.createFieldItem(this, fieldName, fieldType, i, true, true));
+        }
+        this.completionItems = Collections.unmodifiableList(items);
+        this.snippetCompletionItems = Collections.unmodifiableList(snippetItems);
+        this.jsonCompletionItems = Collections.unmodifiableList(jsonItems);
+        this.jsonSnippetCompletionItems = Collections.unmodifiableList(jsonSnippetItems);
+    }
+
+    /**
+     * Type of a model field.
+     */
+    static final class FieldType {
+
+        /**
+         * Kinds of the field types.
+         */
+        enum Kind {
+            MODEL,
+            MAP,
+            LIST,
+            SCALAR
+        }
+
+        static final FieldType SCALAR = new FieldType(Kind.SCALAR, null, null, "any");
+
+        private final Kind kind;
+
+        private final ModelType modelType;
+
+        private final FieldType elementType;
+
+        private final String scalarName;
+
+        private FieldType(Kind kind, ModelType modelType, FieldType elementType, String scalarName) {
+            this.kind = kind;
+            this.modelType = modelType;
+            this.elementType = elementType;
+            this.scalarName = scalarName;
+        }
+
+        static FieldType scalar(String name) {
+            return new FieldType(Kind.SCALAR, null, null, name);
+        }
+
+        static FieldType model(ModelType modelType) {
+            return new FieldType(Kind.MODEL, modelType, null, null);
+        }
+
+        static FieldType map(FieldType valueType) {
+            return new FieldType(Kind.MAP, null, valueType, null);
+        }
+
+        static FieldType list(FieldType elementType) {
+            return new FieldType(Kind.LIST, null, elementType, null);
+        }
+
+        Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Get the model type of a {@link Kind#MODEL} field.
+         *
+         * @return {@link ModelType} Model type
+         */
+        ModelType getModelType() {
+            return modelType;
+        }
+
+        /**
+         * Get the value type of a {@link Kind#MAP} field or the element type of a {@link Kind#LIST} field.
+         *
+         * @return {@link FieldType} Element type
+         */
+        FieldType getElementType() {
+            return elementType;
+        }
+
+        /**
+         * Get a short description of the type, shown as the detail of the completion items.
+         * ex: Info, Map<string, Path>, List<Parameter>, string
+         *
+         * @return {@link String} Type description
+         */
+        String getDescription() {
+            switch (kind) {
+                case MODEL:
+                    return modelType.getName();
+                case MAP:
+                    return "Map<string, " + elementType.getDescription() + ">";
+                case LIST:
+                    return "List<" + elementType.getDescription() + ">";
+                default:
+                    return scalarName;
+            }
+        }
+    }
+}
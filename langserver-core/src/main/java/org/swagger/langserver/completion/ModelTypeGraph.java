@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.RefModel;
+import io.swagger.models.auth.ApiKeyAuthDefinition;
+import io.swagger.models.auth.BasicAuthDefinition;
+import io.swagger.models.auth.OAuth2Definition;
+import io.swagger.models.auth.SecuritySchemeDefinition;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.models.parameters.RefParameter;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.IntegerProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.ComposedSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import org.eclipse.lsp4j.CompletionItem;
+import org.swagger.langserver.completion.ModelType.FieldType;
+import org.swagger.langserver.spec.SpecVersion;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Static type graph of the model of a specification version, used to resolve the type of a field path without a model
+ * instance.
+ *
+ * A field path is the list of keys from the document root to the cursor. Keys of a map typed field are user defined
+ * (ex: path names under paths), hence such a key is skipped and the path continues with the map value type. Items
+ * of a list typed field are denoted by {@link FieldIdentifier#SEQUENCE_ITEM}.
+ *
+ * The graph of each version is built once from the model classes with reflection, hence resolving a field path only
+ * requires a hash lookup per key regardless of the version.
+ */
+final class ModelTypeGraph {
+
+    /**
+     * Implementations of the abstract model types. Fields of the implementations are merged, since the concrete type
+     * cannot be decided without the sibling values.
+     */
+    private static final Map<Class<?>, List<Class<?>>> IMPLEMENTATIONS = new HashMap<>();
+
+    /**
+     * Model fields which are named differently in the specification.
+     */
+    private static final Map<String, String> FIELD_NAMES = new HashMap<>();
+
+    /**
+     * Model fields which are not part of the specification.
+     */
+    private static final Set<String> EXCLUDED_FIELDS = new HashSet<>(Arrays.asList("vendorExtensions",
+            "schemaAsProperty", "isSimple", "reference", "parent", "child", "interfaces", "access", "position",
+            "extensions"));
+
+    static {
+        IMPLEMENTATIONS.put(Model.class, Arrays.asList(ModelImpl.class, ArrayModel.class, ComposedModel.class,
+                RefModel.class));
+        IMPLEMENTATIONS.put(Parameter.class, Arrays.asList(BodyParameter.class, QueryParameter.class,
+                RefParameter.class));
+        IMPLEMENTATIONS.put(Property.class, Arrays.asList(ObjectProperty.class, ArrayProperty.class,
+                StringProperty.class, IntegerProperty.class, MapProperty.class, RefProperty.class));
+        IMPLEMENTATIONS.put(SecuritySchemeDefinition.class, Arrays.asList(ApiKeyAuthDefinition.class,
+                BasicAuthDefinition.class, OAuth2Definition.class));
+        IMPLEMENTATIONS.put(Schema.class, Arrays.asList(ArraySchema.class, ComposedSchema.class));
+
+        FIELD_NAMES.put("_enum", "enum");
+        FIELD_NAMES.put("_default", "default");
+        FIELD_NAMES.put("defaultValue", "default");
+        FIELD_NAMES.put("schemaAsModel", "schema");
+        FIELD_NAMES.put("genericRef", "$ref");
+        FIELD_NAMES.put("property", "additionalProperties");
+    }
+
+    private final SpecVersion version;
+
+    private final String modelPackage;
+
+    private final Map<Class<?>, ModelType> modelTypes = new HashMap<>();
+
+    private final FieldType root;
+
+    private ModelTypeGraph(SpecVersion version) {
+        this.version = version;
+        this.modelPackage = version.getModelPackage();
+        this.root = FieldType.model(getModelType(version.getModelRoot()));
+    }
+
+    /**
+     * Graphs built so far, since a graph is built on the first use of its version.
+     */
+    private static final ConcurrentHashMap<SpecVersion, ModelTypeGraph> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Get the type graph of the given specification version, building it on the first call for the version.
+     *
+     * @param version                   Specification version
+     * @return {@link ModelTypeGraph}   Type graph of the version
+     */
+    static ModelTypeGraph getInstance(SpecVersion version) {
+        return INSTANCES.computeIfAbsent(version, ModelTypeGraph::new);
+    }
+
+    /**
+     * Get the specification version of the graph.
+     *
+     * @return {@link SpecVersion} Specification version
+     */
+    SpecVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the completion items of the fields allowed at the given field path.
+     *
+     * @param fieldPath         Keys from the document root to the cursor
+     * @param snippets          Whether the items insert a snippet with the value skeleton of the field
+     * @return {@link List}     Shared completion items or an empty list if the path does not resolve to a model type
+     */
+    List<CompletionItem> getCompletionItems(List<String> fieldPath, boolean snippets) {
+        FieldType type = resolveType(fieldPath);
+        if (type == null || type.getKind() != FieldType.Kind.MODEL) {
+            return Collections.emptyList();
+        }
+        return type.getModelType().getCompletionItems(snippets, false);
+    }
+
+    /**
+     * Resolve the type of the given field path.
+     *
+     * @param fieldPath             Keys from the document root
+     * @return {@link FieldType}    Resolved type or null if a key is not known
+     */
+    FieldType resolveType(List<String> fieldPath) {
+        FieldType type = root;
+        for (int i = 0; i < fieldPath.size() && type != null; i++) {
+            switch (type.getKind()) {
+                case MAP:
+                    // User defined key, continue with the value type
+                    type = type.getElementType();
+                    break;
+                case MODEL:
+                    type = type.getModelType().getField(fieldPath.get(i));
+                    break;
+                case LIST:
+                    type = FieldIdentifier.SEQUENCE_ITEM.equals(fieldPath.get(i)) ? type.getElementType() : null;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return type;
+    }
+
+    // Graph building
+
+    private ModelType getModelType(Class<?> cls) {
+        ModelType modelType = modelTypes.get(cls);
+        if (modelType != null) {
+            return modelType;
+        }
+        modelType = new ModelType(cls.getSimpleName());
+        // Register before resolving the fields, since the model types can be recursive
+        modelTypes.put(cls, modelType);
+
+        List<String> fieldNames = new ArrayList<>();
+        Map<String, FieldType> fields = new HashMap<>();
+        for (Field field : getFields(cls)) {
+            String name = FIELD_NAMES.getOrDefault(field.getName(), field.getName());
+            if (!fields.containsKey(name)) {
+                fieldNames.add(name);
+                fields.put(name, getFieldType(field.getGenericType()));
+            }
+        }
+        modelType.setFields(fieldNames, fields);
+        return modelType;
+    }
+
+    private FieldType getFieldType(Type type) {
+        Class<?> cls = getRawClass(type);
+        if (cls == null) {
+            return FieldType.SCALAR;
+        }
+        if (Map.class.isAssignableFrom(cls) || List.class.isAssignableFrom(cls)) {
+            Type[] arguments = getTypeArguments(type);
+            if (Map.class.isAssignableFrom(cls)) {
+                return FieldType.map(arguments.length == 2 ? getFieldType(arguments[1]) : FieldType.SCALAR);
+            }
+            return FieldType.list(arguments.length == 1 ? getFieldType(arguments[0]) : FieldType.SCALAR);
+        }
+        if (isModelClass(cls) && !cls.isEnum()) {
+            return FieldType.model(getModelType(cls));
+        }
+        return FieldType.scalar(getScalarName(cls));
+    }
+
+    /**
+     * Get the specification type name of a scalar field.
+     */
+    private static String getScalarName(Class<?> cls) {
+        if (cls == String.class || cls.isEnum()) {
+            return "string";
+        } else if (cls == Boolean.class || cls == boolean.class) {
+            return "boolean";
+        } else if (cls == Integer.class || cls == int.class || cls == Long.class || cls == long.class) {
+            return "integer";
+        } else if (Number.class.isAssignableFrom(cls) || cls == double.class || cls == float.class) {
+            return "number";
+        }
+        return "any";
+    }
+
+    /**
+     * Get the specification fields of the given model class, including the fields of the super classes and the
+     * fields of the implementations in case of an abstract model type.
+     */
+    private List<Field> getFields(Class<?> cls) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> implementation : IMPLEMENTATIONS.getOrDefault(cls, Collections.singletonList(cls))) {
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> current = implementation; current != null && isModelClass(current);
+                 current = current.getSuperclass()) {
+                hierarchy.add(0, current);
+            }
+            for (Class<?> current : hierarchy) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()
+                            && !EXCLUDED_FIELDS.contains(field.getName())) {
+                        fields.add(field);
+                    }
+                }
+            }
+        }
+        return fields;
+    }
+
+    private boolean isModelClass(Class<?> cls) {
+        return cls.getPackage() != null && cls.getPackage().getName().startsWith(modelPackage);
+    }
+
+    /**
+     * Get the type arguments of a collection type. Model classes extending a collection (ex: Paths extends
+     * LinkedHashMap of PathItem) declare the arguments on the super class.
+     */
+    private Type[] getTypeArguments(Type type) {
+        Type current = type;
+        while (current instanceof Class && isModelClass((Class<?>) current)) {
+            current = ((Class<?>) current).getGenericSuperclass();
+        }
+        return current instanceof ParameterizedType
+                ? ((ParameterizedType) current).getActualTypeArguments()
+                : new Type[0];
+    }
+
+    private static Class<?> getRawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return null;
+    }
+}
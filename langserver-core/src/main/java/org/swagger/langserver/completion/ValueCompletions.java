@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.swagger.langserver.spec.SpecVersion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Known values of the specification fields, offered when the cursor is at the value of a field or at an item of a
+ * list field. Values are keyed by <model type>.<field> and by the field name for the fields shared between the
+ * model types, as the field documentation.
+ */
+final class ValueCompletions {
+
+    /**
+     * HTTP status codes offered as the keys of the operation responses, along with the reason phrases.
+     */
+    static final List<Value> STATUS_CODES = Collections.unmodifiableList(Arrays.asList(
+            new Value("200", "OK"), new Value("201", "Created"), new Value("202", "Accepted"),
+            new Value("204", "No Content"), new Value("206", "Partial Content"),
+            new Value("301", "Moved Permanently"), new Value("302", "Found"), new Value("303", "See Other"),
+            new Value("304", "Not Modified"), new Value("307", "Temporary Redirect"),
+            new Value("308", "Permanent Redirect"), new Value("400", "Bad Request"),
+            new Value("401", "Unauthorized"), new Value("403", "Forbidden"), new Value("404", "Not Found"),
+            new Value("405", "Method Not Allowed"), new Value("406", "Not Acceptable"),
+            new Value("408", "Request Timeout"), new Value("409", "Conflict"), new Value("410", "Gone"),
+            new Value("412", "Precondition Failed"), new Value("413", "Payload Too Large"),
+            new Value("415", "Unsupported Media Type"), new Value("422", "Unprocessable Entity"),
+            new Value("428", "Precondition Required"), new Value("429", "Too Many Requests"),
+            new Value("500", "Internal Server Error"), new Value("501", "Not Implemented"),
+            new Value("502", "Bad Gateway"), new Value("503", "Service Unavailable"),
+            new Value("504", "Gateway Timeout"), new Value("default", "Any other status code")));
+
+    private static final List<Value> MIME_TYPES = values("application/json", "application/xml",
+            "application/x-www-form-urlencoded", "multipart/form-data", "text/plain", "text/html", "text/csv",
+            "text/xml", "application/octet-stream", "application/pdf", "application/zip", "application/gzip",
+            "application/javascript", "application/ld+json", "application/hal+json", "application/problem+json",
+            "application/vnd.api+json", "application/x-yaml", "image/png", "image/jpeg", "image/gif",
+            "image/svg+xml", "*/*");
+
+    private static final List<Value> BOOLEANS = values("true", "false");
+
+    private static final Map<String, List<Value>> VALUES = new HashMap<>();
+
+    /**
+     * Values of the fields which differ between the specification versions, looked up before the shared values.
+     */
+    private static final Map<SpecVersion, Map<String, List<Value>>> VERSION_VALUES = new EnumMap<>(SpecVersion.class);
+
+    static {
+        VALUES.put("Swagger.swagger", values("'2.0'"));
+        VALUES.put("consumes", MIME_TYPES);
+        VALUES.put("produces", MIME_TYPES);
+        VALUES.put("schemes", values("http", "https", "ws", "wss"));
+        VALUES.put("Parameter.type", values("string", "number", "integer", "boolean", "array", "file"));
+        VALUES.put("SecuritySchemeDefinition.type", values("basic", "apiKey", "oauth2"));
+        VALUES.put("SecuritySchemeDefinition.in", values("query", "header"));
+        VALUES.put("SecuritySchemeDefinition.flow", values("implicit", "password", "application", "accessCode"));
+        VALUES.put("type", values("string", "number", "integer", "boolean", "array", "object"));
+        VALUES.put("format", values("int32", "int64", "float", "double", "byte", "binary", "date", "date-time",
+                "password", "email", "uri", "uuid"));
+        VALUES.put("collectionFormat", values("csv", "ssv", "tsv", "pipes", "multi"));
+
+        Map<String, List<Value>> swagger2 = new HashMap<>();
+        swagger2.put("Parameter.in", values("query", "header", "path", "formData", "body"));
+        VERSION_VALUES.put(SpecVersion.SWAGGER_2, swagger2);
+
+        Map<String, List<Value>> openApi3 = new HashMap<>();
+        List<Value> styles = values("form", "simple", "matrix", "label", "spaceDelimited", "pipeDelimited",
+                "deepObject");
+        openApi3.put("OpenAPI.openapi", values("3.0.0", "3.0.1", "3.0.2"));
+        openApi3.put("Parameter.in", values("query", "header", "path", "cookie"));
+        openApi3.put("Parameter.style", styles);
+        openApi3.put("Encoding.style", styles);
+        openApi3.put("Encoding.contentType", MIME_TYPES);
+        openApi3.put("SecurityScheme.type", values("apiKey", "http", "oauth2", "openIdConnect"));
+        openApi3.put("SecurityScheme.in", values("query", "header", "cookie"));
+        openApi3.put("SecurityScheme.scheme", values("basic", "bearer", "digest"));
+        VERSION_VALUES.put(SpecVersion.OPENAPI_3, openApi3);
+    }
+
+    private ValueCompletions() {
+    }
+
+    /**
+     * Get the known values of a field.
+     *
+     * @param version           Specification version of the document
+     * @param modelType         Name of the model type declaring the field
+     * @param fieldName         Specification field name
+     * @param scalarName        Scalar type name of the field (ex: boolean) or null if the field is not a scalar
+     * @return {@link List}     Values or an empty list if the values are not known
+     */
+    static List<Value> getValues(SpecVersion version, String modelType, String fieldName, String scalarName) {
+        String key = FieldDocumentation.getKey(modelType, fieldName);
+        Map<String, List<Value>> versionValues = VERSION_VALUES.get(version);
+        List<Value> values = versionValues == null ? null : versionValues.get(key);
+        if (values == null) {
+            values = VALUES.get(key);
+        }
+        if (values == null) {
+            values = VALUES.get(fieldName);
+        }
+        if (values == null && "boolean".equals(scalarName)) {
+            values = BOOLEANS;
+        }
+        return values == null ? Collections.emptyList() : values;
+    }
+
+    // Private methods
+
+    private static List<Value> values(String... texts) {
+        List<Value> values = new ArrayList<>(texts.length);
+        for (String text : texts) {
+            values.add(new Value(text, null));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Known value of a field, along with a short description.
+     */
+    static final class Value {
+        private final String text;
+        private final String description;
+
+        Value(String text, String description) {
+            this.text = text;
+            this.description = description;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.diagnostic;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.swagger.langserver.DocumentManager;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.TextDocument;
+import org.swagger.langserver.metrics.Metrics;
+import org.swagger.langserver.scheduler.RequestScheduler;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Validates the open documents in the background and publishes the diagnostics to the client.
+ *
+ * Validation of a document is delayed until the document has not been changed for a while, hence a burst of changes
+ * results in a single validation. A scheduled or running validation is cancelled when a newer version of the document
+ * is scheduled, and the results of a validation are dropped if the document has been changed in the meantime.
+ * Validations run on the background pool of the {@link RequestScheduler}.
+ */
+public class DiagnosticsPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosticsPublisher.class);
+
+    /**
+     * System property of the quiet period in milliseconds after the last change of a document, before validating it.
+     */
+    public static final String DELAY_PROPERTY = "swagger.ls.diagnosticsDelay";
+
+    private static final long DEFAULT_DELAY_MILLIS = 300;
+
+    private final DocumentManager documentManager;
+
+    private final RequestScheduler scheduler;
+
+    private final long delayMillis;
+
+    /**
+     * Latest validation of each document, keyed by the document uri.
+     */
+    private final ConcurrentHashMap<String, Validation> validations = new ConcurrentHashMap<>();
+
+    private volatile LanguageClient client;
+
+    public DiagnosticsPublisher(DocumentManager documentManager, RequestScheduler scheduler) {
+        this(documentManager, scheduler, Long.getLong(DELAY_PROPERTY, DEFAULT_DELAY_MILLIS));
+    }
+
+    /**
+     * Create a diagnostics publisher.
+     *
+     * @param documentManager   Document manager of the open documents
+     * @param scheduler         Scheduler to run the validations in the background
+     * @param delayMillis       Quiet period after the last change of a document before validating the document
+     */
+    public DiagnosticsPublisher(DocumentManager documentManager, RequestScheduler scheduler, long delayMillis) {
+        this.documentManager = documentManager;
+        this.scheduler = scheduler;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Set the client to publish the diagnostics to.
+     *
+     * @param client Language client
+     */
+    public void setClient(LanguageClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Schedule a validation of the given version of a document, replacing the pending validation of the document.
+     *
+     * @param uri       Document uri
+     * @param filePath  Path of the document
+     * @param version   Version of the document to validate
+     */
+    public void schedule(String uri, Path filePath, int version) {
+        Validation validation = new Validation(uri, filePath, version);
+        Validation previous = this.validations.put(uri, validation);
+        if (previous != null) {
+            previous.cancel();
+        }
+        validation.future = this.scheduler.scheduleBackground(validation::run, this.delayMillis);
+    }
+
+    /**
+     * Cancel the pending validation of a closed document and clear the published diagnostics.
+     *
+     * @param uri Document uri
+     */
+    public void clear(String uri) {
+        Validation previous = this.validations.remove(uri);
+        if (previous != null) {
+            previous.cancel();
+        }
+        publish(uri, Collections.emptyList());
+    }
+
+    // Private methods
+
+    private void publish(String uri, List<Diagnostic> diagnostics) {
+        LanguageClient languageClient = this.client;
+        if (languageClient != null) {
+            languageClient.publishDiagnostics(new PublishDiagnosticsParams(uri, diagnostics));
+        }
+    }
+
+    /**
+     * Validation of a single version of a document.
+     */
+    private class Validation {
+        private final String uri;
+        private final Path filePath;
+        private final int version;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+
+        private Validation(String uri, Path filePath, int version) {
+            this.uri = uri;
+            this.filePath = filePath;
+            this.version = version;
+        }
+
+        private void cancel() {
+            this.cancelled = true;
+            ScheduledFuture<?> scheduled = this.future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+
+        private boolean isStale() {
+            TextDocument document = documentManager.getDocument(this.filePath);
+            return this.cancelled || document == null || document.getVersion() != this.version;
+        }
+
+        private void run() {
+            if (isStale()) {
+                return;
+            }
+            try (Metrics.Sample ignored = Metrics.start("diagnostics/validate")) {
+                ParsedDocument parsedDocument = documentManager.getParsedDocument(this.filePath);
+                if (parsedDocument == null || parsedDocument.getVersion() != this.version) {
+                    return;
+                }
+                List<Diagnostic> diagnostics = DiagnosticsUtil.getDiagnostics(parsedDocument);
+                if (!isStale()) {
+                    publish(this.uri, diagnostics);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Error while validating the document: " + this.uri, e);
+            } finally {
+                validations.remove(this.uri, this);
+            }
+        }
+    }
+}
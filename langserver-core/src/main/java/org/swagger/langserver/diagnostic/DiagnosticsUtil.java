@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.diagnostic;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.swagger.langserver.document.DocumentBlock;
+import org.swagger.langserver.document.ParsedDocument;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilities for validating a parsed document.
+ */
+public class DiagnosticsUtil {
+
+    private static final String DIAGNOSTIC_SOURCE = "swagger";
+
+    private static final String ATTRIBUTE_PREFIX = "attribute ";
+
+    private static final String UNEXPECTED_SUFFIX = " is unexpected";
+
+    private DiagnosticsUtil() {
+    }
+
+    /**
+     * Get the diagnostics of the given document.
+     *
+     * Syntax errors of the document blocks are reported first. Swagger specification messages are reported only when
+     * the document is free of syntax errors, since the messages are not meaningful for a partially parsed document.
+     * Block errors are reported only when the whole document fails to parse as well.
+     *
+     * @param parsedDocument    Parsed document
+     * @return {@link List}     Diagnostics of the document
+     */
+    public static List<Diagnostic> getDiagnostics(ParsedDocument parsedDocument) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (parsedDocument.hasSyntaxErrors()) {
+            for (DocumentBlock block : parsedDocument.getBlocks()) {
+                if (block.getError() != null) {
+                    diagnostics.add(getSyntaxDiagnostic(block, block.getError()));
+                }
+            }
+            return diagnostics;
+        }
+
+        for (String message : parsedDocument.getValidationMessages()) {
+            Diagnostic diagnostic = new Diagnostic(getMessageRange(parsedDocument, message), message);
+            diagnostic.setSeverity(message.endsWith(UNEXPECTED_SUFFIX)
+                    ? DiagnosticSeverity.Warning
+                    : DiagnosticSeverity.Error);
+            diagnostic.setSource(DIAGNOSTIC_SOURCE);
+            diagnostics.add(diagnostic);
+        }
+        return diagnostics;
+    }
+
+    // Private methods
+
+    private static Diagnostic getSyntaxDiagnostic(DocumentBlock block, YAMLException error) {
+        Position position = new Position(block.getStartLine(), 0);
+        String message = error.getMessage();
+        if (error instanceof MarkedYAMLException) {
+            MarkedYAMLException markedError = (MarkedYAMLException) error;
+            Mark mark = markedError.getProblemMark() != null
+                    ? markedError.getProblemMark()
+                    : markedError.getContextMark();
+            if (mark != null) {
+                position = new Position(block.getStartLine() + mark.getLine(), mark.getColumn());
+            }
+            message = markedError.getContext() == null
+                    ? markedError.getProblem()
+                    : markedError.getContext() + ", " + markedError.getProblem();
+        }
+        Diagnostic diagnostic = new Diagnostic(new Range(position, position), message);
+        diagnostic.setSeverity(DiagnosticSeverity.Error);
+        diagnostic.setSource(DIAGNOSTIC_SOURCE);
+        return diagnostic;
+    }
+
+    /**
+     * Get the range of the key referred by a Swagger parser message.
+     *
+     * Messages refer the attributes with a dotted path (ex: attribute paths.'/pets'(get).responses is missing). The
+     * range of the deepest key of the path found in the document is returned, hence a missing attribute is reported
+     * at the enclosing key.
+     *
+     * @param parsedDocument    Parsed document
+     * @param message           Swagger parser message
+     * @return {@link Range}    Range of the key or the document start if the path cannot be resolved
+     */
+    private static Range getMessageRange(ParsedDocument parsedDocument, String message) {
+        Range range = new Range(new Position(0, 0), new Position(0, 0));
+        if (!message.startsWith(ATTRIBUTE_PREFIX) || message.indexOf(" is ", ATTRIBUTE_PREFIX.length()) < 0) {
+            return range;
+        }
+        List<String> path = getAttributePath(message.substring(ATTRIBUTE_PREFIX.length(),
+                message.indexOf(" is ", ATTRIBUTE_PREFIX.length())));
+
+        int matchedDepth = 0;
+        for (DocumentBlock block : parsedDocument.getBlocks()) {
+            List<String> parentPath = block.getParentPath();
+            if (block.getNode() == null || parentPath.size() >= path.size()
+                    || !path.subList(0, parentPath.size()).equals(parentPath)) {
+                continue;
+            }
+            Node node = block.getNode();
+            int depth = parentPath.size();
+            Node keyNode = null;
+            while (depth < path.size()) {
+                Node[] entry = getEntry(node, path.get(depth));
+                if (entry == null) {
+                    break;
+                }
+                keyNode = entry[0];
+                node = entry[1];
+                depth++;
+            }
+            if (keyNode != null && depth > matchedDepth) {
+                matchedDepth = depth;
+                range = new Range(new Position(block.getStartLine() + keyNode.getStartMark().getLine(),
+                        keyNode.getStartMark().getColumn()),
+                        new Position(block.getStartLine() + keyNode.getEndMark().getLine(),
+                                keyNode.getEndMark().getColumn()));
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Split an attribute path of a Swagger parser message to the keys.
+     * Keys are separated with dots, where a key can be quoted and an operation is given within parentheses.
+     *
+     * @param attribute         Attribute path of the message
+     * @return {@link List}     Keys of the path
+     */
+    private static List<String> getAttributePath(String attribute) {
+        List<String> path = new ArrayList<>();
+        StringBuilder key = new StringBuilder();
+        char closing = 0;
+        for (char c : attribute.toCharArray()) {
+            if (closing != 0) {
+                if (c == closing) {
+                    closing = 0;
+                    if (c == ')') {
+                        path.add(key.toString());
+                        key.setLength(0);
+                    }
+                } else {
+                    key.append(c);
+                }
+            } else if (c == '\'' || c == '(') {
+                if (c == '(' && key.length() > 0) {
+                    path.add(key.toString());
+                    key.setLength(0);
+                }
+                closing = c == '(' ? ')' : '\'';
+            } else if (c == '.') {
+                if (key.length() > 0) {
+                    path.add(key.toString());
+                    key.setLength(0);
+                }
+            } else {
+                key.append(c);
+            }
+        }
+        if (key.length() > 0) {
+            path.add(key.toString());
+        }
+        return path;
+    }
+
+    /**
+     * Get the key and value nodes of the given key within a mapping node, or the item at the given index within a
+     * sequence node.
+     */
+    private static Node[] getEntry(Node node, String key) {
+        if (node instanceof MappingNode) {
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                if (tuple.getKeyNode() instanceof ScalarNode
+                        && key.equals(((ScalarNode) tuple.getKeyNode()).getValue())) {
+                    return new Node[]{tuple.getKeyNode(), tuple.getValueNode()};
+                }
+            }
+        } else if (node instanceof SequenceNode && key.matches("\\d{1,9}")) {
+            List<Node> items = ((SequenceNode) node).getValue();
+            int index = Integer.parseInt(key);
+            if (index < items.size()) {
+                return new Node[]{items.get(index), items.get(index)};
+            }
+        }
+        return null;
+    }
+}
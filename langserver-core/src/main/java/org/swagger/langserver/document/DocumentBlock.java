@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+
+import java.util.List;
+
+/**
+ * A range of lines of a document which is parsed independently from the rest of the document.
+ *
+ * A block is either a top level entry of the document (ex: info, paths) or, for large top level entries, an entry of
+ * the second level (ex: a single path under paths). Node marks are relative to the start line of the block, while the
+ * columns are same as in the document.
+ */
+public class DocumentBlock {
+
+    private final int startLine;
+
+    private final int lineCount;
+
+    private final List<String> parentPath;
+
+    private final int indent;
+
+    private final Node node;
+
+    private final YAMLException error;
+
+    private final boolean dirty;
+
+    DocumentBlock(int startLine, int lineCount, List<String> parentPath, int indent, Node node, YAMLException error,
+                  boolean dirty) {
+        this.startLine = startLine;
+        this.lineCount = lineCount;
+        this.parentPath = parentPath;
+        this.indent = indent;
+        this.node = node;
+        this.error = error;
+        this.dirty = dirty;
+    }
+
+    /**
+     * Get the first line of the block within the document.
+     *
+     * @return {@link Integer} Zero based start line
+     */
+    public int getStartLine() {
+        return startLine;
+    }
+
+    /**
+     * Get the number of lines of the block.
+     *
+     * @return {@link Integer} Line count
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Get the line after the last line of the block.
+     *
+     * @return {@link Integer} Zero based end line (exclusive)
+     */
+    public int getEndLine() {
+        return startLine + lineCount;
+    }
+
+    /**
+     * Get the keys of the mappings enclosing the block. Empty for the top level blocks.
+     *
+     * @return {@link List} Parent key path
+     */
+    public List<String> getParentPath() {
+        return parentPath;
+    }
+
+    /**
+     * Get the indentation of the block keys.
+     *
+     * @return {@link Integer} Indentation column
+     */
+    public int getIndent() {
+        return indent;
+    }
+
+    /**
+     * Get the parsed node of the block.
+     *
+     * @return {@link Node} Parsed node or null if the block is empty or cannot be parsed
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    /**
+     * Get the parser error of the block. Marks of the error are relative to the start line of the block.
+     *
+     * @return {@link YAMLException} Parser error or null if the block was parsed successfully
+     */
+    public YAMLException getError() {
+        return error;
+    }
+
+    /**
+     * Convert the given document line to a line relative to the block, as used by the node marks.
+     *
+     * @param line              Document line
+     * @return {@link Integer}  Block relative line
+     */
+    public int toBlockLine(int line) {
+        return line - startLine;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    boolean contains(int line) {
+        return line >= startLine && line < startLine + lineCount;
+    }
+
+    DocumentBlock shift(int delta) {
+        if (delta == 0) {
+            return this;
+        }
+        return new DocumentBlock(startLine + delta, lineCount, parentPath, indent, node, error, dirty);
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser of JSON content, producing the events of the YAML parser. Hence a JSON document is composed in to
+ * the same node tree and visited by the same event consumers as a YAML document.
+ *
+ * The marks of the events carry the zero based line and column of the tokens, as the marks of the YAML parser.
+ * Objects and arrays are reported as flow collections, strings as double quoted scalars and the other values as
+ * plain scalars, hence the resolver assigns the same tags as to the equivalent YAML content.
+ *
+ * A fragment is a run of members of an object without the enclosing braces, such as a block of a JSON document (see
+ * {@link ParsedDocument}). The members are reported as a mapping, while the braces and the commas of the enclosing
+ * objects are skipped. The collections which are still open at the end of a fragment are closed, hence the content
+ * before a cursor can be parsed as well.
+ */
+public class JsonEventParser implements Parser {
+
+    private static final String NAME = "<json>";
+
+    private static final int EOF = -1;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Content of the marks, which is not retained since the problems are reported at the positions of the marks.
+     */
+    private static final int[] NO_SNIPPET = new int[0];
+
+    private static final ImplicitTuple PLAIN_IMPLICIT = new ImplicitTuple(true, false);
+
+    private static final ImplicitTuple QUOTED_IMPLICIT = new ImplicitTuple(false, true);
+
+    private final Reader reader;
+
+    private final boolean fragment;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int bufferLength;
+
+    private int bufferPosition;
+
+    private int index;
+
+    private int line;
+
+    private int column;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private final List<Collection> collections = new ArrayList<>();
+
+    private State state = State.STREAM_START;
+
+    private Event nextEvent;
+
+    /**
+     * Create a parser of JSON content.
+     *
+     * @param reader    Reader of the content
+     * @param fragment  Whether the content is a run of members of an object, rather than a single JSON value
+     */
+    public JsonEventParser(Reader reader, boolean fragment) {
+        this.reader = reader;
+        this.fragment = fragment;
+    }
+
+    /**
+     * Check whether the given content is a JSON document, which starts with an object. YAML documents can start with
+     * a flow mapping as well, hence the first key has to be quoted.
+     *
+     * @param content           Document content
+     * @return {@link Boolean}  Whether the content is a JSON document
+     */
+    public static boolean isJson(CharSequence content) {
+        int offset = skipWhitespaces(content, 0);
+        if (offset == content.length() || content.charAt(offset) != '{') {
+            return false;
+        }
+        offset = skipWhitespaces(content, offset + 1);
+        return offset < content.length() && (content.charAt(offset) == '"' || content.charAt(offset) == '}');
+    }
+
+    @Override
+    public boolean checkEvent(Event.ID choice) {
+        Event event = peekEvent();
+        return event != null && event.is(choice);
+    }
+
+    @Override
+    public Event peekEvent() {
+        if (nextEvent == null && state != State.DONE) {
+            nextEvent = produce();
+        }
+        return nextEvent;
+    }
+
+    @Override
+    public Event getEvent() {
+        Event event = peekEvent();
+        nextEvent = null;
+        return event;
+    }
+
+    // Private methods
+
+    private Event produce() {
+        Mark mark;
+        switch (state) {
+            case STREAM_START:
+                state = State.DOCUMENT_START;
+                mark = mark();
+                return new StreamStartEvent(mark, mark);
+            case DOCUMENT_START:
+                skipWhitespaces();
+                mark = mark();
+                if (!fragment && peek() == EOF) {
+                    state = State.DONE;
+                    return new StreamEndEvent(mark, mark);
+                }
+                state = State.ROOT;
+                return new DocumentStartEvent(mark, mark, false, null, null);
+            case ROOT:
+                state = State.CONTENT;
+                mark = mark();
+                if (fragment) {
+                    collections.add(new Collection(true, true, mark));
+                    return new MappingStartEvent(null, null, true, mark, mark, DumperOptions.FlowStyle.FLOW);
+                }
+                return readValue(mark);
+            case CONTENT:
+                return produceContent();
+            default:
+                state = State.DONE;
+                mark = mark();
+                return new StreamEndEvent(mark, mark);
+        }
+    }
+
+    private Event produceContent() {
+        while (!collections.isEmpty()) {
+            Collection collection = collections.get(collections.size() - 1);
+            skipWhitespaces();
+            Mark mark = mark();
+            int c = peek();
+            if (c == EOF) {
+                if (!fragment) {
+                    throw error(collection, "found unexpected end of content", mark);
+                }
+                if (collection.mapping && (collection.expecting == Expecting.COLON
+                        || collection.expecting == Expecting.VALUE)) {
+                    // Key without a value at the end of the fragment, composed as a null value
+                    collection.expecting = Expecting.SEPARATOR;
+                    return new ScalarEvent(null, null, PLAIN_IMPLICIT, "", mark, mark,
+                            DumperOptions.ScalarStyle.PLAIN);
+                }
+                return closeCollection(mark, mark);
+            }
+            switch (collection.expecting) {
+                case KEY:
+                    if (c == '"') {
+                        String key = readString();
+                        collection.expecting = Expecting.COLON;
+                        return new ScalarEvent(null, null, QUOTED_IMPLICIT, key, mark, mark(),
+                                DumperOptions.ScalarStyle.DOUBLE_QUOTED);
+                    } else if (c == '}' && !collection.fragment) {
+                        // Trailing comma of the object
+                        read();
+                        return closeCollection(mark, mark());
+                    } else if (collection.fragment && isStructural(c)) {
+                        read();
+                        continue;
+                    }
+                    throw error(collection, "expected a string key, but found " + describe(c), mark);
+                case COLON:
+                    if (c != ':') {
+                        throw error(collection, "expected ':', but found " + describe(c), mark);
+                    }
+                    read();
+                    collection.expecting = Expecting.VALUE;
+                    continue;
+                case VALUE:
+                    if (c == ']' && !collection.mapping) {
+                        read();
+                        return closeCollection(mark, mark());
+                    }
+                    collection.expecting = Expecting.SEPARATOR;
+                    return readValue(mark);
+                default:
+                    if (c == ',') {
+                        read();
+                        collection.expecting = collection.mapping ? Expecting.KEY : Expecting.VALUE;
+                        continue;
+                    } else if (c == (collection.mapping ? '}' : ']') && !collection.fragment) {
+                        read();
+                        return closeCollection(mark, mark());
+                    } else if (collection.fragment && isStructural(c)) {
+                        read();
+                        continue;
+                    }
+                    throw error(collection, "expected ',' or '" + (collection.mapping ? '}' : ']')
+                            + "', but found " + describe(c), mark);
+            }
+        }
+        if (!fragment) {
+            skipWhitespaces();
+            if (peek() != EOF) {
+                throw new ParserException(null, null, "expected the end of the content, but found "
+                        + describe(peek()), mark());
+            }
+        }
+        state = State.DOCUMENT_END;
+        Mark mark = mark();
+        return new DocumentEndEvent(mark, mark, false);
+    }
+
+    private Event readValue(Mark start) {
+        int c = peek();
+        if (c == '{' || c == '[') {
+            read();
+            boolean mapping = c == '{';
+            collections.add(new Collection(mapping, false, start));
+            return mapping
+                    ? new MappingStartEvent(null, null, true, start, mark(), DumperOptions.FlowStyle.FLOW)
+                    : new SequenceStartEvent(null, null, true, start, mark(), DumperOptions.FlowStyle.FLOW);
+        } else if (c == '"') {
+            String value = readString();
+            return new ScalarEvent(null, null, QUOTED_IMPLICIT, value, start, mark(),
+                    DumperOptions.ScalarStyle.DOUBLE_QUOTED);
+        }
+        // Numbers and literals
+        text.setLength(0);
+        for (c = peek(); c != EOF && (Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.'); c = peek()) {
+            text.append((char) read());
+        }
+        String value = text.toString();
+        if (value.isEmpty() || !(isNumber(value) || "true".equals(value) || "false".equals(value)
+                || "null".equals(value))) {
+            throw new ParserException(null, null, "expected a JSON value, but found "
+                    + (value.isEmpty() ? describe(c) : "'" + value + "'"), start);
+        }
+        return new ScalarEvent(null, null, PLAIN_IMPLICIT, value, start, mark(), DumperOptions.ScalarStyle.PLAIN);
+    }
+
+    private Event closeCollection(Mark start, Mark end) {
+        Collection collection = collections.remove(collections.size() - 1);
+        return collection.mapping ? new MappingEndEvent(start, end) : new SequenceEndEvent(start, end);
+    }
+
+    /**
+     * Read a string token, starting at the opening quote.
+     */
+    private String readString() {
+        Mark start = mark();
+        read();
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return text.toString();
+            } else if (c == EOF || c == '\n') {
+                throw new ParserException("while scanning a string", start, "found unclosed string", mark());
+            } else if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+            c = read();
+            switch (c) {
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw new ParserException("while scanning a string", start,
+                                    "found invalid unicode escape", mark());
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                    break;
+                case '"':
+                case '\\':
+                case '/':
+                    text.append((char) c);
+                    break;
+                default:
+                    throw new ParserException("while scanning a string", start, "found invalid escape "
+                            + describe(c), mark());
+            }
+        }
+    }
+
+    private void skipWhitespaces() {
+        for (int c = peek(); c == ' ' || c == '\n' || c == '\r' || c == '\t'; c = peek()) {
+            read();
+        }
+    }
+
+    private int peek() {
+        if (bufferPosition == bufferLength) {
+            try {
+                bufferLength = Math.max(reader.read(buffer, 0, BUFFER_SIZE), 0);
+            } catch (IOException e) {
+                throw new YAMLException(e);
+            }
+            bufferPosition = 0;
+            if (bufferLength == 0) {
+                return EOF;
+            }
+        }
+        return buffer[bufferPosition];
+    }
+
+    private int read() {
+        int c = peek();
+        if (c == EOF) {
+            return EOF;
+        }
+        bufferPosition++;
+        index++;
+        if (c == '\n') {
+            line++;
+            column = 0;
+        } else {
+            column++;
+        }
+        return c;
+    }
+
+    private Mark mark() {
+        return new Mark(NAME, index, line, column, NO_SNIPPET, 0);
+    }
+
+    private static ParserException error(Collection collection, String problem, Mark mark) {
+        String context = collection.fragment ? "while parsing the members of an object"
+                : collection.mapping ? "while parsing an object" : "while parsing an array";
+        return new ParserException(context, collection.start, problem, mark);
+    }
+
+    private static boolean isStructural(int c) {
+        return c == '{' || c == '}' || c == '[' || c == ']' || c == ',';
+    }
+
+    private static boolean isNumber(String value) {
+        int length = value.length();
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        int digits = 0;
+        while (i < length && Character.isDigit(value.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            digits = 0;
+            while (i < length && Character.isDigit(value.charAt(i))) {
+                i++;
+                digits++;
+            }
+            if (digits == 0) {
+                return false;
+            }
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+                i++;
+            }
+            digits = 0;
+            while (i < length && Character.isDigit(value.charAt(i))) {
+                i++;
+                digits++;
+            }
+            if (digits == 0) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static String describe(int c) {
+        return c == EOF ? "end of content" : "'" + (char) c + "'";
+    }
+
+    private static int skipWhitespaces(CharSequence content, int offset) {
+        while (offset < content.length() && Character.isWhitespace(content.charAt(offset))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private enum State {
+        STREAM_START,
+        DOCUMENT_START,
+        ROOT,
+        CONTENT,
+        DOCUMENT_END,
+        DONE
+    }
+
+    private enum Expecting {
+        KEY,
+        COLON,
+        VALUE,
+        SEPARATOR
+    }
+
+    /**
+     * Object or array which is open at the current token.
+     */
+    private static class Collection {
+        private final boolean mapping;
+        private final boolean fragment;
+        private final Mark start;
+        private Expecting expecting;
+
+        private Collection(boolean mapping, boolean fragment, Mark start) {
+            this.mapping = mapping;
+            this.fragment = fragment;
+            this.start = start;
+            this.expecting = mapping ? Expecting.KEY : Expecting.VALUE;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Read-only content of a file which is not open in the editor, memory mapped from the disk.
+ *
+ * The content stays outside of the heap and is decoded only when read. Line offsets are calculated on the first line
+ * access, hence a file which is only scanned once does not pay for them.
+ */
+public class MappedDocument {
+
+    private final Path path;
+
+    private final long size;
+
+    private final FileTime lastModified;
+
+    private final MappedByteBuffer buffer;
+
+    private volatile int[] lineOffsets;
+
+    private MappedDocument(Path path, long size, FileTime lastModified, MappedByteBuffer buffer) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Map the given file.
+     *
+     * @param path                      Path of the file
+     * @return {@link MappedDocument}   Mapped document
+     * @throws IOException              Error reading the file or the file is too large to be mapped
+     */
+    public static MappedDocument map(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (attributes.size() > Integer.MAX_VALUE) {
+            throw new IOException("File is too large to be mapped: " + path.toString());
+        }
+        // The mapping stays valid after closing the channel
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, attributes.size());
+            return new MappedDocument(path, attributes.size(), attributes.lastModifiedTime(), buffer);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Get the size of the mapped content.
+     *
+     * @return {@link Long} Size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Check whether the file has not been changed on the disk since it was mapped.
+     *
+     * @return {@link Boolean} Whether the mapped content is current
+     */
+    public boolean isCurrent() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.size() == size && attributes.lastModifiedTime().equals(lastModified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get a reader of the content, decoded as UTF-8.
+     *
+     * @return {@link Reader} Content reader
+     */
+    public Reader getReader() {
+        return new InputStreamReader(new BufferInputStream(buffer.duplicate()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the number of lines of the content.
+     *
+     * @return {@link Integer} Line count
+     */
+    public int getLineCount() {
+        return getLineOffsets().length;
+    }
+
+    /**
+     * Get the content of the given line, without the line terminator.
+     *
+     * Note: Reading a mapping of a file truncated on the disk raises an {@link InternalError}
+     *
+     * @param line              Zero based line number
+     * @return {@link String}   Line content
+     */
+    public String getLine(int line) {
+        int[] offsets = getLineOffsets();
+        if (line < 0 || line >= offsets.length) {
+            throw new IndexOutOfBoundsException("Line: " + line + ", Line count: " + offsets.length);
+        }
+        int start = offsets[line];
+        int end = line + 1 < offsets.length ? offsets[line + 1] : (int) size;
+        ByteBuffer content = buffer.duplicate();
+        while (end > start && (content.get(end - 1) == '\n' || content.get(end - 1) == '\r')) {
+            end--;
+        }
+        // Buffer methods are called on the super type, which keeps the Java 8 signatures when built with a newer JDK
+        ((Buffer) content).position(start).limit(end);
+        return StandardCharsets.UTF_8.decode(content).toString();
+    }
+
+    // Private methods
+
+    /**
+     * Get the byte offsets of the line starts. A line terminator is a line feed, optionally preceded by a carriage
+     * return, where the carriage return is part of the terminator.
+     */
+    private int[] getLineOffsets() {
+        int[] offsets = this.lineOffsets;
+        if (offsets == null) {
+            int count = 1;
+            for (int i = 0; i < size; i++) {
+                if (buffer.get(i) == '\n') {
+                    count++;
+                }
+            }
+            offsets = new int[count];
+            int line = 1;
+            for (int i = 0; i < size; i++) {
+                if (buffer.get(i) == '\n') {
+                    offsets[line++] = i + 1;
+                }
+            }
+            this.lineOffsets = offsets;
+        }
+        return offsets;
+    }
+
+    /**
+     * Input stream over a byte buffer, which reads the buffer without copying it to the heap as a whole.
+     *
+     * Reading a mapping of a file truncated on the disk raises an {@link InternalError}, which is reported as an
+     * {@link IOException} of the read.
+     */
+    private class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            } catch (InternalError e) {
+                throw new IOException("File was changed while reading: " + path.toString(), e);
+            }
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            try {
+                buffer.get(bytes, offset, count);
+            } catch (InternalError e) {
+                throw new IOException("File was changed while reading: " + path.toString(), e);
+            }
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
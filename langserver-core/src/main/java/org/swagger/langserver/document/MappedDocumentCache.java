@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.swagger.langserver.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the mapped documents, bounded by the total size of the mapped content.
+ *
+ * Evicted documents are unmapped by the garbage collector once they are no longer referenced, since a mapping cannot
+ * be released explicitly.
+ */
+public class MappedDocumentCache {
+
+    /**
+     * System property of the memory budget of the mapped documents, in bytes.
+     */
+    public static final String BUDGET_PROPERTY = "swagger.ls.mappedBudget";
+
+    private static final long DEFAULT_BUDGET = 256L * 1024 * 1024;
+
+    private final long budget;
+
+    private final LinkedHashMap<Path, MappedDocument> documents = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long mappedBytes;
+
+    public MappedDocumentCache() {
+        this(Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param budget Maximum total size of the mapped content in bytes. The most recently used document is kept even
+     *               if it is larger than the budget
+     */
+    public MappedDocumentCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Get the mapped document of the given file, mapping the file if it is not mapped or changed on the disk.
+     *
+     * @param path                      Normalized path of the file
+     * @return {@link MappedDocument}   Mapped document
+     * @throws IOException              Error mapping the file
+     */
+    public MappedDocument get(Path path) throws IOException {
+        MappedDocument document;
+        synchronized (this) {
+            document = documents.get(path);
+            Metrics.recordLookup("mappedDocument", document != null);
+        }
+        // Check and map outside the lock, since both access the disk
+        if (document != null && document.isCurrent()) {
+            return document;
+        }
+        MappedDocument mapped = MappedDocument.map(path);
+        synchronized (this) {
+            MappedDocument existing = documents.get(path);
+            if (existing != null && existing != document) {
+                // Mapped by another thread meanwhile
+                return existing;
+            }
+            remove(path);
+            documents.put(path, mapped);
+            mappedBytes += mapped.getSize();
+            evict();
+            return mapped;
+        }
+    }
+
+    /**
+     * Drop the mapped document of the given file.
+     *
+     * @param path Normalized path of the file
+     */
+    public synchronized void invalidate(Path path) {
+        remove(path);
+    }
+
+    /**
+     * Get the statistics of the cache.
+     *
+     * @return {@link Map} Entry count, mapped size and the budget by name
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("entries", documents.size());
+        statistics.put("mappedBytes", mappedBytes);
+        statistics.put("budgetBytes", budget);
+        return statistics;
+    }
+
+    // Private methods
+
+    private void remove(Path path) {
+        MappedDocument removed = documents.remove(path);
+        if (removed != null) {
+            mappedBytes -= removed.getSize();
+        }
+    }
+
+    private void evict() {
+        int evicted = 0;
+        Iterator<Map.Entry<Path, MappedDocument>> iterator = documents.entrySet().iterator();
+        // The last entry is the most recently used one
+        while (mappedBytes > budget && documents.size() > 1 && iterator.hasNext()) {
+            mappedBytes -= iterator.next().getValue().getSize();
+            iterator.remove();
+            evicted++;
+        }
+        if (evicted > 0) {
+            Metrics.recordEvictions("mappedDocument", evicted);
+        }
+    }
+}
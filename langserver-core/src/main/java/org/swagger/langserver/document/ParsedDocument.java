@@ -0,0 +1,679 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.swagger.langserver.metrics.Metrics;
+import org.swagger.langserver.spec.SpecVersion;
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.composer.ComposerException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed model of a document version.
+ *
+ * The document is split in to blocks of lines which are parsed independently (see {@link DocumentBlock}), hence an
+ * edit only requires to reparse the blocks touched by the edit. The specification version and the validation
+ * messages of the document version are computed lazily and shared between the features requiring them.
+ *
+ * JSON documents are split the same way, at the members of the root object, and parsed with {@link JsonEventParser}.
+ * Hence the blocks of both formats carry the same node tree.
+ *
+ * An alias can refer to an anchor of another block, which the block parser does not see. A document with such an alias
+ * is parsed as a single block, hence each edit reparses the whole document.
+ */
+public class ParsedDocument {
+
+    /**
+     * Top level entries longer than this many lines are split in to a block per second level entry.
+     */
+    private static final int SPLIT_THRESHOLD = 100;
+
+    /**
+     * Estimated bytes retained per character of the document by the text and the parsed blocks. Measured with
+     * generated specs, where the node tree dominates since every scalar carries its marks.
+     */
+    private static final int TEXT_BYTES_PER_CHAR = 2;
+
+    private static final int BLOCK_BYTES_PER_CHAR = 24;
+
+    /**
+     * Length of the content prefix in which the format and the specification version of a mapped file are detected.
+     */
+    private static final int DETECTION_LENGTH = 4096;
+
+    /**
+     * Problem of the composer error raised for an alias without an anchor.
+     */
+    private static final String UNDEFINED_ALIAS = "found undefined alias";
+
+    /**
+     * Document snapshot of the parsed blocks. Null when the blocks have pending edits.
+     */
+    private final TextDocument document;
+
+    /**
+     * Mapped content of a document parsed from the disk, which is decoded again on demand instead of being retained.
+     */
+    private final MappedDocument source;
+
+    private final List<DocumentBlock> blocks;
+
+    private final Syntax syntax;
+
+    private volatile SpecVersion specVersion;
+
+    private volatile List<String> validationMessages;
+
+    private volatile Boolean syntaxErrors;
+
+    private ParsedDocument(TextDocument document, List<DocumentBlock> blocks, Syntax syntax) {
+        this(document, null, blocks, syntax);
+    }
+
+    private ParsedDocument(TextDocument document, MappedDocument source, List<DocumentBlock> blocks, Syntax syntax) {
+        this.document = document;
+        this.source = source;
+        this.blocks = blocks;
+        this.syntax = syntax;
+    }
+
+    /**
+     * Parse the given document.
+     *
+     * @param document                  Document snapshot
+     * @return {@link ParsedDocument}   Parsed document
+     */
+    public static ParsedDocument parse(TextDocument document) {
+        Syntax syntax = Syntax.of(document);
+        List<DocumentBlock> blocks = split(document, syntax, 0, document.getLineCount(), Collections.emptyList(),
+                0).blocks;
+        if (blocks.size() > 1 && hasUndefinedAlias(blocks)) {
+            blocks = Collections.singletonList(parseBlock(document, syntax, 0, document.getLineCount(),
+                    Collections.emptyList(), 0));
+        }
+        return new ParsedDocument(document, blocks, syntax);
+    }
+
+    /**
+     * Parse the mapped content of a file which is not open.
+     *
+     * The content is composed as a single block, streamed from the mapping, hence the model retains the node tree only.
+     * Such a document is not edited, so it does not benefit from the blocks.
+     *
+     * @param mapped                    Mapped document
+     * @return {@link ParsedDocument}   Parsed document of version -1
+     * @throws IOException              Error reading the mapped content
+     */
+    public static ParsedDocument parse(MappedDocument mapped) throws IOException {
+        StringBuilder prefix = new StringBuilder();
+        try (Reader reader = mapped.getReader()) {
+            char[] buffer = new char[DETECTION_LENGTH];
+            int count;
+            while (prefix.length() < DETECTION_LENGTH
+                    && (count = reader.read(buffer, 0, DETECTION_LENGTH - prefix.length())) >= 0) {
+                prefix.append(buffer, 0, count);
+            }
+        }
+        Syntax syntax = JsonEventParser.isJson(prefix) ? Syntax.JSON : Syntax.YAML;
+        int lineCount = mapped.getLineCount();
+        DocumentBlock block;
+        try (Reader reader = mapped.getReader()) {
+            Composer composer = new Composer(syntax.createParser(reader), new Resolver());
+            block = new DocumentBlock(0, lineCount, Collections.emptyList(), 0, composer.getSingleNode(), null, false);
+        } catch (YAMLException e) {
+            block = new DocumentBlock(0, lineCount, Collections.emptyList(), 0, null, e, false);
+        }
+        ParsedDocument parsed = new ParsedDocument(null, mapped, Collections.singletonList(block), syntax);
+        parsed.specVersion = SpecVersion.detect(prefix);
+        return parsed;
+    }
+
+    /**
+     * Get the document snapshot of the parsed model.
+     *
+     * The content of a document parsed from the disk is decoded on each call, hence the callers should not keep it.
+     *
+     * @return {@link TextDocument} Document snapshot
+     */
+    public TextDocument getDocument() {
+        if (source == null) {
+            return document;
+        }
+        StringBuilder content = new StringBuilder((int) source.getSize());
+        char[] buffer = new char[8192];
+        try (Reader reader = source.getReader()) {
+            int count;
+            while ((count = reader.read(buffer)) >= 0) {
+                content.append(buffer, 0, count);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new TextDocument(content.toString(), -1);
+    }
+
+    /**
+     * Get the document version of the parsed model.
+     *
+     * @return {@link Integer} Document version, -1 for a document parsed from the disk
+     */
+    public int getVersion() {
+        return source == null ? document.getVersion() : -1;
+    }
+
+    /**
+     * Check whether the document is in the JSON format.
+     *
+     * @return {@link Boolean} Whether the blocks are parsed as JSON
+     */
+    public boolean isJson() {
+        return syntax.json;
+    }
+
+    /**
+     * Get the blocks of the document in the order of the lines.
+     *
+     * @return {@link List} Document blocks
+     */
+    public List<DocumentBlock> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    /**
+     * Get the block containing the given line.
+     *
+     * @param line                  Zero based document line
+     * @return {@link DocumentBlock} Block containing the line or null if the line is out of the document
+     */
+    public DocumentBlock getBlock(int line) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            DocumentBlock block = blocks.get(mid);
+            if (block.contains(line)) {
+                return block;
+            } else if (line < block.getStartLine()) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the specification version of the document, detected from the version key on the first access.
+     *
+     * @return {@link SpecVersion} Specification version
+     */
+    public SpecVersion getSpecVersion() {
+        SpecVersion version = this.specVersion;
+        if (version == null) {
+            version = SpecVersion.detect(document);
+            this.specVersion = version;
+        }
+        return version;
+    }
+
+    /**
+     * Get the messages of the parser of the specification version, parsing the document on the first access.
+     *
+     * @return {@link List} Validation messages
+     */
+    public List<String> getValidationMessages() {
+        List<String> messages = this.validationMessages;
+        Metrics.recordLookup("validationMessages", messages != null);
+        if (messages == null) {
+            synchronized (this) {
+                messages = this.validationMessages;
+                if (messages == null) {
+                    messages = getSpecVersion().validate(getDocument().toString());
+                    this.validationMessages = messages;
+                }
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Check whether the document has syntax errors. A block can fail on text which is valid within the whole document
+     * (ex: a flow collection continued at the top level indent), hence block errors are confirmed by parsing the whole
+     * document on the first access.
+     *
+     * @return {@link Boolean} Whether the document fails to parse as a whole
+     */
+    public boolean hasSyntaxErrors() {
+        Boolean errors = this.syntaxErrors;
+        if (errors == null) {
+            errors = false;
+            for (DocumentBlock block : blocks) {
+                if (block.getError() != null) {
+                    errors = true;
+                    break;
+                }
+            }
+            if (errors && blocks.size() > 1) {
+                errors = parseBlock(document, syntax, 0, document.getLineCount(), Collections.emptyList(), 0)
+                        .getError() != null;
+            }
+            this.syntaxErrors = errors;
+        }
+        return errors;
+    }
+
+    /**
+     * Get the estimated heap size retained by the parsed model.
+     *
+     * @return {@link Long} Estimated size in bytes
+     */
+    public long getEstimatedSize() {
+        if (source != null) {
+            return source.getSize() * BLOCK_BYTES_PER_CHAR;
+        }
+        long length = document == null ? 0 : document.length();
+        return length * (TEXT_BYTES_PER_CHAR + BLOCK_BYTES_PER_CHAR);
+    }
+
+    /**
+     * Record an edit of the document. Blocks touched by the edit are marked for reparsing and the following blocks
+     * are shifted by the number of added or removed lines.
+     *
+     * @param startLine                 First line of the replaced range
+     * @param oldEndLine                Last line of the replaced range before the edit
+     * @param newEndLine                Last line of the inserted text after the edit
+     * @return {@link ParsedDocument}   Parsed document with the pending edit
+     */
+    public ParsedDocument applyEdit(int startLine, int oldEndLine, int newEndLine) {
+        int delta = newEndLine - oldEndLine;
+        List<DocumentBlock> updated = new ArrayList<>(blocks.size());
+        DocumentBlock dirtyRun = null;
+        for (int i = 0; i < blocks.size(); i++) {
+            DocumentBlock block = blocks.get(i);
+            if (block.getEndLine() <= startLine) {
+                updated.add(block);
+                continue;
+            }
+            if (block.getStartLine() > oldEndLine) {
+                if (dirtyRun != null) {
+                    updated.add(dirtyRun);
+                    dirtyRun = null;
+                }
+                updated.add(block.shift(delta));
+                continue;
+            }
+            if (dirtyRun == null) {
+                // When the first line of a block is edited, the block key might have been removed and the lines
+                // can belong to the previous block
+                DocumentBlock previous = updated.isEmpty() ? null : updated.get(updated.size() - 1);
+                if (previous != null && (previous.isDirty() || (block.getStartLine() == startLine
+                        && previous.getParentPath().equals(block.getParentPath())))) {
+                    block = updated.remove(updated.size() - 1);
+                }
+                dirtyRun = new DocumentBlock(block.getStartLine(), 0, block.getParentPath(), block.getIndent(),
+                        null, null, true);
+            }
+            dirtyRun = new DocumentBlock(dirtyRun.getStartLine(),
+                    blocks.get(i).getEndLine() + delta - dirtyRun.getStartLine(), dirtyRun.getParentPath(),
+                    dirtyRun.getIndent(), null, null, true);
+        }
+        if (dirtyRun != null) {
+            updated.add(dirtyRun);
+        }
+        return new ParsedDocument(null, updated, syntax);
+    }
+
+    /**
+     * Reparse the blocks with pending edits.
+     *
+     * @param updatedDocument           Document snapshot after the edits
+     * @return {@link ParsedDocument}   Up to date parsed document
+     */
+    public ParsedDocument reparse(TextDocument updatedDocument) {
+        if (this.document == updatedDocument) {
+            return this;
+        }
+        if (!Syntax.of(updatedDocument).equals(syntax)) {
+            // The edit changed the format or the indentation of the root members, hence the blocks do not apply
+            return parse(updatedDocument);
+        }
+        List<DocumentBlock> updated = new ArrayList<>(blocks.size());
+        int index = 0;
+        while (index < blocks.size()) {
+            DocumentBlock block = blocks.get(index);
+            if (!block.isDirty()) {
+                updated.add(block);
+                index++;
+                continue;
+            }
+            int start = block.getStartLine();
+            List<String> path = block.getParentPath();
+            int indent = block.getIndent();
+            boolean topLevel = path.isEmpty();
+            if (start > 0 && !updated.isEmpty() && !isBlockStart(updatedDocument, syntax, start, path, indent)) {
+                // The edit removed the key of the block, hence merge the lines with the previous block
+                DocumentBlock previous = updated.remove(updated.size() - 1);
+                start = previous.getStartLine();
+                path = previous.getParentPath();
+                indent = previous.getIndent();
+            }
+            int last = index;
+            if (topLevel) {
+                // Entries of a top level block are parsed along with it, even when its lines are merged with the
+                // entries of the previous top level block
+                last = skipChildBlocks(last);
+            }
+            SplitResult result = split(updatedDocument, syntax, start, blocks.get(last).getEndLine(), path,
+                    indent);
+            if (result.topLevelFound && skipChildBlocks(last) != last) {
+                // A new top level entry takes the following entries of the original top level block
+                last = skipChildBlocks(last);
+                result = split(updatedDocument, syntax, start, blocks.get(last).getEndLine(), path, indent);
+            }
+            updated.addAll(result.blocks);
+            index = last + 1;
+            if (index < blocks.size() && !isParentOf(updated.get(updated.size() - 1), blocks.get(index))) {
+                // The edit moved the following entries under another top level entry
+                return parse(updatedDocument);
+            }
+        }
+        if (updated.isEmpty() || updated.get(updated.size() - 1).getEndLine() != updatedDocument.getLineCount()
+                || hasUndefinedAlias(updated)) {
+            return parse(updatedDocument);
+        }
+        return new ParsedDocument(updatedDocument, updated, syntax);
+    }
+
+    // Private methods
+
+    private int skipChildBlocks(int index) {
+        int last = index;
+        while (last + 1 < blocks.size() && !blocks.get(last + 1).getParentPath().isEmpty()) {
+            last++;
+        }
+        return last;
+    }
+
+    /**
+     * Check whether the given block can precede the given block of the original blocks: a block with the same parent
+     * path or the header of the entries of the block.
+     */
+    private static boolean isParentOf(DocumentBlock previous, DocumentBlock next) {
+        if (next.getParentPath().isEmpty()) {
+            return true;
+        }
+        if (!previous.getParentPath().isEmpty()) {
+            return previous.getParentPath().equals(next.getParentPath());
+        }
+        String key = getFirstKey(previous.getNode());
+        return key != null && next.getParentPath().equals(Collections.singletonList(key));
+    }
+
+    /**
+     * Split the given range of lines in to blocks and parse them.
+     *
+     * @param document  Document snapshot
+     * @param syntax    Syntax of the document
+     * @param from      First line of the range
+     * @param to        Line after the last line of the range
+     * @param path      Parent path of the blocks, empty for top level blocks
+     * @param indent    Indentation of the block keys
+     * @return {@link SplitResult} Parsed blocks
+     */
+    private static SplitResult split(TextDocument document, Syntax syntax, int from, int to, List<String> path,
+                                     int indent) {
+        List<DocumentBlock> result = new ArrayList<>();
+        if (path.isEmpty()) {
+            int blockStart = from;
+            for (int line = from + 1; line < to; line++) {
+                if (isTopLevelStart(document, syntax, line)) {
+                    addTopLevelBlock(document, syntax, blockStart, line, result);
+                    blockStart = line;
+                }
+            }
+            addTopLevelBlock(document, syntax, blockStart, to, result);
+            return new SplitResult(result, false);
+        }
+
+        int blockStart = from;
+        for (int line = from + 1; line < to; line++) {
+            if (isTopLevelStart(document, syntax, line)) {
+                // Top level entry within the range of the entries of the previous top level entry
+                result.add(parseBlock(document, syntax, blockStart, line, path, indent));
+                result.addAll(split(document, syntax, line, to, Collections.emptyList(), 0).blocks);
+                return new SplitResult(result, true);
+            }
+            if (isBlockStart(document, syntax, line, path, indent)) {
+                result.add(parseBlock(document, syntax, blockStart, line, path, indent));
+                blockStart = line;
+            }
+        }
+        result.add(parseBlock(document, syntax, blockStart, to, path, indent));
+        return new SplitResult(result, false);
+    }
+
+    private static void addTopLevelBlock(TextDocument document, Syntax syntax, int start, int end,
+                                         List<DocumentBlock> result) {
+        if (end - start > SPLIT_THRESHOLD && isTopLevelStart(document, syntax, start)) {
+            int firstEntry = -1;
+            for (int line = start + 1; line < end; line++) {
+                int lineIndent = getIndent(document, line);
+                if (lineIndent < 0) {
+                    continue;
+                }
+                if (lineIndent > syntax.topLevelIndent
+                        && syntax.isKeyStart(document.charAt(document.getLineStart(line) + lineIndent))) {
+                    firstEntry = line;
+                }
+                break;
+            }
+            if (firstEntry > 0) {
+                DocumentBlock header = parseBlock(document, syntax, start, firstEntry, Collections.emptyList(), 0);
+                String key = getFirstKey(header.getNode());
+                if (key != null && syntax.canSplit((MappingNode) header.getNode())) {
+                    int entryIndent = getIndent(document, firstEntry);
+                    result.add(header);
+                    result.addAll(split(document, syntax, firstEntry, end, Collections.singletonList(key),
+                            entryIndent).blocks);
+                    return;
+                }
+            }
+        }
+        result.add(parseBlock(document, syntax, start, end, Collections.emptyList(), 0));
+    }
+
+    private static DocumentBlock parseBlock(TextDocument document, Syntax syntax, int start, int end,
+                                            List<String> path, int indent) {
+        TextDocumentReader reader = new TextDocumentReader(document, document.getLineStart(start),
+                document.getLineStart(end));
+        try {
+            Composer composer = new Composer(syntax.createParser(reader), new Resolver());
+            return new DocumentBlock(start, end - start, path, indent, composer.getSingleNode(), null, false);
+        } catch (YAMLException e) {
+            return new DocumentBlock(start, end - start, path, indent, null, e, false);
+        }
+    }
+
+    /**
+     * Check whether a block failed on an alias, of which the anchor can be declared in another block.
+     */
+    private static boolean hasUndefinedAlias(List<DocumentBlock> blocks) {
+        for (DocumentBlock block : blocks) {
+            YAMLException error = block.getError();
+            if (error instanceof ComposerException && ((ComposerException) error).getProblem() != null
+                    && ((ComposerException) error).getProblem().startsWith(UNDEFINED_ALIAS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getFirstKey(Node node) {
+        if (!(node instanceof MappingNode) || ((MappingNode) node).getValue().isEmpty()) {
+            return null;
+        }
+        NodeTuple tuple = ((MappingNode) node).getValue().get(0);
+        return tuple.getKeyNode() instanceof ScalarNode ? ((ScalarNode) tuple.getKeyNode()).getValue() : null;
+    }
+
+    private static boolean isBlockStart(TextDocument document, Syntax syntax, int line, List<String> path,
+                                        int indent) {
+        if (path.isEmpty()) {
+            return isTopLevelStart(document, syntax, line);
+        }
+        return getIndent(document, line) == indent
+                && syntax.isKeyStart(document.charAt(document.getLineStart(line) + indent));
+    }
+
+    private static boolean isTopLevelStart(TextDocument document, Syntax syntax, int line) {
+        if (syntax.json) {
+            return syntax.topLevelIndent >= 0 && getIndent(document, line) == syntax.topLevelIndent
+                    && document.charAt(document.getLineStart(line) + syntax.topLevelIndent) == '"';
+        }
+        int lineStart = document.getLineStart(line);
+        return lineStart < document.getLineEnd(line) && isKeyStart(document.charAt(lineStart));
+    }
+
+    /**
+     * Get the indentation of the given line.
+     *
+     * @return {@link Integer} Indentation or -1 if the line is empty or a comment
+     */
+    private static int getIndent(TextDocument document, int line) {
+        int lineStart = document.getLineStart(line);
+        int lineEnd = document.getLineEnd(line);
+        for (int offset = lineStart; offset < lineEnd; offset++) {
+            char c = document.charAt(offset);
+            if (c == '#') {
+                return -1;
+            } else if (c != ' ') {
+                return offset - lineStart;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isKeyStart(char c) {
+        switch (c) {
+            case ' ':
+            case '\t':
+            case '\r':
+            case '#':
+            case '-':
+            case '.':
+            case ',':
+            case ']':
+            case '}':
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Syntax of the lines starting the blocks: YAML keys at the start of a line, or the members of the root object of
+     * a JSON document at the indentation of the first member. A minified JSON document is a single block.
+     */
+    private static final class Syntax {
+        private static final Syntax YAML = new Syntax(false, 0);
+        private static final Syntax JSON = new Syntax(true, -1);
+
+        private final boolean json;
+        private final int topLevelIndent;
+
+        private Syntax(boolean json, int topLevelIndent) {
+            this.json = json;
+            this.topLevelIndent = topLevelIndent;
+        }
+
+        private static Syntax of(TextDocument document) {
+            if (!JsonEventParser.isJson(document)) {
+                return YAML;
+            }
+            for (int line = 0; line < document.getLineCount(); line++) {
+                int indent = getIndent(document, line);
+                if (indent < 0) {
+                    continue;
+                }
+                char c = document.charAt(document.getLineStart(line) + indent);
+                if (c == '"') {
+                    return new Syntax(true, indent);
+                } else if (c != '{') {
+                    break;
+                }
+            }
+            return JSON;
+        }
+
+        private boolean isKeyStart(char c) {
+            return json ? c == '"' : ParsedDocument.isKeyStart(c);
+        }
+
+        private Parser createParser(Reader reader) {
+            return json ? new JsonEventParser(reader, true) : new ParserImpl(new StreamReader(reader));
+        }
+
+        /**
+         * Check whether the entries of a top level entry can be parsed as separate blocks. The value of a JSON
+         * member is enclosed in braces, hence only the members of an object can be split.
+         */
+        private boolean canSplit(MappingNode header) {
+            return !json || header.getValue().get(0).getValueNode() instanceof MappingNode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Syntax)) {
+                return false;
+            }
+            Syntax syntax = (Syntax) o;
+            return json == syntax.json && topLevelIndent == syntax.topLevelIndent;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Boolean.hashCode(json) + topLevelIndent;
+        }
+    }
+
+    private static class SplitResult {
+        private final List<DocumentBlock> blocks;
+        private final boolean topLevelFound;
+
+        private SplitResult(List<DocumentBlock> blocks, boolean topLevelFound) {
+            this.blocks = blocks;
+            this.topLevelFound = topLevelFound;
+        }
+    }
+}
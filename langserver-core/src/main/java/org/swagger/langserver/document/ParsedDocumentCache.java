@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.swagger.langserver.metrics.Metrics;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the parsed documents, bounded by the estimated retained size of the entries.
+ *
+ * An entry is valid for a single identity of the document content: the {@link TextDocument} snapshot of an open
+ * document, or the {@link MappedDocument} of a closed file. Entries of the open documents are pinned, hence they
+ * count towards the budget but are never evicted. The budget is a soft limit, which can be exceeded by the pinned
+ * entries and by the most recently used entry.
+ *
+ * Entries are keyed by the owner and the path of the document. The owner of an open document is the session which
+ * opened it, hence the sessions of a process sharing the cache never evict or unpin the entries of each other, while
+ * the entries of the disk content have no owner and are shared by the sessions.
+ */
+public class ParsedDocumentCache {
+
+    /**
+     * System property of the budget of the parsed documents, in bytes.
+     */
+    public static final String BUDGET_PROPERTY = "swagger.ls.parsedBudget";
+
+    private static final long DEFAULT_BUDGET = 128L * 1024 * 1024;
+
+    private static final String CACHE_NAME = "parsedDocument";
+
+    private final long budget;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long retainedBytes;
+
+    private long pinnedBytes;
+
+    public ParsedDocumentCache() {
+        this(Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET));
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param budget Soft limit of the estimated retained size in bytes
+     */
+    public ParsedDocumentCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Get the parsed document of the given content identity.
+     *
+     * @param owner                     Session owning the open document, or null for the disk content
+     * @param path                      Canonical path of the document
+     * @param identity                  Current identity of the document content
+     * @return {@link ParsedDocument}   Parsed document or null if it is not cached for the identity
+     */
+    public synchronized ParsedDocument get(Object owner, Path path, Object identity) {
+        Entry entry = entries.get(new Key(owner, path));
+        boolean hit = entry != null && entry.identity == identity;
+        Metrics.recordLookup(CACHE_NAME, hit);
+        if (!hit) {
+            return null;
+        }
+        // The Swagger model may have been computed since the entry was added
+        resize(entry);
+        return entry.parsed;
+    }
+
+    /**
+     * Add the parsed document of the given content identity, replacing any entry of the document.
+     *
+     * @param owner     Session owning the open document, or null for the disk content
+     * @param path      Canonical path of the document
+     * @param identity  Identity of the parsed content
+     * @param parsed    Parsed document
+     * @param pinned    Whether the entry must not be evicted
+     */
+    public synchronized void put(Object owner, Path path, Object identity, ParsedDocument parsed, boolean pinned) {
+        Key key = new Key(owner, path);
+        remove(key);
+        Entry entry = new Entry(identity, parsed, pinned);
+        entries.put(key, entry);
+        account(entry, entry.size);
+        evict();
+    }
+
+    /**
+     * Drop the entry of the given document.
+     *
+     * @param owner Session owning the open document, or null for the disk content
+     * @param path  Canonical path of the document
+     */
+    public synchronized void invalidate(Object owner, Path path) {
+        remove(new Key(owner, path));
+    }
+
+    /**
+     * Get the statistics of the cache.
+     *
+     * @return {@link Map} Entry count, estimated sizes and the budget by name
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("entries", entries.size());
+        statistics.put("retainedBytes", retainedBytes);
+        statistics.put("pinnedBytes", pinnedBytes);
+        statistics.put("budgetBytes", budget);
+        return statistics;
+    }
+
+    // Private methods
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            account(removed, -removed.size);
+        }
+    }
+
+    private void resize(Entry entry) {
+        long size = entry.parsed.getEstimatedSize();
+        if (size != entry.size) {
+            account(entry, size - entry.size);
+            entry.size = size;
+            evict();
+        }
+    }
+
+    private void account(Entry entry, long delta) {
+        retainedBytes += delta;
+        if (entry.pinned) {
+            pinnedBytes += delta;
+        }
+    }
+
+    private void evict() {
+        int evicted = 0;
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        // Stop before the last entry, which is the most recently used one
+        for (int remaining = entries.size(); retainedBytes > budget && remaining > 1; remaining--) {
+            Entry entry = iterator.next().getValue();
+            if (!entry.pinned) {
+                account(entry, -entry.size);
+                iterator.remove();
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            Metrics.recordEvictions(CACHE_NAME, evicted);
+        }
+    }
+
+    private static class Entry {
+        private final Object identity;
+        private final ParsedDocument parsed;
+        private final boolean pinned;
+        private long size;
+
+        private Entry(Object identity, ParsedDocument parsed, boolean pinned) {
+            this.identity = identity;
+            this.parsed = parsed;
+            this.size = parsed.getEstimatedSize();
+            this.pinned = pinned;
+        }
+    }
+
+    private static final class Key {
+        private final Object owner;
+        private final Path path;
+
+        private Key(Object owner, Path path) {
+            this.owner = owner;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return owner == key.owner && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + path.hashCode();
+        }
+    }
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of an open document, backed by a piece table with a line index.
+ *
+ * Each piece refers to a range of an immutable buffer (the text sent with didOpen or the text of a change event),
+ * hence applying an edit never copies the unchanged content of the document. Applying an edit returns a new snapshot
+ * and the previous snapshot stays valid, so readers can keep using a snapshot while the document is being edited.
+ *
+ * The line index is split to chunks in the same way. An edit copies the chunks of the edited lines only, and the
+ * following chunks are shared with the previous snapshot along with the shift of their offsets.
+ */
+public class TextDocument implements CharSequence {
+
+    /**
+     * When the number of pieces grows beyond this limit, the pieces are flattened to a single buffer in order to keep
+     * the character lookups cheap.
+     */
+    private static final int MAX_PIECES = 512;
+
+    /**
+     * Number of lines of a chunk of the line index. A chunk which grows to twice the size is split.
+     */
+    private static final int LINE_CHUNK_SIZE = 1024;
+
+    private final Piece[] pieces;
+
+    /**
+     * Start offset of each piece within the document, used to binary search the piece of a given offset.
+     */
+    private final int[] pieceOffsets;
+
+    /**
+     * Start offsets of the lines within the document, in chunks of consecutive lines. First offset is always zero.
+     */
+    private final LineChunk[] lineChunks;
+
+    /**
+     * First line of each line chunk, used to binary search the chunk of a given line.
+     */
+    private final int[] chunkLines;
+
+    private final int lineCount;
+
+    private final int length;
+
+    private final int version;
+
+    private volatile String text;
+
+    public TextDocument(String content, int version) {
+        this(toPieces(content), toLineChunks(computeLineOffsets(content)), version);
+        this.text = content;
+    }
+
+    private TextDocument(Piece[] pieces, LineChunk[] lineChunks, int version) {
+        this.pieces = pieces;
+        this.lineChunks = lineChunks;
+        this.version = version;
+        this.chunkLines = new int[lineChunks.length];
+        int lines = 0;
+        for (int i = 0; i < lineChunks.length; i++) {
+            this.chunkLines[i] = lines;
+            lines += lineChunks[i].offsets.length;
+        }
+        this.lineCount = lines;
+        this.pieceOffsets = new int[pieces.length];
+        int offset = 0;
+        for (int i = 0; i < pieces.length; i++) {
+            this.pieceOffsets[i] = offset;
+            offset += pieces[i].length;
+        }
+        this.length = offset;
+    }
+
+    /**
+     * Apply the given content change and get the resulting document.
+     *
+     * @param change                Content change received from the client
+     * @param newVersion            Version of the document after the change
+     * @return {@link TextDocument} Updated document
+     */
+    public TextDocument applyChange(TextDocumentContentChangeEvent change, int newVersion) {
+        Range range = change.getRange();
+        String newText = change.getText();
+        if (range == null) {
+            // Full content sync
+            return new TextDocument(newText, newVersion);
+        }
+        int start = this.getOffset(range.getStart());
+        int end = Math.max(start, this.getOffset(range.getEnd()));
+
+        return new TextDocument(replacePieces(start, end, newText), replaceLineOffsets(start, end, newText),
+                newVersion).compactIfRequired();
+    }
+
+    /**
+     * Get the document version.
+     *
+     * @return {@link Integer} Version of the document
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the number of lines in the document.
+     *
+     * @return {@link Integer} Line count
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Get the start offset of the given line.
+     *
+     * @param line              Zero based line number
+     * @return {@link Integer}  Offset of the first character of the line
+     */
+    public int getLineStart(int line) {
+        if (line >= lineCount) {
+            return length;
+        }
+        return lineOffset(Math.max(line, 0));
+    }
+
+    /**
+     * Get the end offset of the given line, excluding the line terminator.
+     *
+     * @param line              Zero based line number
+     * @return {@link Integer}  Offset after the last character of the line
+     */
+    public int getLineEnd(int line) {
+        if (line + 1 >= lineCount) {
+            return length;
+        }
+        int end = lineOffset(line + 1) - 1;
+        if (end > lineOffset(line) && charAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Get the content of the given line, excluding the line terminator.
+     *
+     * @param line              Zero based line number
+     * @return {@link String}   Line content
+     */
+    public String getLine(int line) {
+        if (line < 0 || line >= lineCount) {
+            return "";
+        }
+        return subSequence(getLineStart(line), getLineEnd(line)).toString();
+    }
+
+    /**
+     * Convert the given position to an offset within the document.
+     * Positions beyond the end of a line are clamped to the line end.
+     *
+     * @param position          Position to convert
+     * @return {@link Integer}  Offset of the position
+     */
+    public int getOffset(Position position) {
+        int line = position.getLine();
+        if (line < 0) {
+            return 0;
+        }
+        if (line >= lineCount) {
+            return length;
+        }
+        int lineStart = lineOffset(line);
+        return Math.min(lineStart + Math.max(position.getCharacter(), 0), getLineEnd(line));
+    }
+
+    /**
+     * Convert the given offset to a position within the document.
+     *
+     * @param offset                Offset to convert
+     * @return {@link Position}     Position of the offset
+     */
+    public Position getPosition(int offset) {
+        int clamped = Math.max(0, Math.min(offset, length));
+        int line = lineUpperBound(clamped) - 1;
+        return new Position(line, clamped - lineOffset(line));
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        int pieceIndex = findPiece(index);
+        Piece piece = pieces[pieceIndex];
+        return piece.buffer.charAt(piece.start + index - pieceOffsets[pieceIndex]);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Start: " + start + ", End: " + end + ", Length: " + length);
+        }
+        String cached = this.text;
+        if (cached != null) {
+            return cached.substring(start, end);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        appendRange(builder, start, end);
+        return builder.toString();
+    }
+
+    /**
+     * Copy the characters of the given range to the destination array.
+     *
+     * @param start             Start offset of the range
+     * @param end               End offset of the range (exclusive)
+     * @param destination       Destination array
+     * @param destinationStart  Start index within the destination array
+     */
+    public void getChars(int start, int end, char[] destination, int destinationStart) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Start: " + start + ", End: " + end + ", Length: " + length);
+        }
+        int offset = start;
+        int index = destinationStart;
+        int pieceIndex = start == end ? pieces.length : findPiece(start);
+        while (offset < end) {
+            Piece piece = pieces[pieceIndex];
+            int pieceStart = offset - pieceOffsets[pieceIndex];
+            int count = Math.min(piece.length - pieceStart, end - offset);
+            piece.buffer.getChars(piece.start + pieceStart, piece.start + pieceStart + count, destination, index);
+            offset += count;
+            index += count;
+            pieceIndex++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String cached = this.text;
+        if (cached == null) {
+            StringBuilder builder = new StringBuilder(length);
+            appendRange(builder, 0, length);
+            cached = builder.toString();
+            this.text = cached;
+        }
+        return cached;
+    }
+
+    // Private methods
+
+    private int findPiece(int offset) {
+        int index = Arrays.binarySearch(pieceOffsets, offset);
+        return index < 0 ? -index - 2 : index;
+    }
+
+    private void appendRange(StringBuilder builder, int start, int end) {
+        if (start == end) {
+            return;
+        }
+        int pieceIndex = findPiece(start);
+        int offset = start;
+        while (offset < end) {
+            Piece piece = pieces[pieceIndex];
+            int pieceStart = offset - pieceOffsets[pieceIndex];
+            int count = Math.min(piece.length - pieceStart, end - offset);
+            builder.append(piece.buffer, piece.start + pieceStart, piece.start + pieceStart + count);
+            offset += count;
+            pieceIndex++;
+        }
+    }
+
+    private Piece[] replacePieces(int start, int end, String newText) {
+        Piece[] result = new Piece[pieces.length + 2];
+        int count = 0;
+        boolean inserted = false;
+        for (int i = 0; i < pieces.length; i++) {
+            Piece piece = pieces[i];
+            int pieceStart = pieceOffsets[i];
+            int pieceEnd = pieceStart + piece.length;
+            if (pieceEnd <= start || (inserted && pieceStart >= end)) {
+                result[count++] = piece;
+                continue;
+            }
+            if (pieceStart < start) {
+                result[count++] = new Piece(piece.buffer, piece.start, start - pieceStart);
+            }
+            if (!inserted) {
+                if (!newText.isEmpty()) {
+                    result[count++] = new Piece(newText, 0, newText.length());
+                }
+                inserted = true;
+            }
+            if (pieceEnd > end) {
+                int from = Math.max(end, pieceStart);
+                result[count++] = new Piece(piece.buffer, piece.start + from - pieceStart, pieceEnd - from);
+            }
+        }
+        if (!inserted && !newText.isEmpty()) {
+            // Insertion at the end of the document
+            result[count++] = new Piece(newText, 0, newText.length());
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private int lineOffset(int line) {
+        int chunk = upperBound(chunkLines, line) - 1;
+        return lineChunks[chunk].get(line - chunkLines[chunk]);
+    }
+
+    /**
+     * Get the index of the first line which starts after the given offset.
+     */
+    private int lineUpperBound(int offset) {
+        int low = 0;
+        int high = lineChunks.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lineChunks[mid].get(0) <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // The first line starts at zero, hence a chunk is always found
+        LineChunk chunk = lineChunks[low - 1];
+        return chunkLines[low - 1] + upperBound(chunk.offsets, offset - chunk.shift);
+    }
+
+    private LineChunk[] replaceLineOffsets(int start, int end, String newText) {
+        // Line starts in the range (start, end] are removed, since their line terminators are deleted
+        int firstRemoved = lineUpperBound(start);
+        int lastRemoved = lineUpperBound(end);
+        int delta = newText.length() - (end - start);
+
+        // Chunks of the last kept line before the edit and of the last removed line are rebuilt
+        int firstChunk = upperBound(chunkLines, firstRemoved - 1) - 1;
+        int lastChunk = upperBound(chunkLines, lastRemoved - 1) - 1;
+        int chunkEnd = lastChunk + 1 < lineChunks.length ? chunkLines[lastChunk + 1] : lineCount;
+
+        int insertedLines = 0;
+        for (int i = 0; i < newText.length(); i++) {
+            if (newText.charAt(i) == '\n') {
+                insertedLines++;
+            }
+        }
+        int[] rebuilt = new int[firstRemoved - chunkLines[firstChunk] + insertedLines + chunkEnd - lastRemoved];
+        int index = 0;
+        for (int line = chunkLines[firstChunk]; line < firstRemoved; line++) {
+            rebuilt[index++] = lineOffset(line);
+        }
+        for (int i = 0; i < newText.length(); i++) {
+            if (newText.charAt(i) == '\n') {
+                rebuilt[index++] = start + i + 1;
+            }
+        }
+        for (int line = lastRemoved; line < chunkEnd; line++) {
+            rebuilt[index++] = lineOffset(line) + delta;
+        }
+
+        LineChunk[] rebuiltChunks = toLineChunks(rebuilt);
+        LineChunk[] result = new LineChunk[firstChunk + rebuiltChunks.length + lineChunks.length - lastChunk - 1];
+        System.arraycopy(lineChunks, 0, result, 0, firstChunk);
+        System.arraycopy(rebuiltChunks, 0, result, firstChunk, rebuiltChunks.length);
+        index = firstChunk + rebuiltChunks.length;
+        for (int i = lastChunk + 1; i < lineChunks.length; i++) {
+            result[index++] = lineChunks[i].shift(delta);
+        }
+        return result;
+    }
+
+    /**
+     * Get the index of the first element which is greater than the given value.
+     */
+    private static int upperBound(int[] values, int value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private TextDocument compactIfRequired() {
+        if (pieces.length <= MAX_PIECES) {
+            return this;
+        }
+        String content = toString();
+        // The line index is rebalanced as well, since the edits can leave small chunks behind
+        TextDocument compacted = new TextDocument(toPieces(content), toLineChunks(computeLineOffsets(content)),
+                this.version);
+        compacted.text = content;
+        return compacted;
+    }
+
+    private static Piece[] toPieces(String content) {
+        return content.isEmpty() ? new Piece[0] : new Piece[]{new Piece(content, 0, content.length())};
+    }
+
+    private static int[] computeLineOffsets(String content) {
+        int lines = 1;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        int[] offsets = new int[lines];
+        int index = 1;
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\n') {
+                offsets[index++] = i + 1;
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Split the given line offsets to chunks. The offsets are split to chunks of the regular size only if they exceed
+     * twice the size, hence a rebuilt chunk is not split on every edit.
+     */
+    private static LineChunk[] toLineChunks(int[] offsets) {
+        if (offsets.length < 2 * LINE_CHUNK_SIZE) {
+            return new LineChunk[]{new LineChunk(offsets, 0)};
+        }
+        LineChunk[] chunks = new LineChunk[(offsets.length + LINE_CHUNK_SIZE - 1) / LINE_CHUNK_SIZE];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new LineChunk(Arrays.copyOfRange(offsets, i * LINE_CHUNK_SIZE,
+                    Math.min(offsets.length, (i + 1) * LINE_CHUNK_SIZE)), 0);
+        }
+        return chunks;
+    }
+
+    /**
+     * Start offsets of consecutive lines, shared between the snapshots. The shift is added to each offset, hence the
+     * lines following an edit are moved without copying the offsets.
+     */
+    private static class LineChunk {
+        private final int[] offsets;
+        private final int shift;
+
+        private LineChunk(int[] offsets, int shift) {
+            this.offsets = offsets;
+            this.shift = shift;
+        }
+
+        private int get(int index) {
+            return offsets[index] + shift;
+        }
+
+        private LineChunk shift(int delta) {
+            return delta == 0 ? this : new LineChunk(offsets, shift + delta);
+        }
+    }
+
+    /**
+     * A range within an immutable buffer.
+     */
+    private static class Piece {
+        private final String buffer;
+        private final int start;
+        private final int length;
+
+        private Piece(String buffer, int start, int length) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+        }
+    }
+}
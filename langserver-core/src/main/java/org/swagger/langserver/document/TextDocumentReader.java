@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import java.io.Reader;
+
+/**
+ * Reader over a range of a document snapshot, which reads directly from the document pieces.
+ *
+ * Optionally, a range of the document can be masked, in which case the non whitespace characters of the range are
+ * read as spaces. This allows to hide the partially typed content at the cursor from the parsers, without copying
+ * the document.
+ */
+public class TextDocumentReader extends Reader {
+
+    private final TextDocument document;
+
+    private final int end;
+
+    private final int maskStart;
+
+    private final int maskEnd;
+
+    private int position;
+
+    public TextDocumentReader(TextDocument document, int start, int end) {
+        this(document, start, end, -1, -1);
+    }
+
+    public TextDocumentReader(TextDocument document, int start, int end, int maskStart, int maskEnd) {
+        this.document = document;
+        this.position = start;
+        this.end = end;
+        this.maskStart = maskStart;
+        this.maskEnd = maskEnd;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        if (position >= end) {
+            return -1;
+        }
+        int count = Math.min(length, end - position);
+        document.getChars(position, position + count, buffer, offset);
+        int from = Math.max(position, maskStart);
+        int to = Math.min(position + count, maskEnd);
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(buffer[offset + i - position])) {
+                buffer[offset + i - position] = ' ';
+            }
+        }
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, since the document snapshot is immutable
+    }
+}
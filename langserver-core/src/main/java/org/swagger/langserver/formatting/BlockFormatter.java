@@ -0,0 +1,739 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.formatting;
+
+import org.swagger.langserver.completion.ContentParserUtil;
+import org.swagger.langserver.document.DocumentBlock;
+import org.swagger.langserver.document.TextDocument;
+import org.swagger.langserver.document.TextDocumentReader;
+import org.swagger.langserver.spec.SpecVersion;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats a document block by emitting it again from the stream of parser events.
+ *
+ * Mappings and sequences are indented by the tab size, and the keys of the specification objects are put in the
+ * order of the specification. Scalars, flow collections and comments are copied from the source, hence the quoting
+ * and the content of the values are kept as they are. Only a mapping is buffered to reorder its entries, while the
+ * rest of the block is emitted as the events are read.
+ *
+ * Blocks using the YAML features which cannot be emitted from the events without losing content (ex: explicit
+ * documents, complex keys, anchors of collections) are not formatted. A formatted block is parsed again and compared
+ * with the original node, so that formatting never changes the content of a block.
+ */
+final class BlockFormatter {
+
+    /**
+     * Field path entry of an item within a sequence, as resolved by the model type graph.
+     */
+    private static final String SEQUENCE_ITEM = "-";
+
+    /**
+     * Key order of the specification objects, keyed by the model type name.
+     */
+    private static final Map<String, List<String>> KEY_ORDERS = new HashMap<>();
+
+    /**
+     * Maximum nesting depth compared when verifying a formatted block.
+     */
+    private static final int MAX_COMPARE_DEPTH = 256;
+
+    static {
+        List<String> schema = Arrays.asList("$ref", "title", "description", "type", "format", "required", "enum",
+                "default", "multipleOf", "maximum", "exclusiveMaximum", "minimum", "exclusiveMinimum", "maxLength",
+                "minLength", "pattern", "maxItems", "minItems", "uniqueItems", "maxProperties", "minProperties",
+                "items", "allOf", "properties", "additionalProperties", "discriminator", "readOnly", "xml",
+                "externalDocs", "example");
+        KEY_ORDERS.put("Model", schema);
+        KEY_ORDERS.put("Property", schema);
+        KEY_ORDERS.put("Schema", Arrays.asList("$ref", "title", "description", "type", "format", "required",
+                "enum", "default", "nullable", "multipleOf", "maximum", "exclusiveMaximum", "minimum",
+                "exclusiveMinimum", "maxLength", "minLength", "pattern", "maxItems", "minItems", "uniqueItems",
+                "maxProperties", "minProperties", "items", "allOf", "oneOf", "anyOf", "not", "properties",
+                "additionalProperties", "discriminator", "readOnly", "writeOnly", "deprecated", "xml",
+                "externalDocs", "example"));
+        KEY_ORDERS.put("Components", Arrays.asList("schemas", "responses", "parameters", "examples",
+                "requestBodies", "headers", "securitySchemes", "links", "callbacks"));
+        KEY_ORDERS.put("Info", Arrays.asList("title", "description", "termsOfService", "contact", "license",
+                "version"));
+        KEY_ORDERS.put("Contact", Arrays.asList("name", "url", "email"));
+        KEY_ORDERS.put("License", Arrays.asList("name", "url"));
+        KEY_ORDERS.put("Path", Arrays.asList("$ref", "get", "put", "post", "delete", "options", "head", "patch",
+                "parameters"));
+        KEY_ORDERS.put("PathItem", Arrays.asList("$ref", "summary", "description", "get", "put", "post", "delete",
+                "options", "head", "patch", "trace", "servers", "parameters"));
+        // Operations and parameters share the model type names between the versions, hence the orders hold the
+        // fields of both versions
+        KEY_ORDERS.put("Operation", Arrays.asList("tags", "summary", "description", "externalDocs", "operationId",
+                "consumes", "produces", "parameters", "requestBody", "responses", "callbacks", "schemes",
+                "deprecated", "security", "servers"));
+        KEY_ORDERS.put("Parameter", Arrays.asList("$ref", "name", "in", "description", "required", "deprecated",
+                "allowEmptyValue", "style", "explode", "allowReserved", "schema", "type", "format", "items",
+                "collectionFormat", "default", "maximum", "exclusiveMaximum", "minimum", "exclusiveMinimum",
+                "maxLength", "minLength", "pattern", "maxItems", "minItems", "uniqueItems", "enum", "multipleOf",
+                "example", "examples", "content"));
+        KEY_ORDERS.put("Response", Arrays.asList("$ref", "description", "schema", "headers", "examples"));
+        KEY_ORDERS.put("ApiResponse", Arrays.asList("$ref", "description", "headers", "content", "links"));
+        KEY_ORDERS.put("RequestBody", Arrays.asList("$ref", "description", "content", "required"));
+        KEY_ORDERS.put("MediaType", Arrays.asList("schema", "example", "examples", "encoding"));
+        KEY_ORDERS.put("Tag", Arrays.asList("name", "description", "externalDocs"));
+        KEY_ORDERS.put("ExternalDocs", Arrays.asList("description", "url"));
+        KEY_ORDERS.put("ExternalDocumentation", Arrays.asList("description", "url"));
+        KEY_ORDERS.put("Server", Arrays.asList("url", "description", "variables"));
+        KEY_ORDERS.put("SecuritySchemeDefinition", Arrays.asList("type", "description", "name", "in", "flow",
+                "authorizationUrl", "tokenUrl", "scopes"));
+        KEY_ORDERS.put("SecurityScheme", Arrays.asList("$ref", "type", "description", "name", "in", "scheme",
+                "bearerFormat", "flows", "openIdConnectUrl"));
+    }
+
+    private final TextDocument document;
+
+    private final DocumentBlock block;
+
+    private final SpecVersion version;
+
+    private final int tabSize;
+
+    private final int blockEnd;
+
+    private final Parser parser;
+
+    /**
+     * Comments and blank lines read since the last emitted node, waiting for the node they precede.
+     */
+    private final List<Gap> pending = new ArrayList<>();
+
+    /**
+     * Document offset after the last read event.
+     */
+    private int previousEnd;
+
+    /**
+     * Whether the comment on the line of the last read event has been emitted along with the event.
+     */
+    private boolean trailingConsumed;
+
+    private BlockFormatter(TextDocument document, DocumentBlock block, SpecVersion version, int tabSize) {
+        this.document = document;
+        this.block = block;
+        this.version = version;
+        this.tabSize = tabSize;
+        this.previousEnd = document.getLineStart(block.getStartLine());
+        this.blockEnd = document.getLineStart(block.getEndLine());
+        this.parser = new ParserImpl(new StreamReader(new TextDocumentReader(document, this.previousEnd,
+                this.blockEnd)));
+    }
+
+    /**
+     * Format a block of a document.
+     *
+     * @param document          Document snapshot
+     * @param block             Parsed block of the document
+     * @param version           Specification version of the document, deciding the key order
+     * @param tabSize           Number of spaces per indentation level
+     * @return {@link List}     Formatted lines of the block, or null if the block cannot be formatted
+     */
+    static List<String> format(TextDocument document, DocumentBlock block, SpecVersion version, int tabSize) {
+        if (block.getNode() == null) {
+            return null;
+        }
+        try {
+            List<String> lines = new BlockFormatter(document, block, version, tabSize).formatBlock();
+            boolean changed = lines.size() != block.getLineCount();
+            for (int i = 0; i < lines.size() && !changed; i++) {
+                changed = !lines.get(i).equals(document.getLine(block.getStartLine() + i));
+            }
+            // A block followed by another one ends with a line break, which is a part of a trailing block scalar
+            boolean terminated = block.getEndLine() < document.getLineCount();
+            return !changed || isEquivalent(block.getNode(), compose(lines, terminated), 0) ? lines : null;
+        } catch (UnsupportedContentException | YAMLException e) {
+            return null;
+        }
+    }
+
+    // Private methods
+
+    private List<String> formatBlock() {
+        expect(readEvent(), Event.ID.StreamStart);
+        Event documentStart = readEvent();
+        expect(documentStart, Event.ID.DocumentStart);
+        if (((DocumentStartEvent) documentStart).getExplicit()) {
+            throw new UnsupportedContentException();
+        }
+        Event root = readEvent();
+        if (!root.is(Event.ID.MappingStart) || ((CollectionStartEvent) root).isFlow() || hasProperties(root)) {
+            throw new UnsupportedContentException();
+        }
+        int column = tabSize * block.getParentPath().size();
+        int rootColumn = root.getStartMark().getColumn();
+        List<String> lines = formatMapping(root, column, new ArrayList<>(block.getParentPath())).lines;
+        Event documentEnd = readEvent();
+        expect(documentEnd, Event.ID.DocumentEnd);
+        if (getOffset(documentEnd.getEndMark()) > getOffset(documentEnd.getStartMark())) {
+            throw new UnsupportedContentException();
+        }
+        expect(readEvent(), Event.ID.StreamEnd);
+
+        // Comments and blank lines after the last entry, where the comments less indented than the block entries
+        // precede the next top level entry
+        boolean blank = false;
+        for (Gap gap : pending) {
+            if (gap.comment == null) {
+                blank = true;
+                continue;
+            }
+            if (blank) {
+                lines.add("");
+                blank = false;
+            }
+            lines.add(spaces(gap.column < rootColumn ? 0 : column) + gap.comment);
+        }
+        boolean lastBlock = block.getEndLine() >= document.getLineCount();
+        if (lastBlock ? document.length() > 0 && document.getLineStart(document.getLineCount() - 1)
+                == document.length() : blank) {
+            lines.add("");
+        }
+        return lines;
+    }
+
+    private Lines formatMapping(Event start, int column, List<String> path) {
+        int originalColumn = start.getStartMark().getColumn();
+        List<String> order = KEY_ORDERS.get(ContentParserUtil.getModelTypeName(version, path));
+        List<Entry> entries = new ArrayList<>();
+        int rank = -1;
+        for (Event event = readEvent(); !event.is(Event.ID.MappingEnd); event = readEvent()) {
+            if (!event.is(Event.ID.Scalar)) {
+                throw new UnsupportedContentException();
+            }
+            ScalarEvent key = (ScalarEvent) event;
+            // Unknown keys (ex: extensions) stay after the key preceding them
+            int index = order == null ? -1 : order.indexOf(key.getValue());
+            rank = index >= 0 ? index : rank;
+            Entry entry = new Entry(takePending(column), rank);
+            formatEntry(entry.body, key, column, path);
+            entries.add(entry);
+        }
+        if (order != null) {
+            entries.sort(Comparator.comparingInt(entry -> entry.rank));
+        }
+        Lines result = new Lines();
+        for (Entry entry : entries) {
+            result.lines.addAll(entry.leading);
+            result.lines.addAll(entry.body);
+        }
+        result.firstContent = entries.isEmpty() ? 0 : entries.get(0).leading.size();
+        result.lines.addAll(takeClosingComments(originalColumn, column));
+        return result;
+    }
+
+    private void formatEntry(List<String> body, ScalarEvent key, int column, List<String> path) {
+        if (key.getStartMark().getLine() != key.getEndMark().getLine()) {
+            throw new UnsupportedContentException();
+        }
+        int keyEnd = getOffset(key.getEndMark());
+        String keyLine = spaces(column) + document.subSequence(getOffset(key.getStartMark()), keyEnd) + ":";
+        String keyComment = getTrailingComment(keyEnd, true);
+        trailingConsumed = true;
+        if (keyComment != null) {
+            keyLine += " " + keyComment;
+        }
+        // Continuation lines of a multi line value move along with the key
+        int delta = column - key.getStartMark().getColumn();
+        List<String> childPath = new ArrayList<>(path);
+        childPath.add(key.getValue());
+
+        Event value = readEvent();
+        if (value.is(Event.ID.MappingStart) && !((CollectionStartEvent) value).isFlow()) {
+            checkProperties(value);
+            body.add(keyLine);
+            body.addAll(formatMapping(value, column + tabSize, childPath).lines);
+        } else if (value.is(Event.ID.SequenceStart) && !((CollectionStartEvent) value).isFlow()) {
+            checkProperties(value);
+            body.add(keyLine);
+            body.addAll(formatSequence(value, column + tabSize, childPath).lines);
+        } else {
+            List<String> valueLines = formatValue(value, delta, column + tabSize);
+            if (valueLines.isEmpty()) {
+                body.add(keyLine);
+            } else if (keyComment != null) {
+                body.add(keyLine);
+                body.add(spaces(column + tabSize) + valueLines.get(0));
+                body.addAll(valueLines.subList(1, valueLines.size()));
+            } else {
+                body.add(keyLine + " " + valueLines.get(0));
+                body.addAll(valueLines.subList(1, valueLines.size()));
+            }
+        }
+    }
+
+    private Lines formatSequence(Event start, int column, List<String> path) {
+        int originalColumn = start.getStartMark().getColumn();
+        List<String> childPath = new ArrayList<>(path);
+        childPath.add(SEQUENCE_ITEM);
+        Lines result = new Lines();
+        boolean first = true;
+        for (Event event = readEvent(); !event.is(Event.ID.SequenceEnd); event = readEvent()) {
+            List<String> leading = takePending(column);
+            if (first) {
+                result.firstContent = leading.size();
+                first = false;
+            }
+            result.lines.addAll(leading);
+            String dash = spaces(column) + "-";
+            if (event.is(Event.ID.MappingStart) && !((CollectionStartEvent) event).isFlow()) {
+                checkProperties(event);
+                addItem(result.lines, formatMapping(event, column + 2, childPath), column);
+            } else if (event.is(Event.ID.SequenceStart) && !((CollectionStartEvent) event).isFlow()) {
+                checkProperties(event);
+                addItem(result.lines, formatSequence(event, column + 2, childPath), column);
+            } else {
+                List<String> valueLines = formatValue(event, column + 2 - event.getStartMark().getColumn(),
+                        column + tabSize);
+                if (valueLines.isEmpty()) {
+                    result.lines.add(dash);
+                } else {
+                    result.lines.add(dash + " " + valueLines.get(0));
+                    result.lines.addAll(valueLines.subList(1, valueLines.size()));
+                }
+            }
+        }
+        result.lines.addAll(takeClosingComments(originalColumn, column));
+        return result;
+    }
+
+    /**
+     * Add a collection as a sequence item, starting the first line of the collection with the item indicator.
+     */
+    private static void addItem(List<String> lines, Lines item, int column) {
+        for (int i = 0; i < item.lines.size(); i++) {
+            String line = item.lines.get(i);
+            lines.add(i == item.firstContent ? spaces(column) + "- " + line.substring(column + 2) : line);
+        }
+    }
+
+    /**
+     * Format a scalar, an alias or a flow collection, copied from the source. Continuation lines are shifted by the
+     * given delta, except the content of a block scalar which is indented to the given column.
+     *
+     * @return {@link List} Lines of the value where the first line is not indented, or an empty list for a value
+     * which is not written (ex: key without a value)
+     */
+    private List<String> formatValue(Event value, int delta, int blockColumn) {
+        int start = getOffset(value.getStartMark());
+        int end;
+        boolean blockScalar = false;
+        if (value.is(Event.ID.Scalar)) {
+            ScalarEvent scalar = (ScalarEvent) value;
+            if (scalar.isPlain() && scalar.getValue().isEmpty() && getOffset(scalar.getEndMark()) == start) {
+                return Collections.emptyList();
+            }
+            blockScalar = isBlockScalar(scalar);
+            end = getEnd(value);
+        } else if (value.is(Event.ID.Alias)) {
+            end = getEnd(value);
+        } else if (value.is(Event.ID.MappingStart) || value.is(Event.ID.SequenceStart)) {
+            // Flow collection, copied as it is along with the comments within
+            int depth = 1;
+            Event event = value;
+            while (depth > 0) {
+                event = parser.getEvent();
+                if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                    depth++;
+                } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                    depth--;
+                }
+            }
+            end = getOffset(event.getEndMark());
+            previousEnd = end;
+        } else {
+            throw new UnsupportedContentException();
+        }
+
+        List<String> lines = new ArrayList<>();
+        int lineStart = start;
+        for (int offset = start; offset <= end; offset++) {
+            if (offset == end || document.charAt(offset) == '\n') {
+                String line = document.subSequence(lineStart, offset).toString();
+                // Trailing spaces are a part of the content of a block scalar
+                line = blockScalar ? trimCarriageReturn(line) : trimLineEnd(line);
+                lines.add(lineStart == start ? line : shift(line, delta));
+                lineStart = offset + 1;
+            }
+        }
+        if (blockScalar) {
+            shiftBlockScalar(lines, blockColumn);
+        } else {
+            String comment = getTrailingComment(end, false);
+            trailingConsumed = true;
+            if (comment != null) {
+                lines.set(lines.size() - 1, lines.get(lines.size() - 1) + " " + comment);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Indent the content of a block scalar to the given column, unless the indentation is given in the header.
+     */
+    private static void shiftBlockScalar(List<String> lines, int column) {
+        for (int i = 0; i < lines.get(0).length(); i++) {
+            if (Character.isDigit(lines.get(0).charAt(i))) {
+                return;
+            }
+        }
+        int indent = Integer.MAX_VALUE;
+        for (String line : lines.subList(1, lines.size())) {
+            int lineIndent = 0;
+            while (lineIndent < line.length() && line.charAt(lineIndent) == ' ') {
+                lineIndent++;
+            }
+            if (lineIndent < line.length()) {
+                indent = Math.min(indent, lineIndent);
+            }
+        }
+        if (indent == Integer.MAX_VALUE) {
+            return;
+        }
+        for (int i = 1; i < lines.size(); i++) {
+            lines.set(i, shift(lines.get(i), column - indent));
+        }
+    }
+
+    /**
+     * Read the next event, collecting the comments and the blank lines between the previous event and the event.
+     */
+    private Event readEvent() {
+        Event event = parser.getEvent();
+        int start = getOffset(event.getStartMark());
+        if (start > previousEnd) {
+            readGap(previousEnd, start);
+        }
+        previousEnd = Math.max(previousEnd, getEnd(event));
+        trailingConsumed = false;
+        return event;
+    }
+
+    private void readGap(int start, int end) {
+        int column = start - document.getLineStart(document.getPosition(start).getLine());
+        int lineStart = start;
+        for (int offset = start; offset <= end; offset++) {
+            if (offset < end && document.charAt(offset) != '\n') {
+                continue;
+            }
+            boolean firstLine = lineStart == start;
+            boolean lastLine = offset == end;
+            String line = trimLineEnd(document.subSequence(lineStart, offset).toString());
+            int hash = line.indexOf('#');
+            // Anything other than the indicators of the block collections is not emitted from the events
+            for (int i = 0; i < (hash < 0 ? line.length() : hash); i++) {
+                char c = line.charAt(i);
+                if (c != ' ' && c != '\t' && c != '-' && c != ':') {
+                    throw new UnsupportedContentException();
+                }
+            }
+            if (firstLine && hash >= 0 && !trailingConsumed) {
+                pending.add(new Gap(line.substring(hash), column + hash));
+            } else if (!firstLine && (!lastLine || end == blockEnd)) {
+                if (hash >= 0) {
+                    pending.add(new Gap(line.substring(hash), hash));
+                } else if (!lastLine && line.trim().isEmpty()) {
+                    pending.add(new Gap(null, 0));
+                }
+            }
+            lineStart = offset + 1;
+        }
+    }
+
+    /**
+     * Get the comment following a node on the same line.
+     *
+     * @param offset            Document offset after the node
+     * @param key               Whether the node is a key, followed by the separator
+     * @return {@link String}   Comment or null if there is no comment on the line
+     */
+    private String getTrailingComment(int offset, boolean key) {
+        boolean separated = !key;
+        for (int i = offset; i < blockEnd; i++) {
+            char c = document.charAt(i);
+            if (c == ' ' || c == '\t') {
+                continue;
+            } else if (c == ':' && !separated) {
+                separated = true;
+                continue;
+            } else if (c == '#') {
+                int end = i;
+                while (end < blockEnd && document.charAt(end) != '\n') {
+                    end++;
+                }
+                return trimLineEnd(document.subSequence(i, end).toString());
+            }
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Take the pending comments and blank lines, preceding a node at the given column.
+     */
+    private List<String> takePending(int column) {
+        List<String> lines = new ArrayList<>();
+        for (Gap gap : pending) {
+            if (gap.comment != null) {
+                lines.add(spaces(column) + gap.comment);
+            } else if (lines.isEmpty() || !lines.get(lines.size() - 1).isEmpty()) {
+                lines.add("");
+            }
+        }
+        pending.clear();
+        return lines;
+    }
+
+    /**
+     * Take the pending comments closing a collection, which are the comments indented at least as the entries of
+     * the collection. The rest of the comments precede the next node of an enclosing collection.
+     */
+    private List<String> takeClosingComments(int originalColumn, int column) {
+        int count = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            Gap gap = pending.get(i);
+            if (gap.comment != null) {
+                if (gap.column < originalColumn) {
+                    break;
+                }
+                count = i + 1;
+            }
+        }
+        List<Gap> closing = new ArrayList<>(pending.subList(0, count));
+        pending.subList(0, count).clear();
+        List<Gap> rest = new ArrayList<>(pending);
+        pending.clear();
+        pending.addAll(closing);
+        List<String> lines = takePending(column);
+        pending.addAll(rest);
+        return lines;
+    }
+
+    /**
+     * Get the document offset after an event. Trailing blank lines of a block scalar are left out, so that they are
+     * read as blank lines.
+     */
+    private int getEnd(Event event) {
+        int end = getOffset(event.getEndMark());
+        if (!(event instanceof ScalarEvent) || !isBlockScalar((ScalarEvent) event)) {
+            return end;
+        }
+        int start = getOffset(event.getStartMark());
+        int contentEnd = end;
+        while (contentEnd > start && Character.isWhitespace(document.charAt(contentEnd - 1))) {
+            contentEnd--;
+        }
+        while (contentEnd < end && document.charAt(contentEnd) != '\n' && document.charAt(contentEnd) != '\r') {
+            contentEnd++;
+        }
+        return contentEnd;
+    }
+
+    private boolean isBlockScalar(ScalarEvent scalar) {
+        DumperOptions.ScalarStyle style = scalar.getStyle();
+        if (style != DumperOptions.ScalarStyle.LITERAL && style != DumperOptions.ScalarStyle.FOLDED) {
+            return false;
+        }
+        // Trailing blank lines are a part of the value when kept by the chomping indicator
+        int start = getOffset(scalar.getStartMark());
+        for (int i = start; i < blockEnd && document.charAt(i) != '\n'; i++) {
+            if (document.charAt(i) == '+') {
+                throw new UnsupportedContentException();
+            }
+        }
+        return true;
+    }
+
+    private int getOffset(Mark mark) {
+        return Math.min(document.getLineStart(block.getStartLine() + mark.getLine()) + mark.getColumn(), blockEnd);
+    }
+
+    private static void expect(Event event, Event.ID id) {
+        if (!event.is(id)) {
+            throw new UnsupportedContentException();
+        }
+    }
+
+    private static void checkProperties(Event event) {
+        if (hasProperties(event)) {
+            throw new UnsupportedContentException();
+        }
+    }
+
+    /**
+     * Check whether a collection has an anchor or an explicit tag, which are not emitted from the events.
+     */
+    private static boolean hasProperties(Event event) {
+        return ((NodeEvent) event).getAnchor() != null || !((CollectionStartEvent) event).getImplicit();
+    }
+
+    private static String shift(String line, int delta) {
+        if (line.isEmpty()) {
+            return line;
+        } else if (delta >= 0) {
+            return spaces(delta) + line;
+        }
+        int indent = 0;
+        while (indent < line.length() && indent < -delta && line.charAt(indent) == ' ') {
+            indent++;
+        }
+        return line.substring(indent);
+    }
+
+    private static String trimLineEnd(String line) {
+        int end = line.length();
+        while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+
+    private static String trimCarriageReturn(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private static String spaces(int count) {
+        char[] spaces = new char[count];
+        Arrays.fill(spaces, ' ');
+        return new String(spaces);
+    }
+
+    private static Node compose(List<String> lines, boolean terminated) {
+        String content = String.join("\n", lines) + (terminated ? "\n" : "");
+        Composer composer = new Composer(new ParserImpl(new StreamReader(new StringReader(content))), new Resolver());
+        return composer.getSingleNode();
+    }
+
+    /**
+     * Compare the content of two nodes, ignoring the order of the mapping entries.
+     */
+    private static boolean isEquivalent(Node original, Node formatted, int depth) {
+        if (original == null || formatted == null || depth > MAX_COMPARE_DEPTH
+                || original.getNodeId() != formatted.getNodeId() || !original.getTag().equals(formatted.getTag())) {
+            return original == null && formatted == null;
+        }
+        if (original instanceof ScalarNode) {
+            return ((ScalarNode) original).getValue().equals(((ScalarNode) formatted).getValue());
+        } else if (original instanceof SequenceNode) {
+            List<Node> originalItems = ((SequenceNode) original).getValue();
+            List<Node> formattedItems = ((SequenceNode) formatted).getValue();
+            if (originalItems.size() != formattedItems.size()) {
+                return false;
+            }
+            for (int i = 0; i < originalItems.size(); i++) {
+                if (!isEquivalent(originalItems.get(i), formattedItems.get(i), depth + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        List<NodeTuple> originalEntries = ((MappingNode) original).getValue();
+        List<NodeTuple> formattedEntries = ((MappingNode) formatted).getValue();
+        if (originalEntries.size() != formattedEntries.size()) {
+            return false;
+        }
+        Map<String, Node> formattedValues = new HashMap<>();
+        for (NodeTuple entry : formattedEntries) {
+            if (!(entry.getKeyNode() instanceof ScalarNode)) {
+                return false;
+            }
+            formattedValues.put(((ScalarNode) entry.getKeyNode()).getValue(), entry.getValueNode());
+        }
+        for (NodeTuple entry : originalEntries) {
+            if (!(entry.getKeyNode() instanceof ScalarNode) || !isEquivalent(entry.getValueNode(),
+                    formattedValues.get(((ScalarNode) entry.getKeyNode()).getValue()), depth + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Comment line or blank line between the nodes.
+     */
+    private static class Gap {
+        private final String comment;
+        private final int column;
+
+        private Gap(String comment, int column) {
+            this.comment = comment;
+            this.column = column;
+        }
+    }
+
+    /**
+     * Mapping entry along with the comments and the blank lines preceding it.
+     */
+    private static class Entry {
+        private final List<String> leading;
+        private final List<String> body = new ArrayList<>();
+        private final int rank;
+
+        private Entry(List<String> leading, int rank) {
+            this.leading = leading;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * Formatted lines of a collection.
+     */
+    private static class Lines {
+        private final List<String> lines = new ArrayList<>();
+        private int firstContent;
+    }
+
+    /**
+     * Content which cannot be formatted from the events.
+     */
+    private static class UnsupportedContentException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedContentException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.formatting;
+
+import org.eclipse.lsp4j.FormattingOptions;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.swagger.langserver.DocumentManager;
+import org.swagger.langserver.document.DocumentBlock;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.TextDocument;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Provides the formatting of the specification documents.
+ *
+ * Documents are formatted block by block (see {@link ParsedDocument}), so that formatting a large document only keeps
+ * a single formatted block in memory, and formatting a range only formats the blocks overlapping the range. The edits
+ * replace only the changed parts of the lines instead of the whole document.
+ */
+public class FormattingProvider {
+
+    /**
+     * Trigger character of the on type formatting.
+     */
+    public static final String NEW_LINE = "\n";
+
+    private static final int DEFAULT_TAB_SIZE = 2;
+
+    /**
+     * End of a line starting a block scalar. ex: description: |
+     */
+    private static final Pattern BLOCK_SCALAR_HEADER = Pattern.compile("(.*\\s)?[|>][-+0-9]*");
+
+    private final DocumentManager documentManager;
+
+    public FormattingProvider(DocumentManager documentManager) {
+        this.documentManager = documentManager;
+    }
+
+    /**
+     * Format a document.
+     *
+     * @param filePath          Normalized path of the document
+     * @param options           Formatting options of the client
+     * @return {@link List}     Text edits
+     */
+    public List<TextEdit> format(Path filePath, FormattingOptions options) {
+        return formatLines(filePath, 0, Integer.MAX_VALUE, options);
+    }
+
+    /**
+     * Format the blocks of a document overlapping the given range.
+     *
+     * @param filePath          Normalized path of the document
+     * @param range             Range selected in the client
+     * @param options           Formatting options of the client
+     * @return {@link List}     Text edits
+     */
+    public List<TextEdit> formatRange(Path filePath, Range range, FormattingOptions options) {
+        return formatLines(filePath, range.getStart().getLine(), range.getEnd().getLine(), options);
+    }
+
+    /**
+     * Indent a new line after the given character is typed. The new line is indented by one level after a key
+     * starting a collection or a block scalar, otherwise it is aligned with the previous entry.
+     *
+     * @param filePath          Normalized path of the document
+     * @param position          Position after the typed character
+     * @param character         Typed character
+     * @param options           Formatting options of the client
+     * @return {@link List}     Text edits
+     */
+    public List<TextEdit> formatOnType(Path filePath, Position position, String character,
+                                       FormattingOptions options) {
+        TextDocument document = documentManager.getDocument(filePath);
+        int line = position.getLine();
+        if (!NEW_LINE.equals(character) || document == null || line <= 0 || line >= document.getLineCount()) {
+            return Collections.emptyList();
+        }
+        String previous = null;
+        for (int i = line - 1; i >= 0 && previous == null; i--) {
+            String candidate = document.getLine(i).trim();
+            previous = candidate.isEmpty() || candidate.startsWith("#") ? null : document.getLine(i);
+        }
+        int indent = previous == null ? 0 : skipSpaces(previous, 0);
+        if (previous != null) {
+            // Key column after the sequence item indicators
+            int column = indent;
+            while (column < previous.length() && previous.charAt(column) == '-'
+                    && (column + 1 == previous.length() || previous.charAt(column + 1) == ' ')) {
+                column = skipSpaces(previous, column + 1);
+            }
+            String content = stripComment(previous.substring(Math.min(column, previous.length())));
+            // Flow collections opened at the end of the line, such as the objects of a JSON document
+            if (content.endsWith(":") || content.endsWith("{") || content.endsWith("[")
+                    || BLOCK_SCALAR_HEADER.matcher(content).matches()) {
+                indent = column + getTabSize(options);
+            } else if (column > indent && content.contains(": ")) {
+                indent = column;
+            }
+        }
+        String current = document.getLine(line);
+        int currentIndent = skipSpaces(current, 0);
+        if (currentIndent == indent && current.substring(0, currentIndent).indexOf('\t') < 0) {
+            return Collections.emptyList();
+        }
+        char[] spaces = new char[indent];
+        Arrays.fill(spaces, ' ');
+        return Collections.singletonList(new TextEdit(new Range(new Position(line, 0),
+                new Position(line, currentIndent)), new String(spaces)));
+    }
+
+    // Private methods
+
+    private List<TextEdit> formatLines(Path filePath, int startLine, int endLine, FormattingOptions options) {
+        ParsedDocument parsedDocument = documentManager.getParsedDocument(filePath);
+        // Blocks are formatted as YAML, hence the JSON documents are left as they are
+        if (parsedDocument == null || parsedDocument.isJson()) {
+            return Collections.emptyList();
+        }
+        TextDocument document = parsedDocument.getDocument();
+        int tabSize = getTabSize(options);
+        List<TextEdit> edits = new ArrayList<>();
+        for (DocumentBlock block : parsedDocument.getBlocks()) {
+            if (block.getEndLine() <= startLine || block.getStartLine() > endLine) {
+                continue;
+            }
+            List<String> lines = BlockFormatter.format(document, block, parsedDocument.getSpecVersion(), tabSize);
+            if (lines != null) {
+                edits.addAll(LineDiff.getEdits(document, block.getStartLine(), block.getLineCount(), lines));
+            }
+        }
+        return edits;
+    }
+
+    private static int getTabSize(FormattingOptions options) {
+        return options == null || options.getTabSize() <= 0 ? DEFAULT_TAB_SIZE : options.getTabSize();
+    }
+
+    private static int skipSpaces(String line, int index) {
+        while (index < line.length() && (line.charAt(index) == ' ' || line.charAt(index) == '\t')) {
+            index++;
+        }
+        return index;
+    }
+
+    private static String stripComment(String content) {
+        int comment = content.indexOf(" #");
+        return (comment < 0 ? content : content.substring(0, comment)).trim();
+    }
+}
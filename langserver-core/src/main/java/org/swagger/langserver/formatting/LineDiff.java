@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.formatting;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.swagger.langserver.document.TextDocument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the text edits turning a range of lines of a document into the formatted lines.
+ *
+ * Unchanged lines at the start and the end of the range are skipped, and the rest is matched line by line with the
+ * longest common subsequence. A changed line which keeps its place is edited within the line (ex: only the
+ * indentation), while the moved lines are replaced as a whole.
+ */
+final class LineDiff {
+
+    /**
+     * Maximum number of line pairs compared to match the lines. Larger changes are replaced as a whole.
+     */
+    private static final long MAX_COMPARISONS = 1000000L;
+
+    private final TextDocument document;
+
+    private final String lineSeparator;
+
+    private final List<TextEdit> edits = new ArrayList<>();
+
+    private LineDiff(TextDocument document) {
+        this.document = document;
+        boolean crlf = document.getLineCount() > 1 && document.getLineStart(1) - document.getLineEnd(0) == 2;
+        this.lineSeparator = crlf ? "\r\n" : "\n";
+    }
+
+    /**
+     * Get the edits replacing the lines of a document with the formatted lines.
+     *
+     * @param document          Document snapshot
+     * @param firstLine         First document line of the range
+     * @param formatted         Formatted lines replacing the lines of the range
+     * @param lineCount         Number of lines of the range
+     * @return {@link List}     Text edits, empty if the lines are not changed
+     */
+    static List<TextEdit> getEdits(TextDocument document, int firstLine, int lineCount, List<String> formatted) {
+        List<String> original = new ArrayList<>(lineCount);
+        for (int line = firstLine; line < firstLine + lineCount; line++) {
+            original.add(document.getLine(line));
+        }
+        LineDiff diff = new LineDiff(document);
+        diff.compare(firstLine, original, formatted);
+        return diff.edits;
+    }
+
+    // Private methods
+
+    private void compare(int firstLine, List<String> original, List<String> formatted) {
+        int prefix = 0;
+        while (prefix < original.size() && prefix < formatted.size()
+                && original.get(prefix).equals(formatted.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < original.size() - prefix && suffix < formatted.size() - prefix
+                && original.get(original.size() - 1 - suffix).equals(formatted.get(formatted.size() - 1 - suffix))) {
+            suffix++;
+        }
+        List<String> oldLines = original.subList(prefix, original.size() - suffix);
+        List<String> newLines = formatted.subList(prefix, formatted.size() - suffix);
+        int oldCount = oldLines.size();
+        int newCount = newLines.size();
+        if (oldCount == 0 && newCount == 0) {
+            return;
+        }
+        if (oldCount == newCount || (long) oldCount * newCount > MAX_COMPARISONS) {
+            addHunk(firstLine + prefix, oldLines, newLines);
+            return;
+        }
+
+        // Longest common subsequence, where lengths[i][j] is the length for the lines from i and j onwards
+        int[][] lengths = new int[oldCount + 1][newCount + 1];
+        for (int i = oldCount - 1; i >= 0; i--) {
+            for (int j = newCount - 1; j >= 0; j--) {
+                lengths[i][j] = oldLines.get(i).equals(newLines.get(j))
+                        ? lengths[i + 1][j + 1] + 1
+                        : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+            }
+        }
+        int i = 0;
+        int j = 0;
+        int hunkOld = 0;
+        int hunkNew = 0;
+        while (i < oldCount || j < newCount) {
+            if (i < oldCount && j < newCount && oldLines.get(i).equals(newLines.get(j))) {
+                if (hunkOld < i || hunkNew < j) {
+                    addHunk(firstLine + prefix + hunkOld, oldLines.subList(hunkOld, i), newLines.subList(hunkNew, j));
+                }
+                i++;
+                j++;
+                hunkOld = i;
+                hunkNew = j;
+            } else if (j >= newCount || (i < oldCount && lengths[i + 1][j] >= lengths[i][j + 1])) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        if (hunkOld < oldCount || hunkNew < newCount) {
+            addHunk(firstLine + prefix + hunkOld, oldLines.subList(hunkOld, oldCount),
+                    newLines.subList(hunkNew, newCount));
+        }
+    }
+
+    /**
+     * Add the edits replacing a run of changed lines.
+     */
+    private void addHunk(int line, List<String> oldLines, List<String> newLines) {
+        if (oldLines.size() == newLines.size()) {
+            for (int i = 0; i < oldLines.size(); i++) {
+                addLineEdit(line + i, oldLines.get(i), newLines.get(i));
+            }
+            return;
+        }
+        int endLine = line + oldLines.size();
+        if (endLine < document.getLineCount()) {
+            StringBuilder text = new StringBuilder();
+            for (String newLine : newLines) {
+                text.append(newLine).append(lineSeparator);
+            }
+            edits.add(new TextEdit(new Range(new Position(line, 0), new Position(endLine, 0)), text.toString()));
+            return;
+        }
+        // The last line of the document has no line terminator
+        Position end = getLineEnd(endLine - 1);
+        if (newLines.isEmpty()) {
+            Position start = line == 0 ? new Position(0, 0) : getLineEnd(line - 1);
+            edits.add(new TextEdit(new Range(start, end), ""));
+        } else {
+            edits.add(new TextEdit(new Range(new Position(line, 0), end), String.join(lineSeparator, newLines)));
+        }
+    }
+
+    /**
+     * Add an edit replacing the changed part of a line.
+     */
+    private void addLineEdit(int line, String oldLine, String newLine) {
+        if (oldLine.equals(newLine)) {
+            return;
+        }
+        int start = 0;
+        while (start < oldLine.length() && start < newLine.length() && oldLine.charAt(start) == newLine.charAt(start)) {
+            start++;
+        }
+        int oldEnd = oldLine.length();
+        int newEnd = newLine.length();
+        while (oldEnd > start && newEnd > start && oldLine.charAt(oldEnd - 1) == newLine.charAt(newEnd - 1)) {
+            oldEnd--;
+            newEnd--;
+        }
+        edits.add(new TextEdit(new Range(new Position(line, start), new Position(line, oldEnd)),
+                newLine.substring(start, newEnd)));
+    }
+
+    private Position getLineEnd(int line) {
+        return new Position(line, document.getLineEnd(line) - document.getLineStart(line));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.hover;
+
+import org.eclipse.lsp4j.Position;
+import org.swagger.langserver.document.DocumentBlock;
+import org.swagger.langserver.document.ParsedDocument;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders a markdown summary of a declaration (ex: a definition, a parameter or a response) from its parsed node.
+ * ex:
+ * **Pet** (pets.yaml)
+ *
+ * A pet of the store.
+ *
+ * type: `object`
+ * required: `id`, `name`
+ *
+ * - `id`: `integer (int64)`
+ * - `tag`: `#/definitions/Tag`
+ */
+final class DefinitionRenderer {
+
+    /**
+     * Maximum number of properties listed, in order to keep the hover short.
+     */
+    private static final int MAX_PROPERTIES = 25;
+
+    /**
+     * Scalar fields shown as the attributes of the declaration, in this order.
+     */
+    private static final List<String> ATTRIBUTES = Arrays.asList("in", "name", "type", "format", "required",
+            "default", "enum", "$ref");
+
+    private DefinitionRenderer() {
+    }
+
+    /**
+     * Render the declaration whose key is at the given position.
+     *
+     * @param parsedDocument    Parsed document declaring the declaration
+     * @param keyPosition       Position of the declaration key
+     * @param fileName          Name of the declaring file
+     * @return {@link String}   Markdown summary or null if there is no declaration at the position
+     */
+    static String render(ParsedDocument parsedDocument, Position keyPosition, String fileName) {
+        if (keyPosition.getLine() == 0 && keyPosition.getCharacter() == 0) {
+            // Reference to the whole file
+            return "**" + fileName + "**";
+        }
+        DocumentBlock block = parsedDocument.getBlock(keyPosition.getLine());
+        if (block == null || block.getNode() == null) {
+            return null;
+        }
+        NodeTuple declaration = findTuple(block.getNode(), block.toBlockLine(keyPosition.getLine()),
+                keyPosition.getCharacter());
+        if (declaration == null) {
+            return null;
+        }
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("**").append(getScalar(declaration.getKeyNode())).append("** (").append(fileName)
+                .append(')');
+        if (!(declaration.getValueNode() instanceof MappingNode)) {
+            return markdown.toString();
+        }
+        Map<String, Node> fields = getFields((MappingNode) declaration.getValueNode());
+        appendParagraph(markdown, getScalar(fields.get("summary")));
+        appendParagraph(markdown, getScalar(fields.get("description")));
+
+        List<String> attributes = new ArrayList<>();
+        for (String attribute : ATTRIBUTES) {
+            Node value = fields.get(attribute);
+            if (value instanceof ScalarNode) {
+                attributes.add(attribute + ": `" + getScalar(value) + "`");
+            } else if (value instanceof SequenceNode) {
+                attributes.add(attribute + ": " + join(getScalars((SequenceNode) value)));
+            }
+        }
+        if (fields.get("schema") != null) {
+            attributes.add("schema: `" + getTypeName(fields.get("schema")) + "`");
+        }
+        if (fields.get("items") != null) {
+            attributes.add("items: `" + getTypeName(fields.get("items")) + "`");
+        }
+        if (fields.get("allOf") instanceof SequenceNode) {
+            List<String> types = new ArrayList<>();
+            for (Node item : ((SequenceNode) fields.get("allOf")).getValue()) {
+                types.add(getTypeName(item));
+            }
+            attributes.add("allOf: " + join(types));
+        }
+        // Attributes are separated by markdown line breaks
+        appendParagraph(markdown, attributes.isEmpty() ? null : String.join("  \n", attributes));
+
+        if (fields.get("properties") instanceof MappingNode) {
+            List<NodeTuple> properties = ((MappingNode) fields.get("properties")).getValue();
+            StringBuilder list = new StringBuilder();
+            for (int i = 0; i < properties.size() && i < MAX_PROPERTIES; i++) {
+                NodeTuple property = properties.get(i);
+                list.append(i == 0 ? "" : "\n").append("- `").append(getScalar(property.getKeyNode()))
+                        .append("`: `").append(getTypeName(property.getValueNode())).append('`');
+            }
+            if (properties.size() > MAX_PROPERTIES) {
+                list.append("\n- ... ").append(properties.size() - MAX_PROPERTIES).append(" more");
+            }
+            appendParagraph(markdown, list.length() == 0 ? null : list.toString());
+        }
+        return markdown.toString();
+    }
+
+    // Private methods
+
+    /**
+     * Find the mapping entry whose key starts at the given position, descending only in to the nodes spanning the
+     * line.
+     */
+    private static NodeTuple findTuple(Node node, int line, int column) {
+        if (node.getStartMark().getLine() > line || node.getEndMark().getLine() < line) {
+            return null;
+        }
+        if (node instanceof MappingNode) {
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                Node key = tuple.getKeyNode();
+                if (key.getStartMark().getLine() == line && key.getStartMark().getColumn() == column) {
+                    return tuple;
+                }
+                NodeTuple found = findTuple(tuple.getValueNode(), line, column);
+                if (found != null) {
+                    return found;
+                }
+            }
+        } else if (node instanceof SequenceNode) {
+            for (Node item : ((SequenceNode) node).getValue()) {
+                NodeTuple found = findTuple(item, line, column);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Node> getFields(MappingNode node) {
+        Map<String, Node> fields = new LinkedHashMap<>();
+        for (NodeTuple tuple : node.getValue()) {
+            String key = getScalar(tuple.getKeyNode());
+            if (key != null) {
+                fields.putIfAbsent(key, tuple.getValueNode());
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Get a short type name of a schema.
+     * ex: #/definitions/Pet, integer (int64), array<string>
+     */
+    private static String getTypeName(Node node) {
+        if (node instanceof ScalarNode) {
+            return getScalar(node);
+        } else if (!(node instanceof MappingNode)) {
+            return "array";
+        }
+        Map<String, Node> fields = getFields((MappingNode) node);
+        String ref = getScalar(fields.get("$ref"));
+        if (ref != null) {
+            return ref;
+        }
+        String type = getScalar(fields.get("type"));
+        if ("array".equals(type) && fields.get("items") != null) {
+            return "array<" + getTypeName(fields.get("items")) + ">";
+        }
+        if (type == null) {
+            return fields.containsKey("allOf") ? "allOf" : "object";
+        }
+        String format = getScalar(fields.get("format"));
+        return format == null ? type : type + " (" + format + ")";
+    }
+
+    private static String getScalar(Node node) {
+        return node instanceof ScalarNode ? ((ScalarNode) node).getValue() : null;
+    }
+
+    private static List<String> getScalars(SequenceNode node) {
+        List<String> values = new ArrayList<>();
+        for (Node item : node.getValue()) {
+            String value = getScalar(item);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static String join(List<String> values) {
+        StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            result.append(result.length() == 0 ? "" : ", ").append('`').append(value).append('`');
+        }
+        return result.toString();
+    }
+
+    private static void appendParagraph(StringBuilder markdown, String paragraph) {
+        if (paragraph != null && !paragraph.trim().isEmpty()) {
+            markdown.append("\n\n").append(paragraph.trim());
+        }
+    }
+}
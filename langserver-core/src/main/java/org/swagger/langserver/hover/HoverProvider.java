@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.hover;
+
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
+import org.eclipse.lsp4j.Position;
+import org.swagger.langserver.DocumentManager;
+import org.swagger.langserver.completion.ContentParserUtil;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.index.WorkspaceIndexer;
+import org.swagger.langserver.metrics.Metrics;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides the hover of the specification field keys and the $ref values.
+ *
+ * A field key shows the type and the documentation of the field. A $ref value shows a summary of the referred
+ * declaration, which is rendered once per version of the declaring document and cached.
+ */
+public class HoverProvider {
+
+    /**
+     * Maximum number of rendered declarations kept in the cache.
+     */
+    private static final int MAX_RENDERED_DEFINITIONS = 512;
+
+    private final DocumentManager documentManager;
+
+    private final WorkspaceIndexer workspaceIndexer;
+
+    /**
+     * Rendered declarations keyed by the declaration location, in access order.
+     */
+    private final LinkedHashMap<String, RenderedDefinition> renderedDefinitions =
+            new LinkedHashMap<String, RenderedDefinition>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RenderedDefinition> eldest) {
+                    return size() > MAX_RENDERED_DEFINITIONS;
+                }
+            };
+
+    public HoverProvider(DocumentManager documentManager, WorkspaceIndexer workspaceIndexer) {
+        this.documentManager = documentManager;
+        this.workspaceIndexer = workspaceIndexer;
+    }
+
+    /**
+     * Get the hover at the given position.
+     *
+     * @param filePath          Normalized path of the document
+     * @param position          Cursor position
+     * @return {@link Hover}    Hover or null if there is nothing to show at the position
+     */
+    public Hover getHover(Path filePath, Position position) {
+        ParsedDocument parsedDocument = documentManager.getParsedDocument(filePath);
+        if (parsedDocument == null) {
+            return null;
+        }
+        Hover hover = ContentParserUtil.getFieldHover(parsedDocument, position);
+        if (hover != null) {
+            return hover;
+        }
+        workspaceIndexer.ensureCurrent(filePath);
+        Location declaration = workspaceIndexer.getReferenceGraph().getDefinition(filePath, position);
+        String markdown = declaration == null ? null : getRenderedDefinition(declaration);
+        if (markdown == null) {
+            return null;
+        }
+        MarkupContent content = new MarkupContent();
+        content.setKind(MarkupKind.MARKDOWN);
+        content.setValue(markdown);
+        return new Hover(content);
+    }
+
+    // Private methods
+
+    /**
+     * Get the rendered summary of a declaration, rendering it again only if the declaring document has changed.
+     *
+     * @param declaration       Location of the declaration key
+     * @return {@link String}   Markdown summary or null if the declaration cannot be found
+     */
+    private String getRenderedDefinition(Location declaration) {
+        Path path = Paths.get(URI.create(declaration.getUri()));
+        ParsedDocument parsedDocument = documentManager.getParsedDocument(path);
+        if (parsedDocument == null) {
+            return null;
+        }
+        Position keyPosition = declaration.getRange().getStart();
+        String key = declaration.getUri() + "#" + keyPosition.getLine() + ":" + keyPosition.getCharacter();
+        synchronized (renderedDefinitions) {
+            RenderedDefinition rendered = renderedDefinitions.get(key);
+            boolean hit = rendered != null && rendered.isCurrent(parsedDocument);
+            Metrics.recordLookup("renderedDefinition", hit);
+            if (hit) {
+                return rendered.markdown;
+            }
+        }
+        Path fileName = path.getFileName();
+        String markdown = DefinitionRenderer.render(parsedDocument, keyPosition,
+                fileName == null ? path.toString() : fileName.toString());
+        if (markdown != null) {
+            synchronized (renderedDefinitions) {
+                renderedDefinitions.put(key, new RenderedDefinition(parsedDocument, markdown));
+            }
+        }
+        return markdown;
+    }
+
+    /**
+     * Rendered declaration along with the document version it was rendered from. The document is weakly referenced,
+     * hence the cache does not retain evicted or outdated documents.
+     */
+    private static class RenderedDefinition {
+        private final int version;
+        private final WeakReference<ParsedDocument> document;
+        private final String markdown;
+
+        private RenderedDefinition(ParsedDocument document, String markdown) {
+            this.version = document.getVersion();
+            this.document = new WeakReference<>(document);
+            this.markdown = markdown;
+        }
+
+        private boolean isCurrent(ParsedDocument current) {
+            return current.getVersion() == version && document.get() == current;
+        }
+    }
+}
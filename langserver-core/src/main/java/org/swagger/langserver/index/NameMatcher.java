@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Name matching shared by the workspace symbol search and the completion ranking, hence both split the names to words
+ * and match the typed characters the same way.
+ */
+public final class NameMatcher {
+
+    private NameMatcher() {
+    }
+
+    /**
+     * Check whether a word of the name starts at the given index: after a separator or at a camel case hump.
+     * ex: the words of getPetById start at g, P, B and I
+     *
+     * @param name              Name
+     * @param index             Index within the name, greater than zero
+     * @return {@link Boolean}  Whether a word starts at the index
+     */
+    public static boolean isWordStart(String name, int index) {
+        char previous = name.charAt(index - 1);
+        char current = name.charAt(index);
+        return (!Character.isLetterOrDigit(previous) && Character.isLetterOrDigit(current))
+                || (Character.isLowerCase(previous) && Character.isUpperCase(current));
+    }
+
+    /**
+     * Split a name to the lower case words, at the camel case humps and the separators.
+     * ex: getPetById -> get, pet, by, id and /pets/{id} -> pets, id
+     *
+     * @param name          Name
+     * @return {@link Set}  Lower case words of the name
+     */
+    public static Set<String> getWords(String name) {
+        Set<String> result = new HashSet<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) || (i > 0 && isWordStart(name, i))) {
+                addWord(word, result);
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            }
+        }
+        addWord(word, result);
+        return result;
+    }
+
+    /**
+     * Match the query characters in order within the name.
+     *
+     * @param query             Non empty query, in the case of the name
+     * @param name              Name
+     * @return {@link Integer}  Number of name characters skipped between the matched characters, or -1 if the name
+     *                          does not match
+     */
+    public static int getFuzzyGaps(String query, String name) {
+        int gaps = 0;
+        int index = name.indexOf(query.charAt(0));
+        if (index < 0) {
+            return -1;
+        }
+        for (int i = 1; i < query.length(); i++) {
+            int next = name.indexOf(query.charAt(i), index + 1);
+            if (next < 0) {
+                return -1;
+            }
+            gaps += next - index - 1;
+            index = next;
+        }
+        return gaps;
+    }
+
+    // Private methods
+
+    private static void addWord(StringBuilder word, Set<String> result) {
+        if (word.length() > 0) {
+            result.add(word.toString().toLowerCase(Locale.ENGLISH));
+            word.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bidirectional graph of the $ref values of the workspace, within a file and across the files.
+ *
+ * Each file keeps its outgoing references, while the graph keeps the incoming references of each referred symbol,
+ * hence both the definition of a reference and the references of a symbol are single lookups. When a file changes,
+ * only the edges of the file are replaced.
+ */
+public class ReferenceGraph {
+
+    private static final String DEFINITIONS_POINTER = "/definitions/";
+
+    private static final Range FILE_START = new Range(new Position(0, 0), new Position(0, 0));
+
+    private final ConcurrentHashMap<Path, FileEntry> files = new ConcurrentHashMap<>();
+
+    /**
+     * Declarations of the symbols which can be referred, keyed by the file and the JSON pointer.
+     */
+    private final ConcurrentHashMap<SymbolKey, Location> declarations = new ConcurrentHashMap<>();
+
+    /**
+     * References of each symbol, keyed by the file and the JSON pointer of the referred symbol.
+     */
+    private final ConcurrentHashMap<SymbolKey, Set<Edge>> incoming = new ConcurrentHashMap<>();
+
+    /**
+     * Replace the declarations and the references of a file with the given summary.
+     *
+     * @param summary Summary of the file
+     */
+    public synchronized void update(SpecSummary summary) {
+        remove(summary.getPath());
+        Path path = summary.getPath();
+        List<Edge> outgoing = new ArrayList<>();
+        for (SpecReference reference : summary.getReferences()) {
+            SymbolKey target = resolve(path, reference.getValue());
+            if (target != null) {
+                Edge edge = new Edge(summary.getUri(), reference.getRange(), target);
+                outgoing.add(edge);
+                incoming.computeIfAbsent(target, key -> ConcurrentHashMap.newKeySet()).add(edge);
+            }
+        }
+        List<Edge> declared = new ArrayList<>();
+        for (SpecSymbol symbol : summary.getSymbols()) {
+            if (symbol.getPointer() != null) {
+                SymbolKey key = new SymbolKey(path, symbol.getPointer());
+                declarations.put(key, new Location(summary.getUri(), symbol.getRange()));
+                declared.add(new Edge(summary.getUri(), symbol.getRange(), key));
+            }
+        }
+        files.put(path, new FileEntry(outgoing, declared));
+    }
+
+    /**
+     * Remove the declarations and the references of a file.
+     *
+     * @param path Path of the file
+     */
+    public synchronized void remove(Path path) {
+        FileEntry entry = files.remove(path);
+        if (entry == null) {
+            return;
+        }
+        for (Edge edge : entry.outgoing) {
+            Set<Edge> edges = incoming.get(edge.target);
+            if (edges != null && edges.remove(edge) && edges.isEmpty()) {
+                incoming.remove(edge.target);
+            }
+        }
+        for (Edge declaration : entry.declared) {
+            declarations.remove(declaration.target);
+        }
+    }
+
+    /**
+     * Get the declaration referred by the $ref at the given position.
+     *
+     * @param path              Path of the file
+     * @param position          Position within the $ref value
+     * @return {@link Location} Location of the declaration or null if there is no resolvable $ref at the position
+     */
+    public Location getDefinition(Path path, Position position) {
+        FileEntry entry = files.get(path);
+        Edge edge = entry == null ? null : find(entry.outgoing, position);
+        return edge == null ? null : getDeclaration(edge.target);
+    }
+
+    /**
+     * Get the references of the symbol at the given position, which is either the declaration of the symbol or a $ref
+     * to the symbol.
+     *
+     * @param path                  Path of the file
+     * @param position              Position within the symbol name or the $ref value
+     * @param includeDeclaration    Whether to include the declaration of the symbol
+     * @return {@link List}         Locations of the references
+     */
+    public List<Location> getReferences(Path path, Position position, boolean includeDeclaration) {
+        FileEntry entry = files.get(path);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        Edge edge = find(entry.declared, position);
+        if (edge == null) {
+            edge = find(entry.outgoing, position);
+        }
+        if (edge == null) {
+            return Collections.emptyList();
+        }
+        List<Location> locations = new ArrayList<>();
+        Location declaration = getDeclaration(edge.target);
+        if (includeDeclaration && declaration != null) {
+            locations.add(declaration);
+        }
+        for (Edge reference : incoming.getOrDefault(edge.target, Collections.emptySet())) {
+            locations.add(new Location(reference.uri, reference.range));
+        }
+        return locations;
+    }
+
+    // Private methods
+
+    private Location getDeclaration(SymbolKey key) {
+        if (key.pointer.isEmpty()) {
+            // Reference to a whole file
+            return new Location(key.file.toUri().toString(), FILE_START);
+        }
+        return declarations.get(key);
+    }
+
+    /**
+     * Find the edge whose range contains the position, where the edges are in the document order.
+     */
+    private static Edge find(List<Edge> edges, Position position) {
+        int low = 0;
+        int high = edges.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Range range = edges.get(middle).range;
+            if (compare(position, range.getStart()) < 0) {
+                high = middle - 1;
+            } else if (compare(position, range.getEnd()) > 0) {
+                low = middle + 1;
+            } else {
+                return edges.get(middle);
+            }
+        }
+        return null;
+    }
+
+    private static int compare(Position first, Position second) {
+        return first.getLine() != second.getLine()
+                ? Integer.compare(first.getLine(), second.getLine())
+                : Integer.compare(first.getCharacter(), second.getCharacter());
+    }
+
+    /**
+     * Resolve a $ref value to the referred file and JSON pointer.
+     * ex: #/definitions/Pet, common.yaml#/definitions/Error, common.yaml and Pet (short form of #/definitions/Pet)
+     *
+     * @param source                File making the reference
+     * @param value                 Reference value
+     * @return {@link SymbolKey}    Referred symbol or null if the reference is remote or invalid
+     */
+    static SymbolKey resolve(Path source, String value) {
+        if (value == null || value.isEmpty() || value.contains("://")) {
+            return null;
+        }
+        int hash = value.indexOf('#');
+        String file = hash < 0 ? value : value.substring(0, hash);
+        String pointer = hash < 0 ? "" : decode(value.substring(hash + 1));
+        if (hash < 0 && file.indexOf('/') < 0 && file.indexOf('.') < 0) {
+            return new SymbolKey(source, DEFINITIONS_POINTER + value.replace("~", "~0"));
+        }
+        if (file.isEmpty()) {
+            return new SymbolKey(source, pointer);
+        }
+        try {
+            Path parent = source.getParent();
+            Path target = parent == null ? source.resolveSibling(decode(file)) : parent.resolve(decode(file));
+            return new SymbolKey(target.normalize(), pointer);
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decode the percent encoded characters of a reference.
+     */
+    private static String decode(String value) {
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' && i + 2 < value.length() && Character.digit(value.charAt(i + 1), 16) >= 0
+                    && Character.digit(value.charAt(i + 2), 16) >= 0) {
+                bytes.write(Integer.parseInt(value.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                byte[] encoded = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+                bytes.write(encoded, 0, encoded.length);
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Symbol which can be referred, identified by the file and the JSON pointer within the file.
+     */
+    static class SymbolKey {
+        private final Path file;
+        private final String pointer;
+
+        SymbolKey(Path file, String pointer) {
+            this.file = file;
+            this.pointer = pointer;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof SymbolKey)) {
+                return false;
+            }
+            SymbolKey key = (SymbolKey) other;
+            return file.equals(key.file) && pointer.equals(key.pointer);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, pointer);
+        }
+    }
+
+    /**
+     * Range of a file referring or declaring a symbol.
+     */
+    private static class Edge {
+        private final String uri;
+        private final Range range;
+        private final SymbolKey target;
+
+        private Edge(String uri, Range range, SymbolKey target) {
+            this.uri = uri;
+            this.range = range;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Edges of a file, in the document order.
+     */
+    private static class FileEntry {
+        private final List<Edge> outgoing;
+        private final List<Edge> declared;
+
+        private FileEntry(List<Edge> outgoing, List<Edge> declared) {
+            this.outgoing = outgoing;
+            this.declared = declared;
+        }
+    }
+}
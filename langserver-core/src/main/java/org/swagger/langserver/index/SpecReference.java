@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.eclipse.lsp4j.Range;
+
+/**
+ * A $ref made from a spec file.
+ */
+public class SpecReference {
+
+    private final String value;
+
+    private final Range range;
+
+    SpecReference(String value, Range range) {
+        this.value = value;
+        this.range = range;
+    }
+
+    /**
+     * Get the value of the $ref (ex: #/definitions/Pet, common.yaml#/definitions/Error).
+     *
+     * @return {@link String} Reference value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Get the range of the reference value within the file.
+     *
+     * @return {@link Range} Value range
+     */
+    public Range getRange() {
+        return range;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolKind;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scans a spec file for the declarations and the $ref values, visiting the parser events without building the node
+ * tree.
+ *
+ * Reusable definitions, parameters and responses are declared under the top level sections of a Swagger 2.0 spec and
+ * under the components section of an OpenAPI 3.x spec, while the operations are declared with the operationId field.
+ */
+class SpecScanner {
+
+    private static final Set<String> VERSION_FIELDS = new HashSet<>(Arrays.asList("swagger", "openapi"));
+
+    private static final String COMPONENTS = "components";
+
+    private static final String PATHS = "paths";
+
+    private static final String OPERATION_ID = "operationId";
+
+    private static final String REF = "$ref";
+
+    /**
+     * Kinds of the symbols declared in each reusable section.
+     */
+    private static final Map<String, SymbolKind> SECTIONS = new HashMap<>();
+
+    /**
+     * Kinds of the symbols declared in each reusable section of the components.
+     */
+    private static final Map<String, SymbolKind> COMPONENT_SECTIONS = new HashMap<>();
+
+    static {
+        SECTIONS.put("definitions", SymbolKind.Class);
+        SECTIONS.put("parameters", SymbolKind.Field);
+        SECTIONS.put("responses", SymbolKind.Interface);
+
+        COMPONENT_SECTIONS.put("schemas", SymbolKind.Class);
+        COMPONENT_SECTIONS.put("parameters", SymbolKind.Field);
+        COMPONENT_SECTIONS.put("responses", SymbolKind.Interface);
+        COMPONENT_SECTIONS.put("requestBodies", SymbolKind.Interface);
+        COMPONENT_SECTIONS.put("headers", SymbolKind.Field);
+        COMPONENT_SECTIONS.put("examples", SymbolKind.Constant);
+        COMPONENT_SECTIONS.put("securitySchemes", SymbolKind.Key);
+        COMPONENT_SECTIONS.put("links", SymbolKind.Interface);
+        COMPONENT_SECTIONS.put("callbacks", SymbolKind.Event);
+    }
+
+    private final List<Frame> frames = new ArrayList<>();
+
+    private final List<SpecSymbol> symbols = new ArrayList<>();
+
+    private final List<SpecReference> references = new ArrayList<>();
+
+    private boolean spec;
+
+    private SpecScanner() {
+    }
+
+    /**
+     * Scan the given content. Content after a syntax error is ignored.
+     *
+     * @param path                  Path of the file
+     * @param version               Version of the open document or -1 if the content is read from the disk
+     * @param reader                Reader of the file content
+     * @return {@link SpecSummary}  Summary of the declarations and the references
+     */
+    static SpecSummary scan(Path path, int version, Reader reader) {
+        SpecScanner scanner = new SpecScanner();
+        Parser parser = new ParserImpl(new StreamReader(reader));
+        try {
+            while (!parser.checkEvent(Event.ID.StreamEnd)) {
+                scanner.visit(parser.getEvent());
+            }
+        } catch (YAMLException e) {
+            // Keep the declarations found before the error
+        }
+        return new SpecSummary(path, version, scanner.spec, scanner.symbols, scanner.references);
+    }
+
+    // Private methods
+
+    private void visit(Event event) {
+        if (event instanceof CollectionStartEvent) {
+            frames.add(new Frame(event.is(Event.ID.MappingStart)));
+        } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+            frames.remove(frames.size() - 1);
+            valueVisited();
+        } else if (event.is(Event.ID.Scalar) && !frames.isEmpty()) {
+            Frame current = frames.get(frames.size() - 1);
+            if (current.mapping && current.expectingKey) {
+                current.key = ((ScalarEvent) event).getValue();
+                current.expectingKey = false;
+                keyVisited((ScalarEvent) event);
+            } else {
+                if (OPERATION_ID.equals(current.key)) {
+                    operationIdVisited((ScalarEvent) event);
+                } else if (REF.equals(current.key) && current.mapping) {
+                    references.add(new SpecReference(((ScalarEvent) event).getValue(), getRange(event)));
+                }
+                valueVisited();
+            }
+        } else if (event.is(Event.ID.Alias)) {
+            valueVisited();
+        }
+    }
+
+    private void keyVisited(ScalarEvent event) {
+        int depth = frames.size();
+        if (depth == 1 && VERSION_FIELDS.contains(event.getValue())) {
+            spec = true;
+        } else if (depth == 2 && isMapping(0) && SECTIONS.containsKey(frames.get(0).key)) {
+            String section = frames.get(0).key;
+            symbols.add(new SpecSymbol(event.getValue(), SECTIONS.get(section), section, getRange(event),
+                    getPointer(section, event.getValue())));
+        } else if (depth == 3 && isMapping(0) && isMapping(1) && COMPONENTS.equals(frames.get(0).key)
+                && COMPONENT_SECTIONS.containsKey(frames.get(1).key)) {
+            String section = frames.get(1).key;
+            symbols.add(new SpecSymbol(event.getValue(), COMPONENT_SECTIONS.get(section), COMPONENTS + "/" + section,
+                    getRange(event), getPointer(COMPONENTS, section, event.getValue())));
+        }
+    }
+
+    private void operationIdVisited(ScalarEvent event) {
+        // paths -> path -> method -> operationId
+        if (frames.size() == 4 && isMapping(0) && isMapping(1) && isMapping(2) && PATHS.equals(frames.get(0).key)) {
+            String container = frames.get(2).key.toUpperCase(Locale.ENGLISH) + " " + frames.get(1).key;
+            symbols.add(new SpecSymbol(event.getValue(), SymbolKind.Method, container, getRange(event), null));
+        }
+    }
+
+    private void valueVisited() {
+        if (!frames.isEmpty()) {
+            frames.get(frames.size() - 1).expectingKey = true;
+        }
+    }
+
+    private boolean isMapping(int index) {
+        return frames.get(index).mapping && frames.get(index).key != null;
+    }
+
+    /**
+     * Get the JSON pointer of the given keys, escaping the keys as in RFC 6901.
+     */
+    private static String getPointer(String... keys) {
+        StringBuilder pointer = new StringBuilder();
+        for (String key : keys) {
+            pointer.append('/').append(key.replace("~", "~0").replace("/", "~1"));
+        }
+        return pointer.toString();
+    }
+
+    private static Range getRange(Event event) {
+        return new Range(new Position(event.getStartMark().getLine(), event.getStartMark().getColumn()),
+                new Position(event.getEndMark().getLine(), event.getEndMark().getColumn()));
+    }
+
+    /**
+     * Collection which is open at the current event.
+     */
+    private static class Frame {
+        private final boolean mapping;
+        private boolean expectingKey = true;
+        private String key;
+
+        private Frame(boolean mapping) {
+            this.mapping = mapping;
+        }
+    }
+}
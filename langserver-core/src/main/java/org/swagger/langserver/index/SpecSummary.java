@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of the declarations of a spec file, which is all the workspace index keeps for a file.
+ */
+public class SpecSummary {
+
+    private final Path path;
+
+    private final String uri;
+
+    private final boolean spec;
+
+    private final List<SpecSymbol> symbols;
+
+    private final List<SpecReference> references;
+
+    private final int version;
+
+    SpecSummary(Path path, int version, boolean spec, List<SpecSymbol> symbols, List<SpecReference> references) {
+        this.path = path;
+        this.uri = path.toUri().toString();
+        this.version = version;
+        this.spec = spec;
+        this.symbols = Collections.unmodifiableList(symbols);
+        this.references = Collections.unmodifiableList(references);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * Get the version of the open document the summary was scanned from.
+     *
+     * @return {@link Integer} Document version or -1 if the summary was scanned from the disk
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Check whether the file is a Swagger or an OpenAPI specification, rather than an arbitrary yaml or json file.
+     *
+     * @return {@link Boolean} Whether a swagger or openapi version field was found at the top level
+     */
+    public boolean isSpec() {
+        return spec;
+    }
+
+    /**
+     * Get the symbols declared in the file, in the order of declaration.
+     *
+     * @return {@link List} Unmodifiable list of symbols
+     */
+    public List<SpecSymbol> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Get the references made from the file, in the order of appearance.
+     *
+     * @return {@link List} Unmodifiable list of references
+     */
+    public List<SpecReference> getReferences() {
+        return references;
+    }
+}
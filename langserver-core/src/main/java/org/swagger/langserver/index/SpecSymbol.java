@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * Named entity declared in a spec file, such as a definition or an operation.
+ */
+public class SpecSymbol {
+
+    private final String name;
+
+    private final SymbolKind kind;
+
+    private final String containerName;
+
+    private final Range range;
+
+    private final String pointer;
+
+    public SpecSymbol(String name, SymbolKind kind, String containerName, Range range, String pointer) {
+        this.name = name;
+        this.kind = kind;
+        this.containerName = containerName;
+        this.range = range;
+        this.pointer = pointer;
+    }
+
+    /**
+     * Get the name of the symbol (ex: definition name, operationId).
+     *
+     * @return {@link String} Symbol name
+     */
+    public String getName() {
+        return name;
+    }
+
+    public SymbolKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the name of the section declaring the symbol (ex: definitions, GET /pets).
+     *
+     * @return {@link String} Container name
+     */
+    public String getContainerName() {
+        return containerName;
+    }
+
+    /**
+     * Get the range of the symbol name within the file.
+     *
+     * @return {@link Range} Name range
+     */
+    public Range getRange() {
+        return range;
+    }
+
+    /**
+     * Get the JSON pointer referring the symbol within the file, as used in a $ref (ex: /definitions/Pet).
+     *
+     * @return {@link String} JSON pointer or null if the symbol cannot be referred (ex: operations)
+     */
+    public String getPointer() {
+        return pointer;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.swagger.langserver.metrics.Metrics;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Summaries of the files scanned from the disk, shared by the workspace indexers of the language server sessions so
+ * that a file is scanned once regardless of the number of sessions indexing it.
+ *
+ * A summary is valid as long as the size and the modification time of the file do not change. A file touched without
+ * changing its content (ex: by a checkout) keeps its summary when the content hash matches. Summaries are immutable,
+ * hence the indexers use the cached instances as they are. The summaries of a workspace folder are persisted to a
+ * snapshot, so that a restart only scans the files changed in the meantime.
+ */
+public class SummaryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SummaryCache.class);
+
+    private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get the summary of the given file scanned from the disk.
+     *
+     * @param path                  Normalized path of the file
+     * @param size                  Current size of the file in bytes
+     * @param lastModified          Current modification time of the file in milliseconds
+     * @param hash                  Supplier of the current content hash, used only if the modification time differs
+     * @return {@link SpecSummary}  Summary or null if the file has not been scanned at its current state
+     */
+    SpecSummary get(Path path, long size, long lastModified, LongSupplier hash) {
+        Entry entry = entries.get(path);
+        SpecSummary summary = null;
+        if (entry != null && entry.size == size) {
+            if (entry.lastModified == lastModified) {
+                summary = entry.summary;
+            } else if (entry.hash == hash.getAsLong()) {
+                summary = entry.summary;
+                entries.replace(path, entry, new Entry(size, lastModified, entry.hash, summary));
+            }
+        }
+        Metrics.recordLookup("summary", summary != null);
+        return summary;
+    }
+
+    /**
+     * Add the summary of the given file scanned from the disk, replacing any summary of the file.
+     *
+     * @param size          Size of the file in bytes when it was scanned
+     * @param lastModified  Modification time of the file in milliseconds when it was scanned
+     * @param hash          Hash of the scanned content
+     * @param summary       Summary of the file
+     */
+    void put(long size, long lastModified, long hash, SpecSummary summary) {
+        entries.put(summary.getPath(), new Entry(size, lastModified, hash, summary));
+    }
+
+    /**
+     * Drop the summary of the given file, when the file is reported as changed or deleted.
+     *
+     * @param path Normalized path of the file
+     */
+    void invalidate(Path path) {
+        entries.remove(path);
+    }
+
+    /**
+     * Add the summaries persisted in the snapshot of a workspace folder, keeping the summaries already in the cache.
+     * A missing or an unreadable snapshot is ignored.
+     *
+     * @param root      Normalized path of the workspace folder
+     * @param snapshot  Path of the snapshot
+     */
+    void load(Path root, Path snapshot) {
+        try (Metrics.Sample ignored = Metrics.start("index/loadSnapshot")) {
+            for (Entry entry : SummarySnapshot.read(root, snapshot)) {
+                entries.putIfAbsent(entry.summary.getPath(), entry);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Cannot read the index snapshot: " + snapshot.toString(), e);
+        }
+    }
+
+    /**
+     * Persist the summaries of the files within a workspace folder to its snapshot.
+     *
+     * @param root      Normalized path of the workspace folder
+     * @param snapshot  Path of the snapshot
+     */
+    void save(Path root, Path snapshot) {
+        List<Entry> rootEntries = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.summary.getPath().startsWith(root)) {
+                rootEntries.add(entry);
+            }
+        }
+        try (Metrics.Sample ignored = Metrics.start("index/saveSnapshot")) {
+            SummarySnapshot.write(root, snapshot, rootEntries);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Cannot write the index snapshot: " + snapshot.toString(), e);
+        }
+    }
+
+    /**
+     * Get the statistics of the cache.
+     *
+     * @return {@link Map} Entry count by name
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("entries", entries.size());
+        return statistics;
+    }
+
+    /**
+     * Summary along with the state of the file it was scanned from.
+     */
+    static class Entry {
+        final long size;
+        final long lastModified;
+        final long hash;
+        final SpecSummary summary;
+
+        Entry(long size, long lastModified, long hash, SpecSummary summary) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.summary = summary;
+        }
+    }
+
+    /**
+     * Reader computing the 64 bit FNV-1a hash of the characters read through it.
+     */
+    static class HashingReader extends FilterReader {
+        private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long PRIME = 0x100000001b3L;
+
+        private long hash = OFFSET_BASIS;
+
+        HashingReader(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                update((char) c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            for (int i = 0; i < count; i++) {
+                update(buffer[offset + i]);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            char[] buffer = new char[(int) Math.min(count, 8192)];
+            long skipped = 0;
+            int read;
+            while (skipped < count && (read = read(buffer, 0, (int) Math.min(buffer.length, count - skipped))) >= 0) {
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        /**
+         * Read the rest of the content, so that the hash covers the whole content.
+         *
+         * @return {@link Long} Hash of the whole content
+         * @throws IOException Error reading the content
+         */
+        long finish() throws IOException {
+            skip(Long.MAX_VALUE);
+            return hash;
+        }
+
+        private void update(char c) {
+            hash = (hash ^ (c & 0xff)) * PRIME;
+            hash = (hash ^ (c >>> 8)) * PRIME;
+        }
+    }
+}
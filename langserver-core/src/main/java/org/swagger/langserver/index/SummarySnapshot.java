@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolKind;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the summaries of a workspace folder, read through a memory mapping.
+ *
+ * Layout, in big endian: a header (magic, format version), a table of the distinct strings as UTF-8, and the entries.
+ * An entry holds the file path relative to the workspace folder, the size, the modification time and the content hash
+ * of the file, followed by the symbols and the references of the summary. Strings are written as indices to the
+ * table, since the section names and the reference values repeat across the files.
+ */
+final class SummarySnapshot {
+
+    private static final int MAGIC = 0x53574C49;
+
+    /**
+     * Version of the layout, to be incremented on any change so that the older snapshots are ignored.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int NO_STRING = -1;
+
+    private SummarySnapshot() {
+    }
+
+    /**
+     * Read the entries of a snapshot.
+     *
+     * @param root          Normalized path of the workspace folder
+     * @param snapshot      Path of the snapshot
+     * @return {@link List} Entries or an empty list if the snapshot does not exist or has an older format
+     * @throws IOException  Error reading the snapshot
+     */
+    static List<SummaryCache.Entry> read(Path root, Path snapshot) throws IOException {
+        List<SummaryCache.Entry> entries = new ArrayList<>();
+        if (!Files.isRegularFile(snapshot)) {
+            return entries;
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return entries;
+        }
+        String[] strings = new String[getCount(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Invalid string length in the index snapshot: " + length);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int entryCount = getCount(buffer);
+        for (int i = 0; i < entryCount; i++) {
+            Path path = root.resolve(getString(buffer, strings)).normalize();
+            long size = buffer.getLong();
+            long lastModified = buffer.getLong();
+            long hash = buffer.getLong();
+            boolean spec = buffer.get() != 0;
+            List<SpecSymbol> symbols = new ArrayList<>();
+            for (int count = getCount(buffer); count > 0; count--) {
+                String name = getString(buffer, strings);
+                SymbolKind kind = SymbolKind.forValue(buffer.getInt());
+                String containerName = getString(buffer, strings);
+                String pointer = getString(buffer, strings);
+                symbols.add(new SpecSymbol(name, kind, containerName, getRange(buffer), pointer));
+            }
+            List<SpecReference> references = new ArrayList<>();
+            for (int count = getCount(buffer); count > 0; count--) {
+                String value = getString(buffer, strings);
+                references.add(new SpecReference(value, getRange(buffer)));
+            }
+            entries.add(new SummaryCache.Entry(size, lastModified, hash,
+                    new SpecSummary(path, -1, spec, symbols, references)));
+        }
+        return entries;
+    }
+
+    /**
+     * Write the given entries to a snapshot, replacing the snapshot atomically.
+     *
+     * @param root          Normalized path of the workspace folder, which contains the files of the entries
+     * @param snapshot      Path of the snapshot
+     * @param entries       Entries to be written
+     * @throws IOException  Error writing the snapshot
+     */
+    static void write(Path root, Path snapshot, List<SummaryCache.Entry> entries) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        for (SummaryCache.Entry entry : entries) {
+            addString(strings, table, getRelativePath(root, entry.summary.getPath()));
+            for (SpecSymbol symbol : entry.summary.getSymbols()) {
+                addString(strings, table, symbol.getName());
+                addString(strings, table, symbol.getContainerName());
+                addString(strings, table, symbol.getPointer());
+            }
+            for (SpecReference reference : entry.summary.getReferences()) {
+                addString(strings, table, reference.getValue());
+            }
+        }
+
+        Files.createDirectories(snapshot.getParent());
+        Path ignore = snapshot.getParent().resolve(".gitignore");
+        if (!Files.exists(ignore)) {
+            // Keep the snapshot directory out of the version control of the workspace
+            Files.write(ignore, "*\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Path temporary = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(table.size());
+                for (String string : table) {
+                    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                out.writeInt(entries.size());
+                for (SummaryCache.Entry entry : entries) {
+                    SpecSummary summary = entry.summary;
+                    out.writeInt(strings.get(getRelativePath(root, summary.getPath())));
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.lastModified);
+                    out.writeLong(entry.hash);
+                    out.writeBoolean(summary.isSpec());
+                    out.writeInt(summary.getSymbols().size());
+                    for (SpecSymbol symbol : summary.getSymbols()) {
+                        writeString(out, strings, symbol.getName());
+                        out.writeInt(symbol.getKind().getValue());
+                        writeString(out, strings, symbol.getContainerName());
+                        writeString(out, strings, symbol.getPointer());
+                        writeRange(out, symbol.getRange());
+                    }
+                    out.writeInt(summary.getReferences().size());
+                    for (SpecReference reference : summary.getReferences()) {
+                        writeString(out, strings, reference.getValue());
+                        writeRange(out, reference.getRange());
+                    }
+                }
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Private methods
+
+    private static String getRelativePath(Path root, Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    /**
+     * Read the count of a table of the snapshot. Each counted item takes at least four bytes, hence a larger count
+     * is a truncated or corrupted snapshot.
+     */
+    private static int getCount(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / 4) {
+            throw new IOException("Invalid count in the index snapshot: " + count);
+        }
+        return count;
+    }
+
+    private static void addString(Map<String, Integer> strings, List<String> table, String string) {
+        if (string != null && !strings.containsKey(string)) {
+            strings.put(string, table.size());
+            table.add(string);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, Map<String, Integer> strings, String string)
+            throws IOException {
+        out.writeInt(string == null ? NO_STRING : strings.get(string));
+    }
+
+    private static String getString(ByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        return index == NO_STRING ? null : strings[index];
+    }
+
+    private static void writeRange(DataOutputStream out, Range range) throws IOException {
+        out.writeInt(range.getStart().getLine());
+        out.writeInt(range.getStart().getCharacter());
+        out.writeInt(range.getEnd().getLine());
+        out.writeInt(range.getEnd().getCharacter());
+    }
+
+    private static Range getRange(ByteBuffer buffer) {
+        Position start = new Position(buffer.getInt(), buffer.getInt());
+        return new Range(start, new Position(buffer.getInt(), buffer.getInt()));
+    }
+}
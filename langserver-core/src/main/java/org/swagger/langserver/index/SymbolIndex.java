@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.SymbolInformation;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+
+/**
+ * Inverted index of the symbols declared in the workspace spec files.
+ *
+ * Symbols are indexed by the lower case name and by each word of the name (ex: get, pet, by, id of getPetById), both in
+ * sorted maps, hence a prefix query is a range lookup. Queries which match no prefix fall back to a fuzzy match, where
+ * the query characters have to appear in the name in order.
+ *
+ * Updates are serialized, while the queries run concurrently without locking.
+ */
+public class SymbolIndex {
+
+    /**
+     * Ranks of the matches, lower is better.
+     */
+    private static final int EXACT_MATCH = 0;
+
+    private static final int PREFIX_MATCH = 1;
+
+    private static final int WORD_MATCH = 2;
+
+    private static final int FUZZY_MATCH = 3;
+
+    private final ConcurrentHashMap<Path, SpecSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Lower case symbol name to the symbols with the name.
+     */
+    private final ConcurrentSkipListMap<String, Set<IndexedSymbol>> names = new ConcurrentSkipListMap<>();
+
+    /**
+     * Lower case word to the lower case symbol names containing the word.
+     */
+    private final ConcurrentSkipListMap<String, Set<String>> words = new ConcurrentSkipListMap<>();
+
+    /**
+     * Replace the symbols of a file with the symbols of the given summary.
+     *
+     * @param summary Summary of the file
+     */
+    public synchronized void update(SpecSummary summary) {
+        remove(summary.getPath());
+        summaries.put(summary.getPath(), summary);
+        for (SpecSymbol symbol : summary.getSymbols()) {
+            String name = symbol.getName().toLowerCase(Locale.ENGLISH);
+            names.computeIfAbsent(name, key -> ConcurrentHashMap.newKeySet()).add(new IndexedSymbol(summary, symbol));
+            for (String word : NameMatcher.getWords(symbol.getName())) {
+                words.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(name);
+            }
+        }
+    }
+
+    /**
+     * Remove the symbols of a file.
+     *
+     * @param path Path of the file
+     */
+    public synchronized void remove(Path path) {
+        SpecSummary summary = summaries.remove(path);
+        if (summary == null) {
+            return;
+        }
+        for (SpecSymbol symbol : summary.getSymbols()) {
+            String name = symbol.getName().toLowerCase(Locale.ENGLISH);
+            Set<IndexedSymbol> symbols = names.get(name);
+            if (symbols == null) {
+                continue;
+            }
+            symbols.removeIf(indexed -> indexed.summary == summary);
+            if (symbols.isEmpty()) {
+                names.remove(name);
+                for (String word : NameMatcher.getWords(symbol.getName())) {
+                    Set<String> wordNames = words.get(word);
+                    if (wordNames != null && wordNames.remove(name) && wordNames.isEmpty()) {
+                        words.remove(word);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the summary of an indexed file.
+     *
+     * @param path                  Path of the file
+     * @return {@link SpecSummary}  Summary or null if the file is not indexed
+     */
+    public SpecSummary getSummary(Path path) {
+        return summaries.get(path);
+    }
+
+    /**
+     * Get the number of indexed files.
+     *
+     * @return {@link Integer} File count
+     */
+    public int size() {
+        return summaries.size();
+    }
+
+    /**
+     * Find the symbols matching the given query, best matches first.
+     *
+     * @param query             Query typed by the user, matched case insensitively
+     * @param limit             Maximum number of symbols to return
+     * @return {@link List}     Matching symbols
+     */
+    public List<SymbolInformation> search(String query, int limit) {
+        return search(query, limit, (summary, symbol) -> new SymbolInformation(symbol.getName(), symbol.getKind(),
+                new Location(summary.getUri(), symbol.getRange()), symbol.getContainerName()));
+    }
+
+    /**
+     * Find the symbols matching the given query, best matches first, and map them along with the declaring files.
+     *
+     * @param query             Query typed by the user, matched case insensitively
+     * @param limit             Maximum number of results to return
+     * @param mapper            Maps a symbol and the summary of its file to a result, or to null to skip the symbol
+     * @param <T>               Result type
+     * @return {@link List}     Mapped results
+     */
+    public <T> List<T> search(String query, int limit, BiFunction<SpecSummary, SpecSymbol, T> mapper) {
+        String lowerQuery = query == null ? "" : query.trim().toLowerCase(Locale.ENGLISH);
+        Map<String, Integer> ranks = new HashMap<>();
+        for (String name : getPrefixRange(names, lowerQuery).keySet()) {
+            ranks.put(name, name.equals(lowerQuery) ? EXACT_MATCH : PREFIX_MATCH);
+            if (ranks.size() >= limit) {
+                break;
+            }
+        }
+        if (ranks.size() < limit && !lowerQuery.isEmpty()) {
+            for (Set<String> wordNames : getPrefixRange(words, lowerQuery).values()) {
+                for (String name : wordNames) {
+                    ranks.putIfAbsent(name, WORD_MATCH);
+                }
+                if (ranks.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        if (ranks.size() < limit && !lowerQuery.isEmpty()) {
+            for (String name : names.keySet()) {
+                int gaps = ranks.containsKey(name) ? -1 : NameMatcher.getFuzzyGaps(lowerQuery, name);
+                if (gaps >= 0) {
+                    ranks.put(name, FUZZY_MATCH + gaps);
+                }
+            }
+        }
+
+        List<String> rankedNames = new ArrayList<>(ranks.keySet());
+        rankedNames.sort(Comparator.<String>comparingInt(ranks::get).thenComparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder()));
+        List<T> result = new ArrayList<>();
+        for (String name : rankedNames) {
+            for (IndexedSymbol indexed : names.getOrDefault(name, Collections.emptySet())) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                T mapped = mapper.apply(indexed.summary, indexed.symbol);
+                if (mapped != null) {
+                    result.add(mapped);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Private methods
+
+    private static <V> NavigableMap<String, V> getPrefixRange(NavigableMap<String, V> map, String prefix) {
+        return prefix.isEmpty() ? map : map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Symbol along with the file declaring it.
+     */
+    private static class IndexedSymbol {
+        private final SpecSummary summary;
+        private final SpecSymbol symbol;
+
+        private IndexedSymbol(SpecSummary summary, SpecSymbol symbol) {
+            this.summary = summary;
+            this.symbol = symbol;
+        }
+    }
+}
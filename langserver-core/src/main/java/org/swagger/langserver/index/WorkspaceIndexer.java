@@ -0,0 +1,510 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.swagger.langserver.DocumentManager;
+import org.swagger.langserver.document.TextDocument;
+import org.swagger.langserver.document.TextDocumentReader;
+import org.swagger.langserver.metrics.Metrics;
+import org.swagger.langserver.scheduler.RequestScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the workspace index up to date with the spec files on the disk.
+ *
+ * The workspace folders are crawled once on the background pool, where a task per background thread takes the files
+ * from a shared queue, so that the files are scanned in parallel without flooding the queue of the pool. Afterwards,
+ * only the files reported by the file watcher are scanned again, by a single task draining the changed files.
+ * Open documents are indexed from the editor content instead of the disk, shortly after they stop changing.
+ *
+ * The summaries scanned from the disk are shared with the indexers of the other sessions through the summary cache,
+ * while the symbol index and the reference graph are kept per session since they include the open documents.
+ */
+public class WorkspaceIndexer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkspaceIndexer.class);
+
+    private static final Set<String> SPEC_EXTENSIONS = new HashSet<>(Arrays.asList("yaml", "yml", "json"));
+
+    private static final Set<String> EXCLUDED_DIRECTORIES = new HashSet<>(Arrays.asList("node_modules", "target",
+            "build", "out", "dist"));
+
+    /**
+     * Files larger than this are not specs edited by hand (ex: generated bundles), hence not indexed.
+     */
+    private static final long MAX_FILE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Quiet period after the last change of an open document, before indexing it again.
+     */
+    private static final long DOCUMENT_DELAY_MILLIS = 300;
+
+    /**
+     * Delay of the workspace crawl after the server is initialized, so that the crawl does not compete with the first
+     * requests of the editor. The crawl starts earlier if the index is used in the meantime.
+     */
+    private static final long CRAWL_DELAY_MILLIS = 2000;
+
+    /**
+     * System property to disable the index snapshots of the workspace folders.
+     */
+    public static final String SNAPSHOT_PROPERTY = "swagger.ls.indexSnapshot";
+
+    /**
+     * Path of the index snapshot relative to a workspace folder. Hidden folders are not crawled.
+     */
+    private static final String SNAPSHOT_PATH = ".swagger-ls/index.bin";
+
+    private final RequestScheduler scheduler;
+
+    private final DocumentManager documentManager;
+
+    private final SummaryCache summaryCache;
+
+    private final SymbolIndex symbolIndex = new SymbolIndex();
+
+    private final ReferenceGraph referenceGraph = new ReferenceGraph();
+
+    /**
+     * Latest summary of each scanned file, including the files which are not specs.
+     */
+    private final ConcurrentHashMap<Path, SpecSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Pending indexing of each changed open document.
+     */
+    private final ConcurrentHashMap<Path, ScheduledFuture<?>> pendingDocuments = new ConcurrentHashMap<>();
+
+    /**
+     * Files changed on the disk, waiting to be indexed again.
+     */
+    private final Set<Path> changedFiles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether a task indexing the changed files is submitted and has not started yet.
+     */
+    private final AtomicBoolean changesPending = new AtomicBoolean();
+
+    /**
+     * Workspace folders waiting to be crawled, or null once the crawl has started.
+     */
+    private final AtomicReference<List<Path>> pendingRoots = new AtomicReference<>();
+
+    /**
+     * Crawled workspace folders, of which the index snapshots are saved.
+     */
+    private volatile List<Path> roots = Collections.emptyList();
+
+    public WorkspaceIndexer(RequestScheduler scheduler, DocumentManager documentManager, SummaryCache summaryCache) {
+        this.scheduler = scheduler;
+        this.documentManager = documentManager;
+        this.summaryCache = summaryCache;
+    }
+
+    public SymbolIndex getSymbolIndex() {
+        crawlPending();
+        return symbolIndex;
+    }
+
+    public ReferenceGraph getReferenceGraph() {
+        crawlPending();
+        return referenceGraph;
+    }
+
+    /**
+     * Crawl the given workspace folders after a delay, or on the first use of the index if it is earlier.
+     *
+     * @param roots Workspace folders
+     */
+    public void crawlLater(List<Path> roots) {
+        pendingRoots.set(roots);
+        scheduler.scheduleBackground(this::crawlPending, CRAWL_DELAY_MILLIS);
+    }
+
+    /**
+     * Crawl the given workspace folders in the background and index the spec files. Files unchanged since the index
+     * snapshot of a folder was saved are indexed from the snapshot, without scanning them.
+     *
+     * @param roots                         Workspace folders
+     * @return {@link CompletableFuture}    Completed when all the files are indexed, or exceptionally if an indexing
+     *                                      task could not be run
+     */
+    public CompletableFuture<Void> crawl(List<Path> roots) {
+        List<Path> normalizedRoots = new ArrayList<>();
+        for (Path root : roots) {
+            normalizedRoots.add(normalize(root));
+        }
+        this.roots = normalizedRoots;
+        return scheduler.computeBackground(cancelChecker -> {
+            if (isSnapshotEnabled()) {
+                for (Path root : normalizedRoots) {
+                    summaryCache.load(root, root.resolve(SNAPSHOT_PATH));
+                }
+            }
+            return findSpecFiles(normalizedRoots);
+        }).thenCompose(files -> {
+            LOGGER.debug("Indexing " + files.size() + " files of the workspace");
+            Queue<Path> queue = new ConcurrentLinkedQueue<>(files);
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[Math.min(files.size(),
+                    scheduler.getBackgroundThreads())];
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = scheduler.computeBackground(cancelChecker -> {
+                    for (Path file = queue.poll(); file != null; file = queue.poll()) {
+                        index(file);
+                    }
+                    return null;
+                });
+            }
+            return CompletableFuture.allOf(tasks);
+        }).whenComplete((result, error) -> {
+            // The files of a worker dropped by a saturated pool are indexed by the other workers, which share the queue
+            if (error != null) {
+                LOGGER.error("Error while indexing the workspace", error);
+            }
+            Metrics.recordMilestone("workspaceIndexed");
+            saveSnapshots();
+        });
+    }
+
+    /**
+     * Save the index snapshots of the crawled workspace folders, with the summaries of the files on the disk.
+     */
+    public void saveSnapshots() {
+        if (!isSnapshotEnabled()) {
+            return;
+        }
+        for (Path root : roots) {
+            summaryCache.save(root, root.resolve(SNAPSHOT_PATH));
+        }
+    }
+
+    /**
+     * Index a created or changed file again, in the background.
+     *
+     * @param path Path of the file
+     */
+    public void fileChanged(Path path) {
+        if (isSpecFile(path)) {
+            // The change may not have altered the size and the modification time
+            Path normalizedPath = normalize(path);
+            summaryCache.invalidate(normalizedPath);
+            indexLater(normalizedPath);
+        }
+    }
+
+    /**
+     * Remove a deleted file from the index.
+     *
+     * @param path Path of the file
+     */
+    public void fileDeleted(Path path) {
+        Path normalizedPath = normalize(path);
+        summaryCache.invalidate(normalizedPath);
+        if (!documentManager.isFileOpen(normalizedPath)) {
+            remove(normalizedPath);
+        }
+    }
+
+    /**
+     * Index an open document again after it stops changing, replacing the pending indexing of the document.
+     *
+     * @param path Path of the document
+     */
+    public void documentChanged(Path path) {
+        Path normalizedPath = normalize(path);
+        ScheduledFuture<?> previous = pendingDocuments.put(normalizedPath, scheduler.scheduleBackground(
+                () -> indexDocument(normalizedPath), DOCUMENT_DELAY_MILLIS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    /**
+     * Index a closed document from the disk again, since the editor content may not have been saved.
+     *
+     * @param path Path of the document
+     */
+    public void documentClosed(Path path) {
+        Path normalizedPath = normalize(path);
+        ScheduledFuture<?> pending = pendingDocuments.remove(normalizedPath);
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        indexLater(normalizedPath);
+    }
+
+    /**
+     * Index an open document right away if the index is behind the current version of the document, so that the
+     * positions of a request match the index.
+     *
+     * @param path Path of the document
+     */
+    public void ensureCurrent(Path path) {
+        Path normalizedPath = normalize(path);
+        TextDocument document = documentManager.getDocument(normalizedPath);
+        SpecSummary summary = summaries.get(normalizedPath);
+        if (document != null && (summary == null || summary.getVersion() != document.getVersion())) {
+            indexDocument(normalizedPath);
+        }
+    }
+
+    /**
+     * Get the $ref values pointing to the declarations matching the given query, local declarations of the source
+     * file first, followed by the best matching declarations of the other files.
+     * ex: #/definitions/Pet, common.yaml#/responses/NotFound
+     *
+     * @param source            Path of the file containing the reference
+     * @param query             Name of the declaration typed by the user
+     * @param limit             Maximum number of declarations of the other files
+     * @return {@link List}     Reference values
+     */
+    public List<String> getReferenceTargets(Path source, String query, int limit) {
+        crawlPending();
+        Path normalizedSource = normalize(source);
+        List<String> targets = new ArrayList<>();
+        SpecSummary summary = summaries.get(normalizedSource);
+        if (summary != null) {
+            for (SpecSymbol symbol : summary.getSymbols()) {
+                if (symbol.getPointer() != null) {
+                    targets.add("#" + symbol.getPointer());
+                }
+            }
+        }
+        Path directory = normalizedSource.getParent();
+        if (query.isEmpty() || directory == null) {
+            return targets;
+        }
+        BiFunction<SpecSummary, SpecSymbol, String> toTarget = (declaring, symbol) -> {
+            if (symbol.getPointer() == null || declaring.getPath().equals(normalizedSource)) {
+                return null;
+            }
+            String file = directory.relativize(declaring.getPath()).toString().replace('\\', '/');
+            return file + "#" + symbol.getPointer();
+        };
+        targets.addAll(symbolIndex.search(query, limit, toTarget));
+        // Component libraries without a version key are not in the symbol index, hence matched one by one
+        String lowerQuery = query.toLowerCase(Locale.ENGLISH);
+        for (SpecSummary declaring : summaries.values()) {
+            if (declaring.isSpec()) {
+                continue;
+            }
+            for (SpecSymbol symbol : declaring.getSymbols()) {
+                if (targets.size() >= limit) {
+                    return targets;
+                }
+                String target = symbol.getName().toLowerCase(Locale.ENGLISH).contains(lowerQuery)
+                        ? toTarget.apply(declaring, symbol)
+                        : null;
+                if (target != null) {
+                    targets.add(target);
+                }
+            }
+        }
+        return targets;
+    }
+
+    // Private methods
+
+    private void crawlPending() {
+        List<Path> roots = pendingRoots.getAndSet(null);
+        if (roots != null) {
+            crawl(roots);
+        }
+    }
+
+    /**
+     * Index the given file in the background. Files changed at once (ex: by a checkout) are indexed by a single task,
+     * hence they do not flood the queue of the background pool.
+     */
+    private void indexLater(Path path) {
+        changedFiles.add(path);
+        if (!changesPending.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.computeBackground(cancelChecker -> {
+            // Files changed from now on are indexed by the next task
+            changesPending.set(false);
+            for (Iterator<Path> iterator = changedFiles.iterator(); iterator.hasNext(); ) {
+                Path changed = iterator.next();
+                iterator.remove();
+                index(changed);
+            }
+            return null;
+        }).exceptionally(e -> {
+            // The pool is saturated, the files are indexed on the next change
+            changesPending.set(false);
+            return null;
+        });
+    }
+
+    private void index(Path file) {
+        Path path = normalize(file);
+        if (documentManager.isFileOpen(path)) {
+            indexDocument(path);
+            return;
+        }
+        try (Metrics.Sample ignored = Metrics.start("index/scan")) {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile() || attributes.size() > MAX_FILE_SIZE) {
+                remove(path);
+                return;
+            }
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            SpecSummary summary = summaryCache.get(path, attributes.size(), lastModified, () -> hash(path));
+            if (summary == null) {
+                // Stream the content from the disk, so that neither the content nor a mapping of the file is kept
+                try (SummaryCache.HashingReader reader = new SummaryCache.HashingReader(
+                        documentManager.getReader(path))) {
+                    summary = SpecScanner.scan(path, -1, reader);
+                    summaryCache.put(attributes.size(), lastModified, reader.finish(), summary);
+                }
+            }
+            apply(summary);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Cannot index the file: " + path.toString(), e);
+            remove(path);
+        }
+    }
+
+    private void indexDocument(Path path) {
+        TextDocument document = documentManager.getDocument(path);
+        if (document == null) {
+            return;
+        }
+        try (Metrics.Sample ignored = Metrics.start("index/scanDocument")) {
+            apply(SpecScanner.scan(path, document.getVersion(),
+                    new TextDocumentReader(document, 0, document.length())));
+        }
+    }
+
+    /**
+     * Replace the indexed summary of a file, unless the summary is older than the indexed one.
+     */
+    private synchronized void apply(SpecSummary summary) {
+        Path path = summary.getPath();
+        SpecSummary current = summaries.get(path);
+        boolean open = documentManager.isFileOpen(path);
+        if ((open && summary.getVersion() < 0)
+                || (current != null && summary.getVersion() >= 0 && current.getVersion() > summary.getVersion())) {
+            return;
+        }
+        summaries.put(path, summary);
+        if (summary.isSpec()) {
+            symbolIndex.update(summary);
+        } else {
+            symbolIndex.remove(path);
+        }
+        // Shared fragments are often not complete specs, but they are referred from the specs
+        if (summary.isSpec() || !summary.getSymbols().isEmpty() || !summary.getReferences().isEmpty()) {
+            referenceGraph.update(summary);
+        } else {
+            referenceGraph.remove(path);
+        }
+    }
+
+    /**
+     * Compute the content hash of the given file, as done while scanning it.
+     */
+    private long hash(Path path) {
+        try (SummaryCache.HashingReader reader = new SummaryCache.HashingReader(documentManager.getReader(path))) {
+            return reader.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isSnapshotEnabled() {
+        return Boolean.parseBoolean(System.getProperty(SNAPSHOT_PROPERTY, "true"));
+    }
+
+    private synchronized void remove(Path path) {
+        summaries.remove(path);
+        symbolIndex.remove(path);
+        referenceGraph.remove(path);
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static List<Path> findSpecFiles(List<Path> roots) {
+        List<Path> files = new ArrayList<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try {
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                        String name = dir.getFileName() == null ? "" : dir.getFileName().toString();
+                        if (!dir.equals(root) && (name.startsWith(".") || EXCLUDED_DIRECTORIES.contains(name))) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        if (attributes.isRegularFile() && isSpecFile(file)) {
+                            files.add(file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                LOGGER.error("Error while crawling the workspace folder: " + root.toString(), e);
+            }
+        }
+        return files;
+    }
+
+    private static boolean isSpecFile(Path path) {
+        String name = path.getFileName() == null ? "" : path.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return extension > 0 && SPEC_EXTENSIONS.contains(name.substring(extension + 1).toLowerCase(Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit, miss and eviction counts of a cache.
+ */
+class HitCounter {
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    void record(boolean hit) {
+        (hit ? hits : misses).incrementAndGet();
+    }
+
+    void recordEvictions(int count) {
+        evictions.addAndGet(count);
+    }
+
+    /**
+     * Get a snapshot of the counts.
+     *
+     * @return {@link Map} Counts and the hit rate by name
+     */
+    Map<String, Object> snapshot() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRate", hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        snapshot.put("evictions", evictions.get());
+        return snapshot;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the language server metrics.
+ *
+ * Operations are timed with a {@link Sample}, which also measures the bytes allocated by the current thread during
+ * the operation when the JVM supports it. Cache lookups are counted as hits and misses, and gauges report the current
+ * state of a component (ex: the retained size of a cache) when a snapshot is taken. Startup milestones record the time
+ * from the JVM start to the first time the server reaches a state (ex: the first completion).
+ * ex:
+ * try (Metrics.Sample sample = Metrics.start("textDocument/completion")) {
+ *     ...
+ * }
+ */
+public class Metrics {
+
+    private static final ConcurrentHashMap<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<String, HitCounter> CACHES = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<String, Supplier<Object>> GAUGES = new ConcurrentHashMap<>();
+
+    /**
+     * Milliseconds from the JVM start to the first occurrence of each startup milestone.
+     */
+    private static final ConcurrentHashMap<String, Long> MILESTONES = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Start timing an operation.
+     *
+     * @param name              Operation name
+     * @return {@link Sample}   Sample to be closed when the operation completes
+     */
+    public static Sample start(String name) {
+        return new Sample(TIMERS.computeIfAbsent(name, key -> new Timer()));
+    }
+
+    /**
+     * Record a lookup of a cache.
+     *
+     * @param cache Cache name
+     * @param hit   Whether the lookup was a hit
+     */
+    public static void recordLookup(String cache, boolean hit) {
+        CACHES.computeIfAbsent(cache, key -> new HitCounter()).record(hit);
+    }
+
+    /**
+     * Record evictions of a cache.
+     *
+     * @param cache Cache name
+     * @param count Number of evicted entries
+     */
+    public static void recordEvictions(String cache, int count) {
+        CACHES.computeIfAbsent(cache, key -> new HitCounter()).recordEvictions(count);
+    }
+
+    /**
+     * Register a gauge, replacing any gauge registered with the same name. Gauges are not cleared by a reset.
+     *
+     * @param name  Gauge name
+     * @param gauge Supplier of the current value, which can be serialized to JSON
+     */
+    public static void registerGauge(String name, Supplier<Object> gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * Record the first occurrence of a startup milestone (ex: the first completion), as the time elapsed since the JVM
+     * start. Later occurrences are ignored. Milestones are not cleared by a reset.
+     *
+     * @param name              Milestone name
+     * @return {@link Long}     Milliseconds since the JVM start, or -1 if the milestone has already been recorded
+     */
+    public static long recordMilestone(String name) {
+        if (MILESTONES.containsKey(name)) {
+            return -1;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        return MILESTONES.putIfAbsent(name, uptime) == null ? uptime : -1;
+    }
+
+    /**
+     * Get a snapshot of all the metrics, which can be serialized to JSON.
+     *
+     * @return {@link Map} Timers, caches and gauges by name
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> timers = new TreeMap<>();
+        TIMERS.forEach((name, timer) -> timers.put(name, timer.snapshot()));
+        Map<String, Object> caches = new TreeMap<>();
+        CACHES.forEach((name, counter) -> caches.put(name, counter.snapshot()));
+        Map<String, Object> gauges = new TreeMap<>();
+        GAUGES.forEach((name, gauge) -> gauges.put(name, gauge.get()));
+        Map<String, Object> startup = new TreeMap<>(MILESTONES);
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", System.currentTimeMillis());
+        snapshot.put("allocationsMeasured", Allocations.SUPPORTED);
+        snapshot.put("timers", timers);
+        snapshot.put("caches", caches);
+        snapshot.put("gauges", gauges);
+        snapshot.put("startup", startup);
+        return snapshot;
+    }
+
+    /**
+     * Clear all the metrics of the process, which are shared by all the sessions.
+     */
+    public static void reset() {
+        TIMERS.clear();
+        CACHES.clear();
+    }
+
+    /**
+     * Timing of a single operation.
+     */
+    public static class Sample implements AutoCloseable {
+        private final Timer timer;
+        private final long startNanos;
+        private final long startBytes;
+
+        private Sample(Timer timer) {
+            this.timer = timer;
+            this.startBytes = Allocations.getAllocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - startNanos;
+            long bytes = startBytes < 0 ? -1 : Allocations.getAllocatedBytes() - startBytes;
+            timer.record(nanos, bytes);
+        }
+    }
+
+    /**
+     * Measures the bytes allocated by the current thread, through the HotSpot extension of the thread MX bean.
+     */
+    private static class Allocations {
+        private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+        private static final boolean SUPPORTED = THREAD_BEAN != null;
+
+        private static com.sun.management.ThreadMXBean getThreadBean() {
+            ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            com.sun.management.ThreadMXBean sunThreadBean = (com.sun.management.ThreadMXBean) threadBean;
+            try {
+                if (!sunThreadBean.isThreadAllocatedMemorySupported()) {
+                    return null;
+                }
+                sunThreadBean.setThreadAllocatedMemoryEnabled(true);
+                return sunThreadBean;
+            } catch (UnsupportedOperationException | SecurityException e) {
+                return null;
+            }
+        }
+
+        private static long getAllocatedBytes() {
+            return SUPPORTED ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+        }
+    }
+}
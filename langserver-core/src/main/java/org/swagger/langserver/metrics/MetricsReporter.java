@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the metrics snapshot to a local JSON file periodically.
+ *
+ * Reporting is enabled by setting the file path with the {@link #FILE_PROPERTY} system property. The file is replaced
+ * on each write, hence a reader always sees a complete snapshot. Metrics are collected for the whole process, hence a
+ * single reporter is shared by the sessions of the process.
+ */
+public class MetricsReporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsReporter.class);
+
+    /**
+     * System property of the metrics file path.
+     */
+    public static final String FILE_PROPERTY = "swagger.ls.metricsFile";
+
+    /**
+     * System property of the reporting interval in milliseconds.
+     */
+    public static final String INTERVAL_PROPERTY = "swagger.ls.metricsInterval";
+
+    private static final long DEFAULT_INTERVAL_MILLIS = 60_000;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private static MetricsReporter instance;
+
+    private final Path file;
+
+    private MetricsReporter(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Start reporting if a metrics file is configured. The reporter of the process is started by the first session,
+     * and runs on its own daemon thread, hence it outlives the sessions.
+     *
+     * @return {@link MetricsReporter}  Reporter of the process or null if reporting is not configured
+     */
+    public static synchronized MetricsReporter startIfConfigured() {
+        if (instance != null) {
+            return instance;
+        }
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        long interval = Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS);
+        instance = new MetricsReporter(Paths.get(file).toAbsolutePath());
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "swagger-metrics");
+            thread.setDaemon(true);
+            return thread;
+        }).scheduleWithFixedDelay(instance::report, interval, interval, TimeUnit.MILLISECONDS);
+        return instance;
+    }
+
+    /**
+     * Write the current snapshot, ex: when a session ends. Periodic reports go on for the other sessions.
+     */
+    public void flush() {
+        report();
+    }
+
+    /**
+     * Get the metrics snapshot as JSON.
+     *
+     * @return {@link String} JSON content
+     */
+    public static String toJson() {
+        return GSON.toJson(Metrics.snapshot());
+    }
+
+    // Private methods
+
+    private void report() {
+        try {
+            Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(temporary, toJson().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Error while writing the metrics to: " + file.toString(), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency and allocation statistics of an operation.
+ *
+ * Latencies are recorded in a histogram with power of two microsecond buckets, hence the percentiles are upper bounds
+ * of the bucket they fall in.
+ */
+class Timer {
+
+    private static final int BUCKET_COUNT = 32;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    private final AtomicLong maxAllocatedBytes = new AtomicLong();
+
+    /**
+     * Bucket i counts the latencies up to 2^i microseconds, the last bucket counts the rest. The operation count is
+     * the sum of the buckets.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Record a completed operation.
+     *
+     * @param nanos     Elapsed time in nanoseconds
+     * @param bytes     Bytes allocated by the operation or -1 if the allocations are not measured
+     */
+    void record(long nanos, long bytes) {
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        if (bytes >= 0) {
+            allocatedBytes.addAndGet(bytes);
+            maxAllocatedBytes.accumulateAndGet(bytes, Math::max);
+        }
+        buckets.incrementAndGet(getBucket(nanos));
+    }
+
+    /**
+     * Get a snapshot of the statistics.
+     *
+     * @return {@link Map} Statistics by name
+     */
+    Map<String, Object> snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", total);
+        snapshot.put("totalMillis", totalNanos.get() / NANOS_PER_MILLI);
+        snapshot.put("meanMillis", total == 0 ? 0 : totalNanos.get() / NANOS_PER_MILLI / total);
+        snapshot.put("maxMillis", maxNanos.get() / NANOS_PER_MILLI);
+        snapshot.put("p50Millis", getPercentile(counts, total, 0.5));
+        snapshot.put("p90Millis", getPercentile(counts, total, 0.9));
+        snapshot.put("p99Millis", getPercentile(counts, total, 0.99));
+        snapshot.put("allocatedBytes", allocatedBytes.get());
+        snapshot.put("meanAllocatedBytes", total == 0 ? 0 : allocatedBytes.get() / total);
+        snapshot.put("maxAllocatedBytes", maxAllocatedBytes.get());
+
+        List<Map<String, Object>> histogram = new ArrayList<>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                Map<String, Object> bucket = new LinkedHashMap<>();
+                bucket.put("upToMicros", i == BUCKET_COUNT - 1 ? "inf" : String.valueOf(1L << i));
+                bucket.put("count", counts[i]);
+                histogram.add(bucket);
+            }
+        }
+        snapshot.put("histogram", histogram);
+        return snapshot;
+    }
+
+    // Private methods
+
+    private static int getBucket(long nanos) {
+        long micros = Math.max(1, (nanos + 999) / 1000);
+        // Smallest i where micros <= 2^i
+        int bucket = 64 - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    private static double getPercentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return (1L << (BUCKET_COUNT - 1)) / 1000.0;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.outline;
+
+import org.eclipse.lsp4j.SymbolKind;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds the outline symbols of a parsed block node.
+ *
+ * The outline contains the top level sections, the paths along with their operations, the parameters and the
+ * responses of the operations, the definitions along with their properties, and the reusable parameters and
+ * responses. OpenAPI 3 components are outlined as the Swagger 2 counterparts.
+ */
+final class OutlineBuilder {
+
+    private static final Set<String> OPERATIONS = new HashSet<>(Arrays.asList("get", "put", "post", "delete",
+            "options", "head", "patch", "trace"));
+
+    private final List<OutlineSymbol> symbols = new ArrayList<>();
+
+    private OutlineBuilder() {
+    }
+
+    /**
+     * Build the outline of a block node.
+     *
+     * @param node              Parsed node of the block
+     * @param parentPath        Keys of the mappings enclosing the block
+     * @return {@link List}     Symbols with the block relative positions
+     */
+    static List<OutlineSymbol> build(Node node, List<String> parentPath) {
+        OutlineBuilder builder = new OutlineBuilder();
+        if (node instanceof MappingNode) {
+            String container = parentPath.isEmpty() ? null : parentPath.get(parentPath.size() - 1);
+            builder.visitMapping((MappingNode) node, parentPath, container);
+        }
+        return builder.symbols;
+    }
+
+    // Private methods
+
+    private void visitMapping(MappingNode mapping, List<String> path, String container) {
+        for (NodeTuple tuple : mapping.getValue()) {
+            String key = getScalar(tuple.getKeyNode());
+            if (key != null) {
+                visitEntry(key, tuple, path, container);
+            }
+        }
+    }
+
+    /**
+     * Add the symbol of a mapping entry, if the entry is a part of the outline, and visit its value.
+     */
+    private void visitEntry(String key, NodeTuple tuple, List<String> path, String container) {
+        Node value = tuple.getValueNode();
+        int depth = path.size();
+        String section = depth == 0 ? null : path.get(0);
+        if (depth == 0) {
+            add(key, SymbolKind.Module, null, tuple);
+            visitValue(value, key, key);
+        } else if (depth == 1 && "paths".equals(section) && key.startsWith("/")) {
+            add(key, SymbolKind.Namespace, container, tuple);
+            visitValue(value, path, key, key);
+        } else if (depth == 2 && "paths".equals(section) && OPERATIONS.contains(key)) {
+            String operation = key.toUpperCase(Locale.ENGLISH) + " " + path.get(1);
+            add(operation, SymbolKind.Method, container, tuple);
+            visitValue(value, path, key, operation);
+        } else if (depth == 3 && "paths".equals(section) && "responses".equals(key)) {
+            // Responses of an operation, keyed by the status code
+            if (value instanceof MappingNode) {
+                for (NodeTuple response : ((MappingNode) value).getValue()) {
+                    String code = getScalar(response.getKeyNode());
+                    if (code != null) {
+                        add(code, SymbolKind.Interface, container, response);
+                    }
+                }
+            }
+        } else if (depth >= 2 && depth <= 3 && "paths".equals(section) && "parameters".equals(key)) {
+            // Parameters of a path or an operation
+            if (value instanceof SequenceNode) {
+                for (Node parameter : ((SequenceNode) value).getValue()) {
+                    addParameter(parameter, container);
+                }
+            }
+        } else if (isDeclarationSection(path)) {
+            String kind = path.get(path.size() - 1);
+            add(key, getDeclarationKind(kind), container, tuple);
+            if ("definitions".equals(kind) || "schemas".equals(kind)) {
+                visitProperties(value, key);
+            }
+        } else if (depth == 1 && "components".equals(section)) {
+            add(key, SymbolKind.Module, container, tuple);
+            visitValue(value, path, key, key);
+        }
+    }
+
+    private void visitValue(Node value, String key, String container) {
+        List<String> path = new ArrayList<>(1);
+        path.add(key);
+        if (value instanceof MappingNode) {
+            visitMapping((MappingNode) value, path, container);
+        }
+    }
+
+    private void visitValue(Node value, List<String> parentPath, String key, String container) {
+        if (value instanceof MappingNode) {
+            List<String> path = new ArrayList<>(parentPath.size() + 1);
+            path.addAll(parentPath);
+            path.add(key);
+            visitMapping((MappingNode) value, path, container);
+        }
+    }
+
+    private void visitProperties(Node definition, String container) {
+        if (!(definition instanceof MappingNode)) {
+            return;
+        }
+        for (NodeTuple field : ((MappingNode) definition).getValue()) {
+            if ("properties".equals(getScalar(field.getKeyNode())) && field.getValueNode() instanceof MappingNode) {
+                for (NodeTuple property : ((MappingNode) field.getValueNode()).getValue()) {
+                    String name = getScalar(property.getKeyNode());
+                    if (name != null) {
+                        add(name, SymbolKind.Property, container, property);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addParameter(Node parameter, String container) {
+        if (!(parameter instanceof MappingNode)) {
+            return;
+        }
+        String name = null;
+        String ref = null;
+        for (NodeTuple field : ((MappingNode) parameter).getValue()) {
+            String key = getScalar(field.getKeyNode());
+            if ("name".equals(key)) {
+                name = getScalar(field.getValueNode());
+            } else if ("$ref".equals(key)) {
+                ref = getScalar(field.getValueNode());
+            }
+        }
+        String label = name != null ? name : ref;
+        if (label != null) {
+            symbols.add(new OutlineSymbol(label, SymbolKind.Field, container, parameter.getStartMark().getLine(),
+                    parameter.getStartMark().getColumn(), parameter.getEndMark().getLine(),
+                    parameter.getEndMark().getColumn()));
+        }
+    }
+
+    private void add(String name, SymbolKind kind, String container, NodeTuple tuple) {
+        Node key = tuple.getKeyNode();
+        Node value = tuple.getValueNode();
+        symbols.add(new OutlineSymbol(name, kind, container, key.getStartMark().getLine(),
+                key.getStartMark().getColumn(), value.getEndMark().getLine(), value.getEndMark().getColumn()));
+    }
+
+    /**
+     * Check whether the entries of the given path are reusable declarations.
+     * ex: definitions, parameters, responses and components/schemas
+     */
+    private static boolean isDeclarationSection(List<String> path) {
+        if (path.size() == 1) {
+            String section = path.get(0);
+            return "definitions".equals(section) || "parameters".equals(section) || "responses".equals(section)
+                    || "securityDefinitions".equals(section);
+        }
+        return path.size() == 2 && "components".equals(path.get(0));
+    }
+
+    private static SymbolKind getDeclarationKind(String section) {
+        switch (section) {
+            case "definitions":
+            case "schemas":
+                return SymbolKind.Class;
+            case "parameters":
+                return SymbolKind.Field;
+            case "responses":
+                return SymbolKind.Interface;
+            default:
+                return SymbolKind.Object;
+        }
+    }
+
+    private static String getScalar(Node node) {
+        return node instanceof ScalarNode ? ((ScalarNode) node).getValue() : null;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.outline;
+
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.swagger.langserver.DocumentManager;
+import org.swagger.langserver.document.DocumentBlock;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.metrics.Metrics;
+import org.yaml.snakeyaml.nodes.Node;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Provides the outline of a document: the paths with their operations, parameters and responses, the definitions
+ * with their properties, and the reusable parameters and responses.
+ *
+ * The outline is built per block of the parsed document and cached against the parsed node of the block. An edit
+ * parses only the blocks it touches again, while the other blocks keep their nodes, hence an outline refresh builds
+ * the symbols of the touched blocks only and shifts the cached symbols of the rest.
+ */
+public class OutlineProvider {
+
+    private final DocumentManager documentManager;
+
+    /**
+     * Block relative symbols keyed by the parsed node of the block. Nodes are compared by the identity, and the
+     * entries are dropped once the nodes of the replaced blocks are collected.
+     */
+    private final Map<Node, List<OutlineSymbol>> blockSymbols = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public OutlineProvider(DocumentManager documentManager) {
+        this.documentManager = documentManager;
+    }
+
+    /**
+     * Get the outline of a document. Since there is no hierarchical symbol in the protocol version, the hierarchy is
+     * expressed through the container names of the symbols.
+     *
+     * @param filePath          Normalized path of the document
+     * @param uri               Document uri
+     * @return {@link List}     Symbols in the order of the document
+     */
+    public List<SymbolInformation> getSymbols(Path filePath, String uri) {
+        ParsedDocument parsedDocument = documentManager.getParsedDocument(filePath);
+        if (parsedDocument == null) {
+            return Collections.emptyList();
+        }
+        List<DocumentBlock> blocks = parsedDocument.getBlocks();
+        List<SymbolInformation> result = new ArrayList<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            DocumentBlock block = blocks.get(i);
+            // A split top level entry spans the following blocks of its entries
+            int sectionEnd = -1;
+            if (block.getParentPath().isEmpty()) {
+                int next = i + 1;
+                while (next < blocks.size() && !blocks.get(next).getParentPath().isEmpty()) {
+                    next++;
+                }
+                sectionEnd = next > i + 1 ? blocks.get(next - 1).getEndLine() : -1;
+            }
+            for (OutlineSymbol symbol : getBlockSymbols(block)) {
+                boolean section = sectionEnd >= 0 && symbol.getKind() == SymbolKind.Module;
+                result.add(symbol.toSymbolInformation(uri, block.getStartLine(), section ? sectionEnd : -1));
+            }
+        }
+        return result;
+    }
+
+    // Private methods
+
+    private List<OutlineSymbol> getBlockSymbols(DocumentBlock block) {
+        Node node = block.getNode();
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<OutlineSymbol> symbols = blockSymbols.get(node);
+        Metrics.recordLookup("outlineBlock", symbols != null);
+        if (symbols == null) {
+            symbols = OutlineBuilder.build(node, block.getParentPath());
+            blockSymbols.put(node, symbols);
+        }
+        return symbols;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.outline;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * Outline symbol of a block, positioned relative to the start line of the block. Since the positions are relative,
+ * the symbols stay valid when an edit shifts the block.
+ */
+final class OutlineSymbol {
+
+    private final String name;
+
+    private final SymbolKind kind;
+
+    private final String containerName;
+
+    private final int startLine;
+
+    private final int startCharacter;
+
+    private final int endLine;
+
+    private final int endCharacter;
+
+    OutlineSymbol(String name, SymbolKind kind, String containerName, int startLine, int startCharacter, int endLine,
+                  int endCharacter) {
+        this.name = name;
+        this.kind = kind;
+        this.containerName = containerName;
+        this.startLine = startLine;
+        this.startCharacter = startCharacter;
+        this.endLine = endLine;
+        this.endCharacter = endCharacter;
+    }
+
+    SymbolKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the symbol information at the position of the block.
+     *
+     * @param uri                           Document uri
+     * @param blockStartLine                Start line of the block within the document
+     * @param endLine                       Document line where the symbol ends, overriding the block relative end,
+     *                                      or -1 to use the block relative end
+     * @return {@link SymbolInformation}    Symbol information
+     */
+    SymbolInformation toSymbolInformation(String uri, int blockStartLine, int endLine) {
+        Position end = endLine < 0
+                ? new Position(blockStartLine + this.endLine, endCharacter)
+                : new Position(endLine, 0);
+        Range range = new Range(new Position(blockStartLine + startLine, startCharacter), end);
+        return new SymbolInformation(name, kind, new Location(uri, range), containerName);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.scheduler;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Schedules the work of the language server on dedicated bounded thread pools.
+ *
+ * Latency critical requests (ex: completion, hover) run on the interactive pool, while the background work
+ * (ex: diagnostics, indexing) runs on a separate pool, hence a long running validation never delays a completion. Pool
+ * sizes can be configured with the system properties below.
+ */
+public class RequestScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestScheduler.class);
+
+    /**
+     * System property of the number of interactive request threads.
+     */
+    public static final String INTERACTIVE_THREADS_PROPERTY = "swagger.ls.interactiveThreads";
+
+    /**
+     * System property of the number of background threads.
+     */
+    public static final String BACKGROUND_THREADS_PROPERTY = "swagger.ls.backgroundThreads";
+
+    /**
+     * System property of the maximum number of tasks waiting for a thread, per pool.
+     */
+    public static final String QUEUE_CAPACITY_PROPERTY = "swagger.ls.queueCapacity";
+
+    private static final int DEFAULT_INTERACTIVE_THREADS = 2;
+
+    private static final int DEFAULT_BACKGROUND_THREADS = Math.max(1,
+            Runtime.getRuntime().availableProcessors() / 2);
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private final ThreadPoolExecutor interactiveExecutor;
+
+    private final ThreadPoolExecutor backgroundExecutor;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Create a scheduler with the pool sizes given by the system properties, or the defaults.
+     */
+    public RequestScheduler() {
+        this(Integer.getInteger(INTERACTIVE_THREADS_PROPERTY, DEFAULT_INTERACTIVE_THREADS),
+                Integer.getInteger(BACKGROUND_THREADS_PROPERTY, DEFAULT_BACKGROUND_THREADS),
+                Integer.getInteger(QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * Create a scheduler.
+     *
+     * @param interactiveThreads    Number of interactive request threads
+     * @param backgroundThreads     Number of background threads
+     * @param queueCapacity         Maximum number of tasks waiting for a thread, per pool
+     */
+    public RequestScheduler(int interactiveThreads, int backgroundThreads, int queueCapacity) {
+        // Interactive requests are rejected when the pool is saturated, the client can retry them
+        this.interactiveExecutor = new ThreadPoolExecutor(interactiveThreads, interactiveThreads, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new DaemonThreadFactory("swagger-interactive"), new ThreadPoolExecutor.AbortPolicy());
+        // Background work is dropped when the pool is saturated, rather than run by the submitting thread (ex: the
+        // message thread), since the next edit or file change triggers it again
+        this.backgroundExecutor = new ThreadPoolExecutor(backgroundThreads, backgroundThreads, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new DaemonThreadFactory("swagger-background"), new DropPolicy());
+        this.timer = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("swagger-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Run a latency critical request on the interactive pool.
+     *
+     * Cancelling the returned future (ex: on $/cancelRequest) is visible to the task through the cancel checker.
+     *
+     * @param task                          Request task
+     * @param <T>                           Result type
+     * @return {@link CompletableFuture}    Result of the task
+     */
+    public <T> CompletableFuture<T> computeInteractive(Function<CancelChecker, T> task) {
+        return compute(this.interactiveExecutor, task);
+    }
+
+    /**
+     * Run a task on the background pool.
+     *
+     * @param task                          Background task
+     * @param <T>                           Result type
+     * @return {@link CompletableFuture}    Result of the task
+     */
+    public <T> CompletableFuture<T> computeBackground(Function<CancelChecker, T> task) {
+        return compute(this.backgroundExecutor, task);
+    }
+
+    /**
+     * Run a task on the background pool after the given delay.
+     *
+     * @param task                          Background task
+     * @param delayMillis                   Delay in milliseconds
+     * @return {@link ScheduledFuture}      Future of the scheduled submission, which can be used to cancel the task
+     *                                      before it is submitted
+     */
+    public ScheduledFuture<?> scheduleBackground(Runnable task, long delayMillis) {
+        return this.timer.schedule(() -> submitBackground(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the number of background threads, which is the number of background tasks running in parallel.
+     *
+     * @return {@link Integer} Background thread count
+     */
+    public int getBackgroundThreads() {
+        return this.backgroundExecutor.getMaximumPoolSize();
+    }
+
+    /**
+     * Stop the threads of the scheduler. Pending tasks are discarded.
+     */
+    public void shutdown() {
+        this.timer.shutdownNow();
+        this.interactiveExecutor.shutdownNow();
+        this.backgroundExecutor.shutdownNow();
+    }
+
+    // Private methods
+
+    /**
+     * Submit a task from the timer. A dropped task is logged by the pool.
+     */
+    private void submitBackground(Runnable task) {
+        try {
+            this.backgroundExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Dropped by the saturated pool
+        }
+    }
+
+    private static <T> CompletableFuture<T> compute(ThreadPoolExecutor executor, Function<CancelChecker, T> task) {
+        try {
+            return CompletableFutures.computeAsync(executor, task);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+
+    /**
+     * Rejection policy of the background pool, which logs the dropped task. The task is rejected as well, hence the
+     * future of a computed task completes exceptionally instead of never completing.
+     */
+    private static class DropPolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Scheduler is shut down");
+            }
+            LOGGER.warn("Background task dropped, " + executor.getQueue().size() + " tasks are waiting");
+            throw new RejectedExecutionException("Background pool is saturated");
+        }
+    }
+
+    /**
+     * Thread factory of named daemon threads, which does not prevent the server from exiting.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, this.name + "-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
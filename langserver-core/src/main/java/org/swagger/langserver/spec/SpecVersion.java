@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.spec;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of the supported specification versions. Each version declares the root of its model classes, from which
+ * the type graph of the completions is built once, and the parser validating a document of the version.
+ *
+ * A version is detected from the version key at the start of a document (ex: swagger: "2.0" or openapi: 3.0.1),
+ * without parsing the document. A new version is supported by adding a constant along with its parser.
+ */
+public enum SpecVersion {
+
+    SWAGGER_2("swagger", "2", Swagger.class) {
+        @Override
+        public List<String> validate(String content) {
+            return getMessages(new SwaggerParser().readWithInfo(content).getMessages());
+        }
+    },
+
+    OPENAPI_3("openapi", "3", OpenAPI.class) {
+        @Override
+        public List<String> validate(String content) {
+            return getMessages(new OpenAPIV3Parser().readContents(content).getMessages());
+        }
+    };
+
+    /**
+     * Number of characters searched for the version key. The key is expected at the top of a document, hence the
+     * detection takes the same time regardless of the document size.
+     */
+    private static final int DETECTION_LENGTH = 4096;
+
+    /**
+     * Version key of a YAML or a JSON document, along with the major version.
+     * ex: swagger: '2.0', "openapi": "3.0.1"
+     */
+    private static final Pattern VERSION_KEY = Pattern.compile(
+            "(?:^|[{,])[ \\t]*[\"']?(swagger|openapi)[\"']?[ \\t]*:[ \\t]*[\"']?(\\d*)", Pattern.MULTILINE);
+
+    private final String versionKey;
+
+    private final String majorVersion;
+
+    private final Class<?> modelRoot;
+
+    SpecVersion(String versionKey, String majorVersion, Class<?> modelRoot) {
+        this.versionKey = versionKey;
+        this.majorVersion = majorVersion;
+        this.modelRoot = modelRoot;
+    }
+
+    /**
+     * Detect the specification version of a document from its version key.
+     *
+     * @param content               Document content
+     * @return {@link SpecVersion}  Detected version, or Swagger 2.0 if the document does not declare a known version
+     */
+    public static SpecVersion detect(CharSequence content) {
+        Matcher matcher = VERSION_KEY.matcher(content);
+        matcher.region(0, Math.min(content.length(), DETECTION_LENGTH));
+        while (matcher.find()) {
+            for (SpecVersion version : values()) {
+                // A version key without a version number yet is matched by the key alone (ex: typing openapi: <cursor>)
+                if (version.versionKey.equals(matcher.group(1))
+                        && (matcher.group(2).isEmpty() || version.majorVersion.equals(matcher.group(2)))) {
+                    return version;
+                }
+            }
+        }
+        return SWAGGER_2;
+    }
+
+    /**
+     * Get the key declaring the version at the root of a document.
+     *
+     * @return {@link String} Version key
+     */
+    public String getVersionKey() {
+        return versionKey;
+    }
+
+    /**
+     * Get the model class of the root of a document, where the fields of the model classes are the specification
+     * fields of the version.
+     *
+     * @return {@link Class} Root model class
+     */
+    public Class<?> getModelRoot() {
+        return modelRoot;
+    }
+
+    /**
+     * Get the package of the model classes.
+     *
+     * @return {@link String} Package name
+     */
+    public String getModelPackage() {
+        return modelRoot.getPackage().getName();
+    }
+
+    /**
+     * Validate a document of the version.
+     *
+     * @param content           Document content
+     * @return {@link List}     Messages of the parser
+     */
+    public abstract List<String> validate(String content);
+
+    // Private methods
+
+    private static List<String> getMessages(List<String> messages) {
+        return messages == null ? Collections.emptyList() : messages;
+    }
+}
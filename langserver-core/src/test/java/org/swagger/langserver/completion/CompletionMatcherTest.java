@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Tests for the ranking of the completion candidates by {@link CompletionMatcher}.
+ */
+public class CompletionMatcherTest {
+
+    @Test
+    public void testScore() {
+        int exact = CompletionMatcher.score("title", "title");
+        int prefix = CompletionMatcher.score("ti", "title");
+        int caseInsensitivePrefix = CompletionMatcher.score("Ti", "title");
+        int word = CompletionMatcher.score("id", "getPetById");
+        int fuzzy = CompletionMatcher.score("gpi", "getPetById");
+
+        Assert.assertTrue(exact < prefix);
+        Assert.assertTrue(prefix < caseInsensitivePrefix);
+        Assert.assertTrue(caseInsensitivePrefix < word);
+        Assert.assertTrue(word < fuzzy);
+        Assert.assertEquals(CompletionMatcher.score("xyz", "title"), CompletionMatcher.NO_MATCH);
+    }
+
+    @Test
+    public void testRank() {
+        List<String> candidates = Arrays.asList("description", "operationId", "deprecated", "id", "Identifier",
+                "produces");
+
+        Assert.assertEquals(CompletionMatcher.rank("id", candidates, Function.identity()),
+                Arrays.asList("id", "Identifier", "operationId"));
+        // Candidates of the same score keep their order, and fuzzy matches with fewer gaps come first
+        Assert.assertEquals(CompletionMatcher.rank("de", candidates, Function.identity()),
+                Arrays.asList("description", "deprecated", "Identifier", "produces"));
+        Assert.assertSame(CompletionMatcher.rank("", candidates, Function.identity()), candidates);
+        Assert.assertEquals(CompletionMatcher.rank("zz", candidates, Function.identity()), Collections.emptyList());
+    }
+}
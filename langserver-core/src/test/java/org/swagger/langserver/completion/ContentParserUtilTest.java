@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.swagger.langserver.DocumentManagerImpl;
+import org.swagger.langserver.SharedCaches;
+import org.swagger.langserver.index.WorkspaceIndexer;
+import org.swagger.langserver.scheduler.RequestScheduler;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Tests for the ranking, the size limit and the incomplete flag of the completion lists of {@link ContentParserUtil}.
+ */
+public class ContentParserUtilTest {
+
+    private static final Path PATH = Paths.get("/workspace/api.yaml").toAbsolutePath();
+
+    private static final int DEFINITIONS = 150;
+
+    /**
+     * Line of the unfinished $ref value following the definitions, where the name starts at column 33.
+     */
+    private static final int REF_LINE = 4 + 2 * DEFINITIONS + 6;
+
+    private RequestScheduler scheduler;
+
+    private DocumentManagerImpl documentManager;
+
+    private WorkspaceIndexer workspaceIndexer;
+
+    @BeforeClass
+    public void setUp() {
+        StringBuilder content = new StringBuilder("swagger: \"2.0\"\ninfo:\n  ti\ndefinitions:\n");
+        for (int i = 0; i < DEFINITIONS; i++) {
+            content.append("  Pet").append(i).append(":\n    type: object\n");
+        }
+        content.append("paths:\n  /pets:\n    get:\n      responses:\n        200:\n          schema:\n")
+                .append("            $ref: '#/definitions/Pet14\n");
+        SharedCaches caches = new SharedCaches();
+        scheduler = new RequestScheduler(1, 1, 1);
+        documentManager = new DocumentManagerImpl(caches);
+        workspaceIndexer = new WorkspaceIndexer(scheduler, documentManager, caches.getSummaries());
+        documentManager.openFile(PATH, 1, content.toString());
+        workspaceIndexer.ensureCurrent(PATH);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testKeyCompletionsRankedByPrefix() throws Exception {
+        CompletionList completions = getCompletions(new Position(2, 4));
+
+        Assert.assertFalse(completions.isIncomplete());
+        CompletionItem first = completions.getItems().get(0);
+        Assert.assertEquals(first.getLabel(), "title");
+        Assert.assertEquals(first.getSortText(), "0000");
+    }
+
+    @Test
+    public void testKeyCompletionsWithoutPrefix() throws Exception {
+        CompletionList completions = getCompletions(new Position(2, 2));
+
+        Assert.assertFalse(completions.isIncomplete());
+        Assert.assertTrue(completions.getItems().size() > 1);
+    }
+
+    @Test
+    public void testCompletionsLimit() throws Exception {
+        CompletionList completions = getCompletions(new Position(REF_LINE, 33));
+
+        Assert.assertTrue(completions.isIncomplete());
+        Assert.assertEquals(completions.getItems().size(), 100);
+        Assert.assertEquals(completions.getItems().get(0).getLabel(), "#/definitions/Pet0");
+    }
+
+    @Test
+    public void testReferenceCompletionsRankedByPrefix() throws Exception {
+        CompletionList completions = getCompletions(new Position(REF_LINE, 38));
+
+        // Declarations of the other files are searched by the prefix, hence the list is requested again while typing
+        Assert.assertTrue(completions.isIncomplete());
+        Assert.assertTrue(completions.getItems().size() < 100);
+        Assert.assertEquals(completions.getItems().get(0).getLabel(), "#/definitions/Pet14");
+    }
+
+    // Private methods
+
+    private CompletionList getCompletions(Position position) throws Exception {
+        return ContentParserUtil.getCompletions(documentManager, new CompletionParams(
+                new TextDocumentIdentifier(PATH.toUri().toString()), position), false, workspaceIndexer);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.completion;
+
+import org.swagger.langserver.document.JsonEventParser;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for the field path resolution of {@link FieldIdentifier}.
+ */
+public class FieldIdentifierTest {
+
+    private static final String DOCUMENT = "swagger: \"2.0\"\n"
+            + "info:\n"
+            + "  license:\n"
+            + "    \n"
+            + "paths:\n"
+            + "  /pets:\n"
+            + "    get:\n"
+            + "      parameters:\n"
+            + "        - name: id\n"
+            + "          \n";
+
+    @Test
+    public void testBlockMapping() {
+        // The cursor belongs to the value of the last key only if it is indented further than the key
+        Assert.assertEquals(getFieldPath(DOCUMENT, 3, 4), Arrays.asList("info", "license"));
+        Assert.assertEquals(getFieldPath(DOCUMENT, 3, 2), Collections.singletonList("info"));
+        Assert.assertEquals(getFieldPath(DOCUMENT, 3, 0), Collections.emptyList());
+    }
+
+    @Test
+    public void testBlockSequence() {
+        Assert.assertEquals(getFieldPath(DOCUMENT, 9, 10),
+                Arrays.asList("paths", "/pets", "get", "parameters", FieldIdentifier.SEQUENCE_ITEM));
+        Assert.assertEquals(getFieldPath(DOCUMENT, 9, 8), Arrays.asList("paths", "/pets", "get", "parameters"));
+    }
+
+    @Test
+    public void testFlowMapping() {
+        Assert.assertEquals(getFieldPath("info: {license: {name: x, }}\n", 0, 25), Arrays.asList("info", "license"));
+        Assert.assertEquals(getFieldPath("info: {license: {name: x}, }\n", 0, 26), Collections.singletonList("info"));
+    }
+
+    @Test
+    public void testIncompleteContentAfterCursor() {
+        String content = "paths:\n  /pets:\n    get:\n      tags: [a, b\n  bad: : :\n";
+
+        Assert.assertEquals(getFieldPath(content, 3, 15), Arrays.asList("paths", "/pets", "get", "tags"));
+    }
+
+    @Test
+    public void testJson() {
+        String content = "{\"info\": {\"license\": {\"name\": \"x\", }}}";
+        List<String> fieldPath = new FieldIdentifier(0, 34).calculateFieldPath(
+                new JsonEventParser(new StringReader(content), false));
+
+        Assert.assertEquals(fieldPath, Arrays.asList("info", "license"));
+    }
+
+    // Private methods
+
+    private static List<String> getFieldPath(String content, int line, int column) {
+        return new FieldIdentifier(line, column).calculateFieldPath(new StringReader(content));
+    }
+}
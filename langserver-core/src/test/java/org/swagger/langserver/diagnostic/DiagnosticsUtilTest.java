@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.diagnostic;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.swagger.langserver.document.ParsedDocument;
+import org.swagger.langserver.document.TextDocument;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the syntax diagnostics of {@link DiagnosticsUtil}.
+ */
+public class DiagnosticsUtilTest {
+
+    private static final String INFO = "info:\n  title: Pets\n  version: \"1\"\n";
+
+    @Test
+    public void testAliasOfAnotherBlock() {
+        List<String> messages = getMessages("swagger: \"2.0\"\nx-common: &common\n  type: string\n" + INFO
+                + "paths: {}\ndefinitions:\n  Name: *common\n");
+
+        Assert.assertFalse(messages.toString().contains("alias"), messages.toString());
+    }
+
+    @Test
+    public void testFlowCollectionAcrossBlocks() {
+        // The continuation line of the flow mapping starts a block of its own
+        List<String> messages = getMessages("swagger: \"2.0\"\nx-tags: {first: 1,\nsecond: 2}\n" + INFO
+                + "paths: {}\n");
+
+        Assert.assertFalse(messages.toString().contains("flow"), messages.toString());
+    }
+
+    @Test
+    public void testSyntaxError() {
+        List<String> messages = getMessages("swagger: \"2.0\"\nx-tags: {first: 1,\n" + INFO + "paths: {}\n");
+
+        Assert.assertFalse(messages.isEmpty());
+        Assert.assertTrue(messages.get(0).contains("flow"), messages.toString());
+    }
+
+    // Private methods
+
+    private static List<String> getMessages(String content) {
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic diagnostic : DiagnosticsUtil.getDiagnostics(ParsedDocument.parse(
+                new TextDocument(content, 1)))) {
+            messages.add(diagnostic.getMessage());
+        }
+        return messages;
+    }
+}
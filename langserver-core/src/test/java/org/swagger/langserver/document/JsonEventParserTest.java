@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserException;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.StringReader;
+
+/**
+ * Tests for the events and the marks of {@link JsonEventParser}.
+ */
+public class JsonEventParserTest {
+
+    @Test
+    public void testSameNodesAsYamlParser() {
+        String content = "{\n"
+                + "  \"swagger\": \"2.0\",\n"
+                + "  \"x-values\": [1, -2.5e3, true, null, \"123\", \"a\\u0041\\n\\\"\"],\n"
+                + "  \"info\": {}\n"
+                + "}";
+        String json = describe(compose(new JsonEventParser(new StringReader(content), false)));
+        String yaml = describe(compose(new ParserImpl(new StreamReader(new StringReader(content)))));
+
+        Assert.assertEquals(json, yaml);
+        Assert.assertTrue(json.contains("int=1@2:15"), json);
+        Assert.assertTrue(json.contains("str=123@2:38"), json);
+    }
+
+    @Test
+    public void testFragment() {
+        String content = "\"a\": 1,\n  \"b\": {\"c\": [1, 2]}\n";
+
+        Assert.assertEquals(describe(compose(new JsonEventParser(new StringReader(content), true))),
+                "{str=a@0:0: int=1@0:5, str=b@1:2: {str=c@1:8: [int=1@1:14, int=2@1:17, ], }, }");
+    }
+
+    @Test
+    public void testFragmentClosedAtEnd() {
+        String content = "\"a\": {\"b\": [1";
+
+        Assert.assertEquals(describe(compose(new JsonEventParser(new StringReader(content), true))),
+                "{str=a@0:0: {str=b@0:6: [int=1@0:12, ], }, }");
+    }
+
+    @Test
+    public void testErrors() {
+        ParserException missingComma = parseError("{\"a\": 1 \"b\": 2}");
+        Assert.assertEquals(missingComma.getProblem(), "expected ',' or '}', but found '\"'");
+        Assert.assertEquals(missingComma.getProblemMark().getColumn(), 8);
+
+        ParserException invalidValue = parseError("{\"a\": tru}");
+        Assert.assertEquals(invalidValue.getProblem(), "expected a JSON value, but found 'tru'");
+        Assert.assertEquals(invalidValue.getProblemMark().getColumn(), 6);
+    }
+
+    @Test
+    public void testIsJson() {
+        Assert.assertTrue(JsonEventParser.isJson("\n  {\n  \"swagger\": \"2.0\"}"));
+        Assert.assertTrue(JsonEventParser.isJson("{}"));
+        Assert.assertFalse(JsonEventParser.isJson("{swagger: \"2.0\"}"));
+        Assert.assertFalse(JsonEventParser.isJson("swagger: \"2.0\""));
+        Assert.assertFalse(JsonEventParser.isJson(""));
+    }
+
+    // Private methods
+
+    private static Node compose(Parser parser) {
+        return new Composer(parser, new Resolver()).getSingleNode();
+    }
+
+    private static ParserException parseError(String content) {
+        try {
+            compose(new JsonEventParser(new StringReader(content), false));
+        } catch (ParserException e) {
+            return e;
+        }
+        throw new AssertionError("Content parsed without errors: " + content);
+    }
+
+    /**
+     * Describe the tags, the values and the start marks of a node tree.
+     */
+    private static String describe(Node node) {
+        if (node instanceof ScalarNode) {
+            return node.getTag().getValue().replace("tag:yaml.org,2002:", "") + "=" + ((ScalarNode) node).getValue()
+                    + "@" + node.getStartMark().getLine() + ":" + node.getStartMark().getColumn();
+        }
+        StringBuilder description = new StringBuilder();
+        if (node instanceof MappingNode) {
+            description.append('{');
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                description.append(describe(tuple.getKeyNode())).append(": ").append(describe(tuple.getValueNode()))
+                        .append(", ");
+            }
+            return description.append('}').toString();
+        }
+        description.append('[');
+        for (Node item : ((SequenceNode) node).getValue()) {
+            description.append(describe(item)).append(", ");
+        }
+        return description.append(']').toString();
+    }
+}
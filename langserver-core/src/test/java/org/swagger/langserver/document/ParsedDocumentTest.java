@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the incremental reparse of {@link ParsedDocument}.
+ */
+public class ParsedDocumentTest {
+
+    @Test
+    public void testTopLevelKeyNestedUnderSplitBlock() {
+        StringBuilder content = new StringBuilder("swagger: \"2.0\"\ninfo:\n  title: Pets\n  version: \"1\"\npaths:\n");
+        for (int i = 0; i < 30; i++) {
+            content.append("  /pets").append(i).append(":\n    get:\n      responses:\n        200:\n")
+                    .append("          description: ok\n");
+        }
+        content.append("definitions:\n");
+        for (int i = 0; i < 30; i++) {
+            content.append("  Pet").append(i).append(":\n    type: object\n    properties:\n")
+                    .append("      id: {type: integer}\n");
+        }
+        TextDocument document = new TextDocument(content.toString(), 1);
+        ParsedDocument parsed = ParsedDocument.parse(document);
+        int line = findLine(document, "definitions:");
+        Assert.assertEquals(parsed.getBlock(line + 1).getParentPath().get(0), "definitions");
+
+        // Nest the definitions under the paths, whose last block is an entry of the split paths block
+        TextDocument updated = new TextDocument(content.toString().replace("\ndefinitions:\n", "\n  /new:\n"), 2);
+        ParsedDocument reparsed = parsed.applyEdit(line, line, line).reparse(updated);
+
+        Assert.assertEquals(describe(reparsed), describe(ParsedDocument.parse(updated)));
+    }
+
+    @Test
+    public void testAliasOfAnotherTopLevelBlock() {
+        String content = "swagger: \"2.0\"\nx-common: &common\n  type: string\ndefinitions:\n  Name: *common\n";
+        TextDocument document = new TextDocument(content, 1);
+        ParsedDocument parsed = ParsedDocument.parse(document);
+        Assert.assertFalse(describe(parsed).toString().contains("error"), describe(parsed).toString());
+
+        // Edit the block with the alias only
+        TextDocument updated = new TextDocument(content.replace("Name: *common", "Title: *common"), 2);
+        int line = findLine(updated, "  Title:");
+        ParsedDocument reparsed = parsed.applyEdit(line, line, line).reparse(updated);
+
+        Assert.assertFalse(describe(reparsed).toString().contains("error"), describe(reparsed).toString());
+        Assert.assertEquals(describe(reparsed), describe(ParsedDocument.parse(updated)));
+    }
+
+    @Test
+    public void testAliasOfAnotherSplitBlock() {
+        StringBuilder content = new StringBuilder("swagger: \"2.0\"\ndefinitions:\n  Id: &id\n    type: integer\n");
+        for (int i = 0; i < 30; i++) {
+            content.append("  Pet").append(i).append(":\n    type: object\n    properties:\n")
+                    .append("      id: *id\n");
+        }
+        TextDocument document = new TextDocument(content.toString(), 1);
+        ParsedDocument parsed = ParsedDocument.parse(document);
+
+        Assert.assertFalse(describe(parsed).toString().contains("error"), describe(parsed).toString());
+    }
+
+    // Private methods
+
+    private static int findLine(TextDocument document, String text) {
+        for (int line = 0; line < document.getLineCount(); line++) {
+            if (document.getLine(line).startsWith(text)) {
+                return line;
+            }
+        }
+        throw new AssertionError("Line not found: " + text);
+    }
+
+    private static List<String> describe(ParsedDocument parsed) {
+        List<String> blocks = new ArrayList<>();
+        for (DocumentBlock block : parsed.getBlocks()) {
+            blocks.add(block.getStartLine() + "+" + block.getLineCount() + " " + block.getParentPath() + " "
+                    + block.getIndent() + (block.getError() == null ? "" : " error"));
+        }
+        return blocks;
+    }
+}
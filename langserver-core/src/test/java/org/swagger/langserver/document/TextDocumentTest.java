@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.document;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Tests for the piece table and the line index of {@link TextDocument}.
+ */
+public class TextDocumentTest {
+
+    @Test
+    public void testLineMapping() {
+        TextDocument document = new TextDocument("swagger: \"2.0\"\r\ninfo:\n  title: Pets\n", 1);
+
+        Assert.assertEquals(document.getLineCount(), 4);
+        Assert.assertEquals(document.getLine(0), "swagger: \"2.0\"");
+        Assert.assertEquals(document.getLine(2), "  title: Pets");
+        Assert.assertEquals(document.getLine(3), "");
+        Assert.assertEquals(document.getLineStart(1), 16);
+        Assert.assertEquals(document.getLineEnd(0), 14);
+        Assert.assertEquals(document.getOffset(new Position(2, 4)), 26);
+        // Positions beyond the line end are clamped
+        Assert.assertEquals(document.getOffset(new Position(1, 99)), 21);
+        Assert.assertEquals(document.getPosition(26), new Position(2, 4));
+        Assert.assertEquals(document.getPosition(document.length()), new Position(3, 0));
+    }
+
+    @Test
+    public void testEdits() {
+        TextDocument document = new TextDocument("info:\n  title: Pets\n", 1);
+        TextDocument inserted = document.applyChange(change(1, 9, 1, 9, "Our "), 2);
+        TextDocument split = inserted.applyChange(change(0, 5, 0, 5, "\n  version: \"1\""), 3);
+        TextDocument joined = split.applyChange(change(0, 5, 2, 0, ""), 4);
+
+        Assert.assertEquals(inserted.toString(), "info:\n  title: Our Pets\n");
+        Assert.assertEquals(split.toString(), "info:\n  version: \"1\"\n  title: Our Pets\n");
+        Assert.assertEquals(split.getLine(2), "  title: Our Pets");
+        Assert.assertEquals(joined.toString(), "info:  title: Our Pets\n");
+        Assert.assertEquals(joined.getLineCount(), 2);
+        Assert.assertEquals(joined.getVersion(), 4);
+        // Previous snapshots are not affected by the edits
+        Assert.assertEquals(document.toString(), "info:\n  title: Pets\n");
+        Assert.assertEquals(split.getLineCount(), 4);
+    }
+
+    @Test
+    public void testEditsOfLargeDocument() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            content.append("  key").append(i).append(i % 10 == 0 ? ": value\r\n" : ": value\n");
+        }
+        String text = content.toString();
+        TextDocument document = new TextDocument(text, 0);
+        Random random = new Random(1);
+        for (int version = 1; version <= 2000; version++) {
+            // Most edits are typing, some of them paste or delete a large range of lines
+            int start = random.nextInt(text.length() + 1);
+            int end = Math.min(text.length(), start + random.nextInt(random.nextInt(20) == 0 ? 20000 : 10));
+            String newText = random.nextInt(20) == 0 ? text.substring(0, random.nextInt(20000)) : "x\ny";
+            TextDocument expected = new TextDocument(text, 0);
+            Position startPosition = expected.getPosition(start);
+            Position endPosition = expected.getPosition(end);
+
+            document = document.applyChange(change(startPosition.getLine(), startPosition.getCharacter(),
+                    endPosition.getLine(), endPosition.getCharacter(), newText), version);
+            start = expected.getOffset(startPosition);
+            text = text.substring(0, start) + newText + text.substring(Math.max(start,
+                    expected.getOffset(endPosition)));
+            if (version % 100 == 0) {
+                assertSameLines(document, new TextDocument(text, 0));
+            }
+        }
+    }
+
+    // Private methods
+
+    private static TextDocumentContentChangeEvent change(int startLine, int startCharacter, int endLine,
+                                                         int endCharacter, String text) {
+        return new TextDocumentContentChangeEvent(new Range(new Position(startLine, startCharacter),
+                new Position(endLine, endCharacter)), 0, text);
+    }
+
+    private static void assertSameLines(TextDocument actual, TextDocument expected) {
+        Assert.assertEquals(actual.toString(), expected.toString());
+        Assert.assertEquals(actual.getLineCount(), expected.getLineCount());
+        for (int line = 0; line < expected.getLineCount(); line++) {
+            Assert.assertEquals(actual.getLineStart(line), expected.getLineStart(line), "Line " + line);
+            Assert.assertEquals(actual.getLineEnd(line), expected.getLineEnd(line), "Line " + line);
+        }
+        for (int offset = 0; offset <= expected.length(); offset += 13) {
+            Assert.assertEquals(actual.getPosition(offset), expected.getPosition(offset), "Offset " + offset);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.formatting;
+
+import org.eclipse.lsp4j.FormattingOptions;
+import org.eclipse.lsp4j.TextEdit;
+import org.swagger.langserver.DocumentManagerImpl;
+import org.swagger.langserver.SharedCaches;
+import org.swagger.langserver.document.TextDocument;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the idempotence of the document formatting of {@link FormattingProvider}.
+ */
+public class FormattingProviderTest {
+
+    private static final Path PATH = Paths.get("/workspace/api.yaml").toAbsolutePath();
+
+    private static final FormattingOptions OPTIONS = new FormattingOptions(2, true);
+
+    @Test
+    public void testFormattingIsIdempotent() {
+        StringBuilder content = new StringBuilder("info:\n    version: \"1\"   \n    title: Pets\nswagger: \"2.0\"\n")
+                .append("paths:\n");
+        // Enough operations for the paths to be split to blocks
+        for (int i = 0; i < 40; i++) {
+            content.append("    /pets").append(i).append(":\n")
+                    .append("        get:\n")
+                    .append("            responses:\n")
+                    .append("                200:\n")
+                    .append("                    description: |\n")
+                    .append("                        List of the pets\n")
+                    .append("                        # not a comment\n")
+                    .append("            # Comment of the operation id\n")
+                    .append("            operationId: listPets").append(i).append("   # trailing comment\n")
+                    .append("            tags: [pets, 'store']\n");
+        }
+        DocumentManagerImpl documentManager = new DocumentManagerImpl(new SharedCaches());
+        FormattingProvider formattingProvider = new FormattingProvider(documentManager);
+        documentManager.openFile(PATH, 1, content.toString());
+
+        List<TextEdit> edits = formattingProvider.format(PATH, OPTIONS);
+        Assert.assertFalse(edits.isEmpty());
+        String formatted = apply(content.toString(), edits);
+        Assert.assertTrue(formatted.startsWith("info:\n  title: Pets\n  version: \"1\"\nswagger: \"2.0\"\n"), formatted);
+        // Block scalars at the end of a split block are indented along with the entries
+        Assert.assertTrue(formatted.contains("\n  /pets0:\n    get:\n      tags: [pets, 'store']\n"), formatted);
+        Assert.assertTrue(formatted.contains("          description: |\n            List of the pets\n"
+                + "            # not a comment\n  /pets1:\n"), formatted);
+
+        documentManager.updateFile(PATH, formatted);
+        Assert.assertEquals(formattingProvider.format(PATH, OPTIONS), new ArrayList<TextEdit>());
+    }
+
+    @Test
+    public void testBlockScalarAtDocumentEnd() {
+        String content = "info:\n    title: Pets\n    description: |\n        List of the pets";
+        DocumentManagerImpl documentManager = new DocumentManagerImpl(new SharedCaches());
+        FormattingProvider formattingProvider = new FormattingProvider(documentManager);
+        documentManager.openFile(PATH, 1, content);
+
+        String formatted = apply(content, formattingProvider.format(PATH, OPTIONS));
+        Assert.assertEquals(formatted, "info:\n  title: Pets\n  description: |\n    List of the pets");
+
+        documentManager.updateFile(PATH, formatted);
+        Assert.assertEquals(formattingProvider.format(PATH, OPTIONS), new ArrayList<TextEdit>());
+    }
+
+    // Private methods
+
+    /**
+     * Apply the edits of a document, which are in the document order and do not overlap.
+     */
+    private static String apply(String content, List<TextEdit> edits) {
+        TextDocument document = new TextDocument(content, 0);
+        StringBuilder result = new StringBuilder(content);
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            TextEdit edit = edits.get(i);
+            result.replace(document.getOffset(edit.getRange().getStart()), document.getOffset(edit.getRange().getEnd()),
+                    edit.getNewText());
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests for the $ref resolution, the definitions and the references of {@link ReferenceGraph}.
+ */
+public class ReferenceGraphTest {
+
+    private static final Path ROOT = Paths.get("/workspace").toAbsolutePath();
+
+    private static final Path API = ROOT.resolve("api.yaml");
+
+    private static final Path COMMON = ROOT.resolve("common.yaml");
+
+    private static final Path OWNER = ROOT.resolve("pet models").resolve("owner.yaml");
+
+    private static final Path DOG = ROOT.resolve("dog.yaml");
+
+    private ReferenceGraph graph;
+
+    @BeforeMethod
+    public void setUp() {
+        graph = new ReferenceGraph();
+        graph.update(scan(API, "swagger: \"2.0\"\n"
+                + "paths:\n"
+                + "  /pets:\n"
+                + "    get:\n"
+                + "      responses:\n"
+                + "        200:\n"
+                + "          schema:\n"
+                + "            $ref: '#/definitions/Pet'\n"
+                + "        default:\n"
+                + "          schema:\n"
+                + "            $ref: 'common.yaml#/definitions/Error'\n"
+                + "definitions:\n"
+                + "  Pet:\n"
+                + "    properties:\n"
+                + "      owner:\n"
+                + "        $ref: 'pet%20models/owner.yaml#/definitions/Pet%20Owner'\n"
+                + "      tag:\n"
+                + "        $ref: Tag\n"
+                + "  Tag:\n"
+                + "    type: string\n"));
+        graph.update(scan(COMMON, "definitions:\n  Error:\n    type: object\n"));
+        graph.update(scan(OWNER, "definitions:\n  Pet Owner:\n    type: object\n"));
+        graph.update(scan(DOG, "definitions:\n  Dog:\n    $ref: 'api.yaml#/definitions/Pet'\n"));
+    }
+
+    @Test
+    public void testResolve() {
+        Assert.assertEquals(ReferenceGraph.resolve(API, "Tag"),
+                new ReferenceGraph.SymbolKey(API, "/definitions/Tag"));
+        Assert.assertEquals(ReferenceGraph.resolve(API, "#/definitions/Pet%20Owner"),
+                new ReferenceGraph.SymbolKey(API, "/definitions/Pet Owner"));
+        Assert.assertEquals(ReferenceGraph.resolve(API, "pet%20models/../common.yaml"),
+                new ReferenceGraph.SymbolKey(COMMON, ""));
+        Assert.assertNull(ReferenceGraph.resolve(API, "http://example.com/common.yaml#/definitions/Error"));
+        Assert.assertNull(ReferenceGraph.resolve(API, ""));
+    }
+
+    @Test
+    public void testGetDefinition() {
+        Assert.assertEquals(describe(graph.getDefinition(API, new Position(7, 20))), describe(API, 12));
+        Assert.assertEquals(describe(graph.getDefinition(API, new Position(17, 15))), describe(API, 18));
+        Assert.assertNull(graph.getDefinition(API, new Position(6, 12)));
+    }
+
+    @Test
+    public void testGetCrossFileDefinition() {
+        Assert.assertEquals(describe(graph.getDefinition(API, new Position(10, 20))), describe(COMMON, 1));
+        // Both the file and the pointer of the reference are percent encoded
+        Assert.assertEquals(describe(graph.getDefinition(API, new Position(15, 20))), describe(OWNER, 1));
+        Assert.assertEquals(describe(graph.getDefinition(DOG, new Position(2, 10))), describe(API, 12));
+    }
+
+    @Test
+    public void testGetReferences() {
+        Set<String> expected = new HashSet<>(Arrays.asList(describe(API, 12), describe(API, 7), describe(DOG, 2)));
+
+        // From the declaration and from a reference of the symbol
+        Assert.assertEquals(describe(graph.getReferences(API, new Position(12, 3), true)), expected);
+        Assert.assertEquals(describe(graph.getReferences(DOG, new Position(2, 12), true)), expected);
+        expected.remove(describe(API, 12));
+        Assert.assertEquals(describe(graph.getReferences(API, new Position(12, 3), false)), expected);
+    }
+
+    @Test
+    public void testUpdate() {
+        graph.update(scan(DOG, "definitions:\n  Dog:\n    type: object\n"));
+        graph.remove(OWNER);
+
+        Assert.assertEquals(describe(graph.getReferences(API, new Position(12, 3), false)),
+                new HashSet<>(Arrays.asList(describe(API, 7))));
+        Assert.assertNull(graph.getDefinition(API, new Position(15, 20)));
+    }
+
+    // Private methods
+
+    private static SpecSummary scan(Path path, String content) {
+        return SpecScanner.scan(path, 1, new StringReader(content));
+    }
+
+    private static String describe(Location location) {
+        return location == null ? null : location.getUri() + ":" + location.getRange().getStart().getLine();
+    }
+
+    private static String describe(Path path, int line) {
+        return path.toUri().toString() + ":" + line;
+    }
+
+    private static Set<String> describe(List<Location> locations) {
+        Set<String> described = new HashSet<>();
+        for (Location location : locations) {
+            described.add(describe(location));
+        }
+        return described;
+    }
+}
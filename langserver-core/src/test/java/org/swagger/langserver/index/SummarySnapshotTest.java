@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.swagger.langserver.index;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tests for writing and loading the index snapshots of {@link SummarySnapshot} and {@link SummaryCache}.
+ */
+public class SummarySnapshotTest {
+
+    private static final String CONTENT = "swagger: \"2.0\"\n"
+            + "paths:\n"
+            + "  /pets:\n"
+            + "    get:\n"
+            + "      operationId: listPets\n"
+            + "      responses:\n"
+            + "        200:\n"
+            + "          schema:\n"
+            + "            $ref: 'models/pet.yaml#/definitions/Pet'\n"
+            + "definitions:\n"
+            + "  Error:\n"
+            + "    type: object\n";
+
+    private Path root;
+
+    private Path snapshot;
+
+    private Path file;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("swagger-index").toRealPath();
+        snapshot = root.resolve(".swagger").resolve("index.bin");
+        file = root.resolve("api.yaml");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        SpecSummary summary = SpecScanner.scan(file, 3, new StringReader(CONTENT));
+        SpecSummary library = SpecScanner.scan(root.resolve("models").resolve("pet.yaml"), -1,
+                new StringReader("definitions:\n  Pet:\n    type: object\n"));
+        SummarySnapshot.write(root, snapshot, Arrays.asList(new SummaryCache.Entry(10, 20, 30, summary),
+                new SummaryCache.Entry(40, 50, 60, library)));
+
+        List<SummaryCache.Entry> entries = SummarySnapshot.read(root, snapshot);
+        Assert.assertEquals(entries.size(), 2);
+        SummaryCache.Entry entry = entries.get(0);
+        Assert.assertEquals(entry.size, 10);
+        Assert.assertEquals(entry.lastModified, 20);
+        Assert.assertEquals(entry.hash, 30);
+        // Summaries read from a snapshot are the summaries of the disk content
+        Assert.assertEquals(entry.summary.getVersion(), -1);
+        Assert.assertEquals(describe(entry.summary), describe(summary));
+        Assert.assertEquals(describe(entries.get(1).summary), describe(library));
+        Assert.assertTrue(Files.exists(snapshot.resolveSibling(".gitignore")));
+    }
+
+    @Test
+    public void testMissingOrInvalidSnapshot() throws IOException {
+        Assert.assertEquals(SummarySnapshot.read(root, snapshot), Collections.emptyList());
+
+        Files.createDirectories(snapshot.getParent());
+        Files.write(snapshot, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(SummarySnapshot.read(root, snapshot), Collections.emptyList());
+    }
+
+    @Test
+    public void testLoadedSummaryValidation() {
+        SpecSummary summary = SpecScanner.scan(file, -1, new StringReader(CONTENT));
+        SummaryCache saved = new SummaryCache();
+        saved.put(100, 1000, 42, summary);
+        saved.save(root, snapshot);
+
+        SummaryCache loaded = new SummaryCache();
+        loaded.load(root, snapshot);
+        Assert.assertNotNull(loaded.get(file, 100, 1000, () -> {
+            throw new AssertionError("Content hashed although the file is not modified");
+        }));
+        // A file touched without changing its content is matched by the hash
+        Assert.assertNotNull(loaded.get(file, 100, 2000, () -> 42));
+        Assert.assertNotNull(loaded.get(file, 100, 2000, () -> {
+            throw new AssertionError("Content hashed again after the modification time was updated");
+        }));
+        Assert.assertNull(loaded.get(file, 100, 3000, () -> 43));
+        Assert.assertNull(loaded.get(file, 101, 2000, () -> 42));
+    }
+
+    // Private methods
+
+    private static List<String> describe(SpecSummary summary) {
+        List<String> description = new ArrayList<>();
+        description.add(summary.getPath() + " " + summary.isSpec());
+        for (SpecSymbol symbol : summary.getSymbols()) {
+            description.add(symbol.getName() + " " + symbol.getKind() + " " + symbol.getContainerName() + " "
+                    + symbol.getPointer() + " " + symbol.getRange());
+        }
+        for (SpecReference reference : summary.getReferences()) {
+            description.add(reference.getValue() + " " + reference.getRange());
+        }
+        return description;
+    }
+}
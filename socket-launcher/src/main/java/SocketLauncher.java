@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.launch.LSPLauncher;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.swagger.langserver.SharedCaches;
+import org.swagger.langserver.SwaggerLanguageServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+/**
+ * Socket Launcher to serve several clients from a single Language Server process.
+ *
+ * Each connection is a separate session with its own open documents and workspace index, while the caches of the
+ * disk content are shared by all the sessions. Usage: SocketLauncher [port] [host], where the server listens on the
+ * loopback interface by default.
+ *
+ * The connections are not authenticated and a client can make the server read any file it names (ex: a workspace
+ * root), hence the host must be a loopback address.
+ */
+public class SocketLauncher {
+
+    private static final int DEFAULT_PORT = 7070;
+
+    private static final String DEFAULT_HOST = "localhost";
+
+    private static final int BACKLOG = 50;
+
+    public static void main(String[] args) throws IOException {
+        LogManager.getLogManager().reset();
+        Logger globalLogger = Logger.getLogger(Logger.GLOBAL_LOGGER_NAME);
+        globalLogger.setLevel(Level.OFF);
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String host = args.length > 1 ? args[1] : DEFAULT_HOST;
+        InetAddress address = InetAddress.getByName(host);
+        if (!address.isLoopbackAddress()) {
+            throw new IllegalArgumentException("Host must be a loopback address: " + host);
+        }
+        SharedCaches caches = new SharedCaches();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (ServerSocket serverSocket = new ServerSocket(port, BACKLOG, address)) {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> serveSession(socket, caches, executor));
+            }
+        }
+    }
+
+    /**
+     * Serve the client of the given connection until the connection is closed.
+     *
+     * @param socket    Client connection
+     * @param caches    Caches shared by the sessions
+     * @param executor  Executor of the message processing threads of the sessions
+     */
+    private static void serveSession(Socket socket, SharedCaches caches, ExecutorService executor) {
+        // Exit of a client ends the session only, by closing the connection
+        SwaggerLanguageServer server = new SwaggerLanguageServer(caches, () -> close(socket));
+        try {
+            Launcher<LanguageClient> l = LSPLauncher.createServerLauncher(server, socket.getInputStream(),
+                    socket.getOutputStream(), executor, null);
+            server.connect(l.getRemoteProxy());
+            l.startListening().get();
+        } catch (IOException | ExecutionException e) {
+            // Connection is closed by the client
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            server.disconnect();
+            close(socket);
+        }
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Connection is already closed
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2018, Nadeeshaan Gunasinghe
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.eclipse.lsp4j.ClientCapabilities;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DocumentFormattingParams;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.ExecuteCommandParams;
+import org.eclipse.lsp4j.FormattingOptions;
+import org.eclipse.lsp4j.InitializeParams;
+import org.eclipse.lsp4j.MessageActionItem;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.ShowMessageRequestParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.launch.LSPLauncher;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.swagger.langserver.SwaggerLanguageServer;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Training run of the startup profile, which drives the Language Server through the requests of a typical editor
+ * session so that the classes loaded on the way are dumped to the class-data sharing archive at exit.
+ *
+ * The server is connected over in-memory streams with the same JSON-RPC stack as the stdio launcher, and the
+ * sample specs cover the Swagger 2.0 and the OpenAPI 3.x versions in both YAML and JSON. The startup milestones
+ * (ex: the first completion) are printed at the end, so that the run also measures the startup with an archive.
+ */
+public class StartupTraining {
+
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private static final String SWAGGER_YAML = "swagger: '2.0'\n"
+            + "info:\n"
+            + "  title: Training\n"
+            + "  version: '1.0'\n"
+            + "paths:\n"
+            + "  /pets:\n"
+            + "    get:\n"
+            + "      operationId: listPets\n"
+            + "      parameters:\n"
+            + "        - name: limit\n"
+            + "          in: query\n"
+            + "          type: integer\n"
+            + "      responses:\n"
+            + "        200:\n"
+            + "          description: Pets\n"
+            + "          schema:\n"
+            + "            $ref: '#/definitions/Pet'\n"
+            + "definitions:\n"
+            + "  Pet:\n"
+            + "    type: object\n"
+            + "    properties:\n"
+            + "      name:\n"
+            + "        type: string\n";
+
+    private static final String OPENAPI_YAML = "openapi: 3.0.0\n"
+            + "info:\n"
+            + "  title: Training\n"
+            + "  version: '1.0'\n"
+            + "paths:\n"
+            + "  /pets:\n"
+            + "    get:\n"
+            + "      responses:\n"
+            + "        '200':\n"
+            + "          description: Pets\n"
+            + "          content:\n"
+            + "            application/json:\n"
+            + "              schema:\n"
+            + "                $ref: '#/components/schemas/Pet'\n"
+            + "components:\n"
+            + "  schemas:\n"
+            + "    Pet:\n"
+            + "      type: object\n";
+
+    private static final String SWAGGER_JSON = "{\n"
+            + "  \"swagger\": \"2.0\",\n"
+            + "  \"info\": {\n"
+            + "    \"title\": \"Training\",\n"
+            + "    \"version\": \"1.0\"\n"
+            + "  },\n"
+            + "  \"paths\": {\n"
+            + "    \"/pets\": {\n"
+            + "      \"get\": {\n"
+            + "        \"responses\": {\n"
+            + "          \"200\": {\n"
+            + "            \"description\": \"Pets\"\n"
+            + "          }\n"
+            + "        }\n"
+            + "      }\n"
+            + "    }\n"
+            + "  }\n"
+            + "}\n";
+
+    public static void main(String[] args) throws Exception {
+        Path workspace = Files.createTempDirectory("swagger-ls-training");
+        try {
+            train(workspace);
+        } finally {
+            // The workspace holds the sample specs and the index snapshot written by the session
+            try (Stream<Path> paths = Files.walk(workspace)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void train(Path workspace) throws Exception {
+        PipedOutputStream clientOut = new PipedOutputStream();
+        PipedOutputStream serverOut = new PipedOutputStream();
+        PipedInputStream serverIn = new PipedInputStream(clientOut, PIPE_SIZE);
+        PipedInputStream clientIn = new PipedInputStream(serverOut, PIPE_SIZE);
+
+        SwaggerLanguageServer server = new SwaggerLanguageServer();
+        Launcher<LanguageClient> serverLauncher = LSPLauncher.createServerLauncher(server, serverIn, serverOut);
+        server.connect(serverLauncher.getRemoteProxy());
+        serverLauncher.startListening();
+
+        // Diagnostics are published for each of the opened documents
+        CountDownLatch diagnostics = new CountDownLatch(3);
+        Launcher<LanguageServer> clientLauncher = LSPLauncher.createClientLauncher(new TrainingClient(diagnostics),
+                clientIn, clientOut);
+        clientLauncher.startListening();
+        LanguageServer remote = clientLauncher.getRemoteProxy();
+
+        InitializeParams initializeParams = new InitializeParams();
+        initializeParams.setRootUri(workspace.toUri().toString());
+        initializeParams.setCapabilities(new ClientCapabilities());
+        await(remote.initialize(initializeParams));
+
+        String swaggerYaml = open(remote, workspace.resolve("swagger.yaml"), SWAGGER_YAML);
+        String openApiYaml = open(remote, workspace.resolve("openapi.yaml"), OPENAPI_YAML);
+        String swaggerJson = open(remote, workspace.resolve("swagger.json"), SWAGGER_JSON);
+
+        await(remote.getWorkspaceService().symbol(new WorkspaceSymbolParams("Pet")));
+        // Field, value and reference completions
+        complete(remote, swaggerYaml, 7, 6);
+        complete(remote, swaggerYaml, 10, 14);
+        complete(remote, swaggerYaml, 16, 18);
+        complete(remote, openApiYaml, 7, 6);
+        complete(remote, swaggerJson, 8, 8);
+        await(remote.getTextDocumentService().hover(new TextDocumentPositionParams(
+                new TextDocumentIdentifier(swaggerYaml), new Position(16, 14))));
+        await(remote.getTextDocumentService().documentSymbol(new DocumentSymbolParams(
+                new TextDocumentIdentifier(openApiYaml))));
+        await(remote.getTextDocumentService().formatting(new DocumentFormattingParams(
+                new TextDocumentIdentifier(swaggerYaml), new FormattingOptions(2, true))));
+        diagnostics.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        Object metrics = await(remote.getWorkspaceService().executeCommand(new ExecuteCommandParams(
+                "swagger.metrics", Collections.emptyList())));
+        System.out.println(metrics);
+        await(remote.shutdown());
+    }
+
+    private static String open(LanguageServer remote, Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        String uri = file.toUri().toString();
+        remote.getTextDocumentService().didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, "yaml", 1,
+                content)));
+        return uri;
+    }
+
+    private static void complete(LanguageServer remote, String uri, int line, int character) throws Exception {
+        await(remote.getTextDocumentService().completion(new CompletionParams(new TextDocumentIdentifier(uri),
+                new Position(line, character))));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Client of the training run, which only counts the published diagnostics.
+     */
+    private static class TrainingClient implements LanguageClient {
+        private final CountDownLatch diagnostics;
+
+        private TrainingClient(CountDownLatch diagnostics) {
+            this.diagnostics = diagnostics;
+        }
+
+        @Override
+        public void telemetryEvent(Object object) {
+        }
+
+        @Override
+        public void publishDiagnostics(PublishDiagnosticsParams diagnostics) {
+            this.diagnostics.countDown();
+        }
+
+        @Override
+        public void showMessage(MessageParams messageParams) {
+        }
+
+        @Override
+        public CompletableFuture<MessageActionItem> showMessageRequest(ShowMessageRequestParams requestParams) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void logMessage(MessageParams message) {
+        }
+    }
+}